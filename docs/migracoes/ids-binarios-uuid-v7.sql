@@ -0,0 +1,43 @@
+-- =============================================================================
+-- Migração: ids de transacoes e pagamentos de VARCHAR (UUID v4 em texto) para BINARY(16)
+-- =============================================================================
+-- Necessária apenas para bancos persistentes criados antes da troca (o H2 em memória do
+-- projeto é recriado a cada inicialização). Sintaxe H2 2.x; no PostgreSQL use o tipo UUID
+-- (id::uuid) e a sintaxe de RENAME COLUMN correspondente.
+--
+-- Os ids antigos (v4) são convertidos sem alteração de valor, então links e cursores de extrato
+-- já emitidos continuam válidos. Somente as novas linhas recebem ids v7. Como os v4 antigos ficam
+-- espalhados pelo índice, o ganho de inserção aparece à medida que as novas linhas dominam a tabela.
+-- Execute com a aplicação parada.
+
+-- 1. transacoes ---------------------------------------------------------------
+ALTER TABLE transacoes ADD COLUMN id_binario BINARY(16);
+UPDATE transacoes SET id_binario = CAST(CAST(id AS UUID) AS BINARY(16));
+ALTER TABLE transacoes DROP PRIMARY KEY;
+ALTER TABLE transacoes DROP COLUMN id;
+ALTER TABLE transacoes ALTER COLUMN id_binario RENAME TO id;
+ALTER TABLE transacoes ALTER COLUMN id SET NOT NULL;
+ALTER TABLE transacoes ADD PRIMARY KEY (id);
+
+-- 2. pagamentos (e a tabela de junção com as taxas) ---------------------------
+ALTER TABLE pagamento_taxas ADD COLUMN pagamento_id_binario BINARY(16);
+UPDATE pagamento_taxas SET pagamento_id_binario = CAST(CAST(pagamento_id AS UUID) AS BINARY(16));
+
+ALTER TABLE pagamentos ADD COLUMN id_binario BINARY(16);
+UPDATE pagamentos SET id_binario = CAST(CAST(id AS UUID) AS BINARY(16));
+
+-- Remove a FK antiga (o nome gerado pelo Hibernate pode variar; confira em INFORMATION_SCHEMA.TABLE_CONSTRAINTS)
+-- ALTER TABLE pagamento_taxas DROP CONSTRAINT <fk_pagamento_taxas_pagamento>;
+ALTER TABLE pagamento_taxas DROP PRIMARY KEY;
+ALTER TABLE pagamento_taxas DROP COLUMN pagamento_id;
+ALTER TABLE pagamento_taxas ALTER COLUMN pagamento_id_binario RENAME TO pagamento_id;
+ALTER TABLE pagamento_taxas ALTER COLUMN pagamento_id SET NOT NULL;
+
+ALTER TABLE pagamentos DROP PRIMARY KEY;
+ALTER TABLE pagamentos DROP COLUMN id;
+ALTER TABLE pagamentos ALTER COLUMN id_binario RENAME TO id;
+ALTER TABLE pagamentos ALTER COLUMN id SET NOT NULL;
+ALTER TABLE pagamentos ADD PRIMARY KEY (id);
+
+ALTER TABLE pagamento_taxas ADD PRIMARY KEY (pagamento_id, taxa_id);
+ALTER TABLE pagamento_taxas ADD FOREIGN KEY (pagamento_id) REFERENCES pagamentos (id);
@@ -0,0 +1,16 @@
+-- =============================================================================
+-- Migração: sequence dos números de conta em blocos "pooled"
+-- =============================================================================
+-- Necessária para bancos persistentes que já têm a sequence seq_bloco_numero_conta e ao mudar
+-- banco.conta.numero.tamanho-bloco (o H2 em memória do projeto é recriado a cada inicialização).
+-- A aplicação confere o INCREMENT BY da sequence e não sobe enquanto ele for diferente do tamanho configurado.
+-- Sintaxe H2 2.x / PostgreSQL. Rodar com todos os nós parados: os restos de bloco em memória são descartados.
+
+-- 1. Primeiro sequencial ainda não usado por nenhuma conta (corpo do número sem o dígito verificador - BASE).
+SELECT COALESCE(MAX(numero / 10) - 10000000 + 1, 0) AS proximo_sequencial
+FROM contas
+WHERE numero >= 100000000;
+
+-- 2. Reinicia a sequence nesse valor, andando de N em N (N = banco.conta.numero.tamanho-bloco).
+--    Substitua <proximo_sequencial> pelo resultado da consulta acima e 100 pelo tamanho configurado.
+ALTER SEQUENCE seq_bloco_numero_conta RESTART WITH <proximo_sequencial> INCREMENT BY 100;
@@ -0,0 +1,22 @@
+-- =============================================================================
+-- Migração: crédito de rendimento da poupança em lote
+-- =============================================================================
+-- Necessária apenas para bancos persistentes criados antes do job de rendimento (o H2 em memória
+-- do projeto é recriado a cada inicialização). Sintaxe H2 2.x / PostgreSQL.
+
+-- Mês de referência do último rendimento creditado (impede crédito duplo).
+ALTER TABLE contas ADD COLUMN data_ultimo_rendimento DATE;
+
+-- Progresso de cada faixa de ids em cada mês (retomada após uma queda).
+CREATE TABLE checkpoints_rendimento (
+    id                   VARCHAR(255) NOT NULL PRIMARY KEY,
+    data_referencia      DATE         NOT NULL,
+    faixa                INTEGER      NOT NULL,
+    inicio               VARCHAR(36)  NOT NULL,
+    fim                  VARCHAR(36),
+    ultimo_id_processado VARCHAR(36),
+    contas_creditadas    BIGINT       NOT NULL,
+    concluida            BOOLEAN      NOT NULL,
+    atualizado_em        TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_checkpoint_rendimento_faixa UNIQUE (data_referencia, faixa)
+);
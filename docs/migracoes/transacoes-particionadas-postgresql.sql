@@ -0,0 +1,39 @@
+-- =============================================================================
+-- Opcional (PostgreSQL): tabela transacoes particionada por mês
+-- =============================================================================
+-- O H2 do projeto não tem particionamento declarativo; nele o mês é apenas a unidade do arquivamento
+-- (ArquivamentoTransacoesScheduler). Em um PostgreSQL de produção, particionar por data_hora deixa cada
+-- mês em uma tabela física própria: os índices dos meses quentes continuam pequenos e, depois que o
+-- arquivamento esvazia um mês, a partição vazia pode ser removida (DROP) sem custo.
+-- Execute com a aplicação parada.
+
+ALTER TABLE transacoes RENAME TO transacoes_antiga;
+
+-- A chave primária de uma tabela particionada precisa incluir a coluna de partição.
+CREATE TABLE transacoes (
+    id                   BYTEA        NOT NULL,
+    data_hora            TIMESTAMP(6) NOT NULL,
+    tipo                 VARCHAR(255) NOT NULL,
+    valor                BIGINT       NOT NULL,
+    conta_id             VARCHAR(255) NOT NULL REFERENCES contas (id),
+    conta_destino_numero BIGINT,
+    PRIMARY KEY (id, data_hora)
+) PARTITION BY RANGE (data_hora);
+
+CREATE INDEX idx_transacao_conta_data ON transacoes (conta_id, data_hora);
+
+-- Uma partição por mês, do mais antigo com dados até alguns meses à frente.
+-- Novas partições devem ser criadas antes da virada do mês (ex: por um job do banco ou pg_partman).
+DO $$
+DECLARE
+    mes DATE := date_trunc('month', (SELECT COALESCE(MIN(data_hora), now()) FROM transacoes_antiga));
+BEGIN
+    WHILE mes < date_trunc('month', now()) + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE transacoes_%s PARTITION OF transacoes FOR VALUES FROM (%L) TO (%L)',
+                       to_char(mes, 'YYYY_MM'), mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO transacoes SELECT id, data_hora, tipo, valor, conta_id, conta_destino_numero FROM transacoes_antiga;
+DROP TABLE transacoes_antiga;
@@ -0,0 +1,32 @@
+-- =============================================================================
+-- Migração: colunas monetárias de NUMERIC (reais com 2 casas) para BIGINT (centavos)
+-- =============================================================================
+-- Necessária apenas para bancos persistentes criados antes da troca (o H2 em memória do
+-- projeto é recriado a cada inicialização). Sintaxe H2 2.x; no PostgreSQL use
+-- ALTER COLUMN ... TYPE BIGINT USING ROUND(coluna * 100).
+--
+-- As colunas antigas já tinham 2 casas decimais, então a conversão é exata.
+-- Percentuais (taxas.percentual, contas.taxa, contas.rendimento) continuam NUMERIC.
+-- Execute com a aplicação parada.
+
+-- Cada coluna é convertida para centavos e, então, para BIGINT.
+UPDATE contas SET saldo = saldo * 100;
+ALTER TABLE contas ALTER COLUMN saldo SET DATA TYPE BIGINT;
+
+UPDATE transacoes SET valor = valor * 100;
+ALTER TABLE transacoes ALTER COLUMN valor SET DATA TYPE BIGINT;
+
+UPDATE transacoes_pendentes SET valor = valor * 100;
+ALTER TABLE transacoes_pendentes ALTER COLUMN valor SET DATA TYPE BIGINT;
+
+UPDATE pagamentos SET valor_pago = valor_pago * 100;
+ALTER TABLE pagamentos ALTER COLUMN valor_pago SET DATA TYPE BIGINT;
+
+UPDATE taxas SET valor_fixo = valor_fixo * 100;
+ALTER TABLE taxas ALTER COLUMN valor_fixo SET DATA TYPE BIGINT;
+
+UPDATE saldos_snapshot SET saldo = saldo * 100;
+ALTER TABLE saldos_snapshot ALTER COLUMN saldo SET DATA TYPE BIGINT;
+
+UPDATE eventos_conta SET valor = valor * 100;
+ALTER TABLE eventos_conta ALTER COLUMN valor SET DATA TYPE BIGINT;
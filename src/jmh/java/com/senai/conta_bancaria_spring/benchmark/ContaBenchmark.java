@@ -0,0 +1,78 @@
+package com.senai.conta_bancaria_spring.benchmark;
+
+import com.senai.conta_bancaria_spring.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria_spring.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as operações de saldo das entidades Conta (vazão e, com -prof gc, alocação por operação).
+ * O saldo é reposto no início de cada operação para que cada chamada parta do mesmo estado
+ * (sem o saldo se esgotar nos débitos ou crescer indefinidamente com o rendimento composto).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContaBenchmark {
+
+    private static final Money SALDO_INICIAL = Money.de(new BigDecimal("10000.00"));
+    private static final Money VALOR = Money.de(new BigDecimal("150.75"));
+
+    private ContaCorrente contaCorrente;
+    private ContaPoupanca contaPoupanca;
+
+    @Setup
+    public void setup() {
+        contaCorrente = ContaCorrente.builder()
+                .numero(123456L)
+                .saldo(SALDO_INICIAL)
+                .limite(500L)
+                .taxa(new BigDecimal("0.015"))
+                .ativa(true)
+                .build();
+
+        contaPoupanca = ContaPoupanca.builder()
+                .numero(654321L)
+                .saldo(SALDO_INICIAL)
+                .rendimento(new BigDecimal("0.005"))
+                .ativa(true)
+                .build();
+    }
+
+    @Benchmark
+    public Money depositar() {
+        contaCorrente.setSaldo(SALDO_INICIAL);
+        contaCorrente.retirarVariacoesPendentes(); // Na aplicação, gravadas/descartadas a cada operação
+        contaCorrente.depositar(VALOR);
+        return contaCorrente.getSaldo();
+    }
+
+    @Benchmark
+    public Money sacarContaCorrente() {
+        contaCorrente.setSaldo(SALDO_INICIAL);
+        contaCorrente.retirarVariacoesPendentes();
+        contaCorrente.sacar(VALOR);
+        return contaCorrente.getSaldo();
+    }
+
+    @Benchmark
+    public Money debitarParaTransferencia() {
+        contaCorrente.setSaldo(SALDO_INICIAL);
+        contaCorrente.retirarVariacoesPendentes();
+        return contaCorrente.debitarParaTransferencia(VALOR);
+    }
+
+    @Benchmark
+    public Money aplicarRendimento() {
+        contaPoupanca.setSaldo(SALDO_INICIAL);
+        contaPoupanca.retirarVariacoesPendentes();
+        contaPoupanca.aplicarRendimento();
+        return contaPoupanca.getSaldo();
+    }
+}
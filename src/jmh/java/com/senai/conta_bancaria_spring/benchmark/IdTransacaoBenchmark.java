@@ -0,0 +1,104 @@
+package com.senai.conta_bancaria_spring.benchmark;
+
+import com.senai.conta_bancaria_spring.infrastructure.persistence.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compara a chave primária de "transacoes" como UUID v4 em texto (VARCHAR 36, formato antigo) e como
+ * UUID v7 em BINARY(16) (formato atual), em um H2 em arquivo já populado com {@code linhasIniciais} linhas.
+ * <p>
+ * Mede a vazão de INSERT em lotes (linhas/s) e, no fim, imprime o espaço em disco da tabela.
+ * O padrão é 10 milhões de linhas (a carga inicial leva alguns minutos); para uma rodada rápida:
+ * {@code -Djmh.args="IdTransacaoBenchmark -p linhasIniciais=100000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdTransacaoBenchmark {
+
+    private static final int LINHAS_POR_LOTE = 1000;
+    private static final String CONTA_ID = UUID.randomUUID().toString();
+
+    public enum TipoId { UUID_V4_TEXTO, UUID_V7_BINARIO }
+
+    @Param({"UUID_V4_TEXTO", "UUID_V7_BINARIO"})
+    private TipoId tipoId;
+
+    @Param({"10000000"})
+    private int linhasIniciais;
+
+    private Path diretorio;
+    private Connection conexao;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException, IOException {
+        diretorio = Files.createTempDirectory("bench-ids-");
+        conexao = DriverManager.getConnection("jdbc:h2:file:" + diretorio.resolve("banco") + ";CACHE_SIZE=65536");
+        conexao.setAutoCommit(false);
+
+        String tipoColuna = tipoId == TipoId.UUID_V4_TEXTO ? "VARCHAR(36)" : "BINARY(16)";
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("CREATE TABLE transacoes (id " + tipoColuna + " PRIMARY KEY, conta_id VARCHAR(36) NOT NULL, "
+                    + "data_hora TIMESTAMP NOT NULL, tipo VARCHAR(32) NOT NULL, valor NUMERIC(19, 2) NOT NULL)");
+        }
+        insert = conexao.prepareStatement(
+                "INSERT INTO transacoes (id, conta_id, data_hora, tipo, valor) VALUES (?, ?, ?, 'DEPOSITO', ?)");
+
+        for (int inseridas = 0; inseridas < linhasIniciais; inseridas += LINHAS_POR_LOTE) {
+            inserirLote(Math.min(LINHAS_POR_LOTE, linhasIniciais - inseridas));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet rs = consulta.executeQuery(
+                     "SELECT COUNT(*), DISK_SPACE_USED('TRANSACOES') FROM transacoes")) {
+            rs.next();
+            System.out.printf("%n[%s] linhas=%d espaco_tabela_com_indices=%.1f MB%n",
+                    tipoId, rs.getLong(1), rs.getLong(2) / (1024.0 * 1024.0));
+        }
+        insert.close();
+        conexao.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS_POR_LOTE)
+    public void inserirLoteDeTransacoes() throws SQLException {
+        inserirLote(LINHAS_POR_LOTE);
+    }
+
+    private void inserirLote(int quantidade) throws SQLException {
+        Timestamp agora = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < quantidade; i++) {
+            if (tipoId == TipoId.UUID_V4_TEXTO) {
+                insert.setString(1, UUID.randomUUID().toString());
+            } else {
+                insert.setBytes(1, UuidV7.paraBytes(UuidV7.gerar()));
+            }
+            insert.setString(2, CONTA_ID);
+            insert.setTimestamp(3, agora);
+            insert.setBigDecimal(4, BigDecimal.TEN);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        conexao.commit();
+    }
+}
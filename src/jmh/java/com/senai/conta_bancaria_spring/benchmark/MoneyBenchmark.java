@@ -0,0 +1,100 @@
+package com.senai.conta_bancaria_spring.benchmark;
+
+import com.senai.conta_bancaria_spring.domain.entity.Taxa;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.domain.service.PlanoTarifario;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a aritmética de saldo em BigDecimal (modelo antigo das entidades) com Money (centavos em long),
+ * isolada do ledger de eventos: depósito, saque com taxa + limite e custo de pagamento com taxas.
+ * <p>
+ * O número que interessa é {@code gc.alloc.rate.norm} (bytes por operação) do {@code -prof gc}:
+ * {@code -Djmh.args="MoneyBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal DEPOSITO_MINIMO = BigDecimal.TEN;
+    private static final Money DEPOSITO_MINIMO_MONEY = Money.deReais(10);
+
+    // Não finais: o JIT não pode tratar os operandos como constantes
+    private BigDecimal saldo = new BigDecimal("10000.00");
+    private BigDecimal valor = new BigDecimal("150.75");
+    private BigDecimal taxa = new BigDecimal("0.015");
+    private BigDecimal fatorPagamento = new BigDecimal("1.035");
+    private BigDecimal fixoPagamento = new BigDecimal("3.50");
+    private long limite = 500L;
+
+    private Money saldoMoney = Money.de(saldo);
+    private Money valorMoney = Money.de(valor);
+    private Money limiteMoney = Money.deReais(limite);
+    private PlanoTarifario planoSaque = PlanoTarifario.percentual(taxa);
+    private PlanoTarifario planoPagamento;
+
+    @Setup
+    public void setup() {
+        planoPagamento = PlanoTarifario.compilar(List.of(Taxa.builder()
+                .percentual(new BigDecimal("0.035"))
+                .valorFixo(Money.de(fixoPagamento))
+                .build()));
+    }
+
+    @Benchmark
+    public BigDecimal depositarBigDecimal() {
+        if (valor.compareTo(DEPOSITO_MINIMO) <= 0) {
+            throw new IllegalStateException();
+        }
+        return saldo.add(valor);
+    }
+
+    @Benchmark
+    public Money depositarMoney() {
+        if (!valorMoney.maiorQue(DEPOSITO_MINIMO_MONEY)) {
+            throw new IllegalStateException();
+        }
+        return saldoMoney.somar(valorMoney);
+    }
+
+    // Mesmas contas do saque da ContaCorrente: valor + valor × taxa, saldo + limite, débito e variação do evento.
+    @Benchmark
+    public BigDecimal sacarComTaxaBigDecimal() {
+        BigDecimal valorComTaxa = valor.add(valor.multiply(taxa));
+        BigDecimal saldoDisponivel = saldo.add(BigDecimal.valueOf(limite));
+        if (valorComTaxa.compareTo(saldoDisponivel) > 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal novoSaldo = saldo.subtract(valorComTaxa);
+        return novoSaldo.subtract(saldo);
+    }
+
+    @Benchmark
+    public Money sacarComTaxaMoney() {
+        Money valorComTaxa = planoSaque.calcularCustoTotal(valorMoney);
+        Money saldoDisponivel = saldoMoney.somar(limiteMoney);
+        if (valorComTaxa.maiorQue(saldoDisponivel)) {
+            throw new IllegalStateException();
+        }
+        Money novoSaldo = saldoMoney.subtrair(valorComTaxa);
+        return novoSaldo.subtrair(saldoMoney);
+    }
+
+    @Benchmark
+    public BigDecimal custoPagamentoBigDecimal() {
+        return valor.multiply(fatorPagamento).add(fixoPagamento);
+    }
+
+    @Benchmark
+    public Money custoPagamentoMoney() {
+        return planoPagamento.calcularCustoTotal(valorMoney);
+    }
+}
@@ -0,0 +1,76 @@
+package com.senai.conta_bancaria_spring.benchmark;
+
+import com.senai.conta_bancaria_spring.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria_spring.domain.entity.Taxa;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.domain.service.PagamentoDomainService;
+import com.senai.conta_bancaria_spring.domain.service.PlanoTarifario;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o cálculo de taxas + débito do pagamento de boleto variando a quantidade de taxas aplicadas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagamentoBenchmark {
+
+    private static final Money SALDO_INICIAL = Money.de(new BigDecimal("1000000.00"));
+    private static final Money VALOR_BOLETO = Money.de(new BigDecimal("237.40"));
+    private static final String CODIGO_BOLETO = "34191790010104351004791020150008291070026000";
+
+    @Param({"0", "1", "5", "20"})
+    private int quantidadeTaxas;
+
+    private PagamentoDomainService pagamentoDomainService;
+    private ContaCorrente conta;
+    private Set<Taxa> taxas;
+    private PlanoTarifario plano;
+
+    @Setup
+    public void setup() {
+        pagamentoDomainService = new PagamentoDomainService();
+
+        conta = ContaCorrente.builder()
+                .numero(123456L)
+                .saldo(SALDO_INICIAL)
+                .limite(500L)
+                .taxa(new BigDecimal("0.015"))
+                .ativa(true)
+                .build();
+
+        taxas = new HashSet<>();
+        for (int i = 0; i < quantidadeTaxas; i++) {
+            taxas.add(Taxa.builder()
+                    .id("taxa-" + i)
+                    .descricao("Taxa " + i)
+                    .percentual(new BigDecimal("0.0" + (i % 9 + 1)))
+                    .valorFixo(Money.de(new BigDecimal(i % 4 + ".50")))
+                    .build());
+        }
+        plano = PlanoTarifario.compilar(taxas);
+    }
+
+    @Benchmark
+    public Money processarDebitoPagamento() {
+        conta.setSaldo(SALDO_INICIAL);
+        conta.retirarVariacoesPendentes();
+        return pagamentoDomainService.processarDebitoPagamento(conta, VALOR_BOLETO, CODIGO_BOLETO, taxas);
+    }
+
+    // Caminho do pagamento real: o plano já vem compilado do catálogo de taxas.
+    @Benchmark
+    public Money processarDebitoPagamentoComPlano() {
+        conta.setSaldo(SALDO_INICIAL);
+        conta.retirarVariacoesPendentes();
+        return pagamentoDomainService.processarDebitoPagamento(conta, VALOR_BOLETO, CODIGO_BOLETO, plano);
+    }
+}
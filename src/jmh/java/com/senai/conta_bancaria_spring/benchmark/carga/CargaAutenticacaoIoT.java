@@ -0,0 +1,275 @@
+package com.senai.conta_bancaria_spring.benchmark.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senai.conta_bancaria_spring.ContaBancariaSpringApplication;
+import com.senai.conta_bancaria_spring.benchmark.carga.ParametrosCarga.Operacao;
+import io.moquette.broker.Server;
+import io.moquette.broker.config.IConfig;
+import io.moquette.broker.config.MemoryConfig;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga ponta a ponta da autenticação 2FA: sobe um broker MQTT embutido (Moquette) e a aplicação completa,
+ * cria clientes com dispositivos simulados e executa saques, transferências e pagamentos pela API HTTP.
+ * <p>
+ * Cada cliente roda em laço fechado (uma operação por vez, em uma thread virtual): envia a operação, recebe o 202
+ * e espera o evento SSE "operacao_concluida". A latência medida vai do 202 até esse evento, ou seja,
+ * publicação MQTT + tempo de "pensar" do dispositivo + validação + execução + notificação.
+ * <p>
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec@carga-2fa -Dcarga.args="clientes=1000 duracaoSegundos=120"}
+ * (parâmetros e padrões em {@link ParametrosCarga}).
+ */
+public final class CargaAutenticacaoIoT {
+    private static final String SENHA = "carga-2fa";
+    private static final long CPF_INICIAL = 70_000_000_000L;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+
+    private final ParametrosCarga parametros;
+    private final URI base;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final Map<Operacao, Latencias> latencias = new EnumMap<>(Operacao.class);
+    private final LongAdder sucessos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errosHttp = new LongAdder();
+    private final AtomicLong sequenciaBoleto = new AtomicLong();
+
+    private long inicioMedicaoNanos;
+    private long fimNanos;
+
+    private CargaAutenticacaoIoT(ParametrosCarga parametros, URI base, ObjectMapper mapper) {
+        this.parametros = parametros;
+        this.base = base;
+        this.mapper = mapper;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Latencias());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParametrosCarga parametros = ParametrosCarga.ler(args);
+
+        // 1. Broker MQTT embutido em uma porta livre
+        int portaBroker = portaLivre();
+        Server broker = new Server();
+        Properties configuracaoBroker = new Properties();
+        configuracaoBroker.setProperty(IConfig.HOST_PROPERTY_NAME, "127.0.0.1");
+        configuracaoBroker.setProperty(IConfig.PORT_PROPERTY_NAME, String.valueOf(portaBroker));
+        configuracaoBroker.setProperty(IConfig.ALLOW_ANONYMOUS_PROPERTY_NAME, "true");
+        configuracaoBroker.setProperty("persistence_enabled", "false");
+        broker.startServer(new MemoryConfig(configuracaoBroker));
+        String brokerUrl = "tcp://127.0.0.1:" + portaBroker;
+
+        // 2. Aplicação completa (H2 em memória) apontando para o broker
+        ConfigurableApplicationContext aplicacao = SpringApplication.run(ContaBancariaSpringApplication.class,
+                "--server.port=0",
+                "--mqtt.broker-url=" + brokerUrl,
+                "--server.tomcat.max-connections=" + Math.max(8192, parametros.clientes() * 2 + 100),
+                "--logging.level.com.senai=WARN");
+        ObjectMapper mapper = aplicacao.getBean(ObjectMapper.class);
+        URI base = URI.create("http://127.0.0.1:" + aplicacao.getEnvironment().getProperty("local.server.port"));
+
+        try (DispositivosSimulados dispositivos = new DispositivosSimulados(brokerUrl, parametros, mapper)) {
+            new CargaAutenticacaoIoT(parametros, base, mapper).executar(dispositivos);
+        } finally {
+            aplicacao.close();
+            broker.stopServer();
+        }
+        System.exit(0);
+    }
+
+    private void executar(DispositivosSimulados dispositivos) throws Exception {
+        // Sem try-with-resources: o close() esperaria as threads do SSE, que só terminam com a aplicação
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            // 1. Clientes: cadastro e login pela API (o BCrypt domina esta etapa)
+            System.out.printf("Criando %d clientes...%n", parametros.clientes());
+            List<Future<ClienteSimulado>> criacoes = new ArrayList<>();
+            for (int i = 0; i < parametros.clientes(); i++) {
+                int indice = i;
+                criacoes.add(threads.submit(() -> criarCliente(indice)));
+            }
+            List<ClienteSimulado> clientes = new ArrayList<>();
+            for (Future<ClienteSimulado> criacao : criacoes) {
+                clientes.add(criacao.get());
+            }
+
+            // 2. Dispositivos e conexões SSE
+            clientes.forEach(cliente -> dispositivos.registrar(cliente.clienteId));
+            dispositivos.conectar();
+            for (ClienteSimulado cliente : clientes) {
+                threads.submit(() -> cliente.escutarNotificacoes(http, base, mapper));
+            }
+            for (ClienteSimulado cliente : clientes) {
+                if (!cliente.conectado().await(30, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("SSE do cliente " + cliente.clienteId + " não conectou.");
+                }
+            }
+
+            // 3. Carga: aquecimento + medição
+            System.out.printf("Executando: %ds de aquecimento + %ds medidos...%n",
+                    parametros.aquecimentoSegundos(), parametros.duracaoSegundos());
+            long inicio = System.nanoTime();
+            inicioMedicaoNanos = inicio + TimeUnit.SECONDS.toNanos(parametros.aquecimentoSegundos());
+            fimNanos = inicioMedicaoNanos + TimeUnit.SECONDS.toNanos(parametros.duracaoSegundos());
+            List<Future<?>> lacos = new ArrayList<>();
+            for (ClienteSimulado cliente : clientes) {
+                lacos.add(threads.submit(() -> executarLaco(cliente, clientes)));
+            }
+            for (Future<?> laco : lacos) {
+                laco.get();
+            }
+
+            imprimirRelatorio(dispositivos);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private ClienteSimulado criarCliente(int indice) throws IOException, InterruptedException {
+        long cpf = CPF_INICIAL + indice;
+        Map<String, Object> cadastro = new HashMap<>();
+        cadastro.put("nome", "Cliente Carga " + indice);
+        cadastro.put("cpf", cpf);
+        cadastro.put("senha", SENHA);
+        cadastro.put("tipoConta", "Corrente");
+        cadastro.put("saldoInicial", SALDO_INICIAL);
+        JsonNode cliente = enviarJson("/clientes", null, cadastro, 201);
+
+        JsonNode login = enviarJson("/auth/login", null, Map.of("cpf", cpf, "senha", SENHA), 200);
+        return new ClienteSimulado(cliente.path("id").asText(),
+                cliente.path("contas").path(0).path("numero").asLong(), login.path("token").asText());
+    }
+
+    private void executarLaco(ClienteSimulado cliente, List<ClienteSimulado> clientes) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        while (System.nanoTime() < fimNanos) {
+            Operacao operacao = parametros.operacoes().get(aleatorio.nextInt(parametros.operacoes().size()));
+            CompletableFuture<ClienteSimulado.Notificacao> espera = cliente.novaEspera();
+
+            // 1. Envia a operação e espera o 202
+            HttpResponse<String> resposta;
+            try {
+                resposta = enviarOperacao(cliente, operacao, clientes, aleatorio);
+            } catch (IOException e) {
+                errosHttp.increment();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long aceitaEm = System.nanoTime();
+            if (resposta.statusCode() != 202) {
+                errosHttp.increment();
+                continue;
+            }
+
+            // 2. Espera a notificação SSE da operação
+            boolean medida = aceitaEm >= inicioMedicaoNanos;
+            try {
+                ClienteSimulado.Notificacao notificacao = espera.get(parametros.timeoutMs(), TimeUnit.MILLISECONDS);
+                if (!medida || notificacao.recebidaEmNanos() > fimNanos) {
+                    continue;
+                }
+                // A notificação pode chegar antes do 202 quando o dispositivo não "pensa"
+                latencias.get(operacao).registrar(Math.max(notificacao.recebidaEmNanos() - aceitaEm, 0));
+                (notificacao.sucesso() ? sucessos : falhas).increment();
+            } catch (TimeoutException e) {
+                if (medida) {
+                    timeouts.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // A espera nunca é completada com erro
+            }
+        }
+    }
+
+    private HttpResponse<String> enviarOperacao(ClienteSimulado cliente, Operacao operacao,
+                                                List<ClienteSimulado> clientes, ThreadLocalRandom aleatorio)
+            throws IOException, InterruptedException {
+        return switch (operacao) {
+            case SACAR -> enviar("/contas/" + cliente.numeroConta + "/sacar", cliente.token,
+                    Map.of("valor", new BigDecimal("20.00")));
+            case TRANSFERIR -> {
+                ClienteSimulado destino;
+                do {
+                    destino = clientes.get(aleatorio.nextInt(clientes.size()));
+                } while (destino == cliente);
+                yield enviar("/contas/" + cliente.numeroConta + "/transferir", cliente.token,
+                        Map.of("numeroContaDestino", destino.numeroConta, "valor", new BigDecimal("15.00")));
+            }
+            case PAGAR -> enviar("/contas/" + cliente.numeroConta + "/pagar", cliente.token,
+                    Map.of("codigoBoleto", "CARGA-" + sequenciaBoleto.incrementAndGet(),
+                            "valor", new BigDecimal("12.34"), "idsTaxas", List.of()));
+        };
+    }
+
+    private JsonNode enviarJson(String caminho, String token, Object corpo, int statusEsperado)
+            throws IOException, InterruptedException {
+        HttpResponse<String> resposta = enviar(caminho, token, corpo);
+        if (resposta.statusCode() != statusEsperado) {
+            throw new IllegalStateException("POST " + caminho + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+        }
+        return mapper.readTree(resposta.body());
+    }
+
+    private HttpResponse<String> enviar(String caminho, String token, Object corpo)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(base.resolve(caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(corpo)));
+        if (token != null) {
+            requisicao.header("Authorization", "Bearer " + token);
+        }
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void imprimirRelatorio(DispositivosSimulados dispositivos) {
+        long concluidas = sucessos.sum() + falhas.sum();
+        System.out.println();
+        System.out.println("=== Carga 2FA ponta a ponta (202 -> SSE operacao_concluida) ===");
+        System.out.printf("clientes/dispositivos=%d conexoesMqtt=%d pensar=%d-%dms taxaNegada=%.3f taxaSemResposta=%.3f%n",
+                parametros.clientes(), parametros.conexoesMqtt(), parametros.pensarMinMs(), parametros.pensarMaxMs(),
+                parametros.taxaNegada(), parametros.taxaSemResposta());
+        System.out.printf("medição=%ds concluídas=%d (sucesso=%d falha=%d) timeouts=%d errosHttp=%d%n",
+                parametros.duracaoSegundos(), concluidas, sucessos.sum(), falhas.sum(), timeouts.sum(), errosHttp.sum());
+        System.out.printf("vazão=%.1f ops/s%n", (double) concluidas / parametros.duracaoSegundos());
+        for (Operacao operacao : parametros.operacoes()) {
+            System.out.printf("%-10s %s%n", operacao, latencias.get(operacao).resumo());
+        }
+        System.out.printf("dispositivos: códigos=%d negados=%d semResposta=%d falhasPublicacao=%d%n",
+                dispositivos.codigosRecebidos.sum(), dispositivos.negados.sum(),
+                dispositivos.semResposta.sum(), dispositivos.falhasPublicacao.sum());
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.senai.conta_bancaria_spring.benchmark.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Cliente da carga: uma conta corrente, um token JWT e uma conexão SSE aberta em /notificacoes/sse.
+ * <p>
+ * Só existe um código 2FA válido por cliente, então cada cliente tem no máximo uma operação em andamento;
+ * a notificação "operacao_concluida" recebida pelo SSE é atribuída a ela. Uma notificação que chegar depois
+ * do timeout da sua operação acaba atribuída à seguinte (raro com o timeout padrão).
+ */
+final class ClienteSimulado {
+
+    /**
+     * Resultado de uma operação, com o instante (System.nanoTime) em que a notificação chegou.
+     */
+    record Notificacao(boolean sucesso, long recebidaEmNanos) {
+    }
+
+    final String clienteId;
+    final long numeroConta;
+    final String token;
+    private final CountDownLatch conectado = new CountDownLatch(1);
+    private volatile CompletableFuture<Notificacao> espera = new CompletableFuture<>();
+
+    ClienteSimulado(String clienteId, long numeroConta, String token) {
+        this.clienteId = clienteId;
+        this.numeroConta = numeroConta;
+        this.token = token;
+    }
+
+    /**
+     * Deve ser chamado antes de enviar a operação: a notificação pode chegar antes da resposta 202.
+     */
+    CompletableFuture<Notificacao> novaEspera() {
+        CompletableFuture<Notificacao> nova = new CompletableFuture<>();
+        espera = nova;
+        return nova;
+    }
+
+    CountDownLatch conectado() {
+        return conectado;
+    }
+
+    /**
+     * Abre o SSE e lê os eventos até a conexão ser encerrada (roda em uma thread virtual própria).
+     */
+    void escutarNotificacoes(HttpClient http, URI base, ObjectMapper mapper) {
+        HttpRequest requisicao = HttpRequest.newBuilder(base.resolve("/notificacoes/sse"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        try {
+            HttpResponse<Stream<String>> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofLines());
+            if (resposta.statusCode() != 200) {
+                System.err.println("SSE do cliente " + clienteId + " recusado: HTTP " + resposta.statusCode());
+                return;
+            }
+
+            String evento = null;
+            StringBuilder dados = new StringBuilder();
+            for (String linha : (Iterable<String>) resposta.body()::iterator) {
+                if (linha.startsWith("event:")) {
+                    evento = linha.substring(6).trim();
+                } else if (linha.startsWith("data:")) {
+                    dados.append(linha.substring(5).trim());
+                } else if (linha.isEmpty()) {
+                    // Fim do evento
+                    if ("connect".equals(evento)) {
+                        conectado.countDown();
+                    } else if ("operacao_concluida".equals(evento)) {
+                        long agora = System.nanoTime();
+                        JsonNode notificacao = mapper.readTree(dados.toString());
+                        espera.complete(new Notificacao("SUCESSO".equals(notificacao.path("tipo").asText()), agora));
+                    }
+                    evento = null;
+                    dados.setLength(0);
+                }
+            }
+        } catch (IOException e) {
+            // Conexão encerrada (fim da carga)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.senai.conta_bancaria_spring.benchmark.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.paho.client.mqttv3.*;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispositivos IoT simulados: recebem o código 2FA em "banco/autenticacao" e respondem em
+ * "banco/validacao/{clienteId}" depois de um tempo de "pensar", podendo negar a biometria ou não responder.
+ * <p>
+ * Cada dispositivo é lógico: eles são distribuídos entre poucas conexões MQTT. Como o tópico de autenticação é
+ * compartilhado, uma conexão por dispositivo faria o broker entregar cada código a todos os dispositivos
+ * (N² mensagens), medindo o broker em vez da aplicação.
+ */
+final class DispositivosSimulados implements AutoCloseable {
+    private static final String TOPICO_AUTENTICACAO = "banco/autenticacao";
+    private static final String TOPICO_VALIDACAO = "banco/validacao/";
+
+    private final String brokerUrl;
+    private final ParametrosCarga parametros;
+    private final ObjectMapper mapper;
+    private final List<MqttClient> conexoes = new ArrayList<>();
+    private final Map<String, Integer> conexaoPorCliente = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService agendador;
+
+    final LongAdder codigosRecebidos = new LongAdder();
+    final LongAdder negados = new LongAdder();
+    final LongAdder semResposta = new LongAdder();
+    final LongAdder falhasPublicacao = new LongAdder();
+
+    DispositivosSimulados(String brokerUrl, ParametrosCarga parametros, ObjectMapper mapper) {
+        this.brokerUrl = brokerUrl;
+        this.parametros = parametros;
+        this.mapper = mapper;
+        this.agendador = Executors.newScheduledThreadPool(parametros.conexoesMqtt());
+    }
+
+    /**
+     * Cria o dispositivo do cliente (antes de conectar).
+     */
+    void registrar(String clienteId) {
+        conexaoPorCliente.put(clienteId, conexaoPorCliente.size() % parametros.conexoesMqtt());
+    }
+
+    void conectar() throws MqttException {
+        for (int i = 0; i < parametros.conexoesMqtt(); i++) {
+            int indice = i;
+            MqttClient conexao = new MqttClient(brokerUrl, "dispositivos-simulados-" + i, new MemoryPersistence());
+            conexao.setCallback(new MqttCallback() {
+                @Override
+                public void connectionLost(Throwable causa) {
+                    System.err.println("Conexão MQTT dos dispositivos " + indice + " perdida: " + causa.getMessage());
+                }
+
+                @Override
+                public void messageArrived(String topico, MqttMessage mensagem) {
+                    aoReceberCodigo(indice, mensagem.getPayload());
+                }
+
+                @Override
+                public void deliveryComplete(IMqttDeliveryToken token) {
+                }
+            });
+
+            MqttConnectOptions opcoes = new MqttConnectOptions();
+            opcoes.setCleanSession(true);
+            opcoes.setMaxInflight(65_535);
+            conexao.connect(opcoes);
+            conexao.subscribe(TOPICO_AUTENTICACAO, 1);
+            conexoes.add(conexao);
+        }
+    }
+
+    // Roda na thread de callback do Paho: não pode bloquear, então a resposta é agendada.
+    private void aoReceberCodigo(int conexao, byte[] payload) {
+        JsonNode solicitacao;
+        try {
+            solicitacao = mapper.readTree(payload);
+        } catch (IOException e) {
+            return;
+        }
+        String clienteId = solicitacao.path("clienteId").asText();
+        Integer dona = conexaoPorCliente.get(clienteId);
+        if (dona == null || dona != conexao) {
+            return; // Dispositivo de outra conexão (ou cliente fora da carga)
+        }
+        codigosRecebidos.increment();
+
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        if (aleatorio.nextDouble() < parametros.taxaSemResposta()) {
+            semResposta.increment();
+            return;
+        }
+        boolean biometriaOk = aleatorio.nextDouble() >= parametros.taxaNegada();
+        if (!biometriaOk) {
+            negados.increment();
+        }
+        long pensarMs = parametros.pensarMinMs()
+                + aleatorio.nextLong(parametros.pensarMaxMs() - parametros.pensarMinMs() + 1);
+        String codigo = solicitacao.path("codigo").asText();
+        agendador.schedule(() -> responder(conexao, clienteId, codigo, biometriaOk), pensarMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void responder(int conexao, String clienteId, String codigo, boolean biometriaOk) {
+        try {
+            byte[] validacao = mapper.writeValueAsBytes(Map.of(
+                    "clienteId", clienteId, "codigoValidado", codigo, "biometriaOk", biometriaOk));
+            conexoes.get(conexao).publish(TOPICO_VALIDACAO + clienteId, validacao, 1, false);
+        } catch (IOException | MqttException e) {
+            falhasPublicacao.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+        for (MqttClient conexao : conexoes) {
+            try {
+                conexao.disconnectForcibly(1000);
+                conexao.close();
+            } catch (MqttException e) {
+                // Encerrando a carga: nada a fazer
+            }
+        }
+    }
+}
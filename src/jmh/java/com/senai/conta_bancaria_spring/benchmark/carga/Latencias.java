@@ -0,0 +1,46 @@
+package com.senai.conta_bancaria_spring.benchmark.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latências registradas durante a carga (em nanossegundos). Guarda todos os valores: uma rodada
+ * típica tem algumas centenas de milhares de operações, e percentis exatos dispensam histogramas.
+ */
+final class Latencias {
+    private long[] valores = new long[4096];
+    private int tamanho;
+
+    synchronized void registrar(long nanos) {
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho * 2);
+        }
+        valores[tamanho++] = nanos;
+    }
+
+    synchronized int quantidade() {
+        return tamanho;
+    }
+
+    /**
+     * Ex: "n=1200 p50=210,4ms p99=480,0ms p999=610,2ms max=655,1ms".
+     */
+    synchronized String resumo() {
+        if (tamanho == 0) {
+            return "n=0";
+        }
+        long[] ordenadas = Arrays.copyOf(valores, tamanho);
+        Arrays.sort(ordenadas);
+        return String.format("n=%d p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms",
+                tamanho, ms(percentil(ordenadas, 0.50)), ms(percentil(ordenadas, 0.99)),
+                ms(percentil(ordenadas, 0.999)), ms(ordenadas[tamanho - 1]));
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.senai.conta_bancaria_spring.benchmark.carga;
+
+import java.util.*;
+
+/**
+ * Parâmetros da carga, lidos de argumentos "chave=valor" (ex: {@code clientes=2000 pensarMaxMs=800}).
+ * Argumento não informado usa o padrão abaixo.
+ */
+record ParametrosCarga(
+        int clientes,            // Clientes (e dispositivos) simulados, cada um com uma operação por vez
+        int conexoesMqtt,        // Conexões MQTT entre as quais os dispositivos são distribuídos
+        int aquecimentoSegundos, // Tempo inicial descartado das medições
+        int duracaoSegundos,     // Tempo medido
+        long pensarMinMs,        // Tempo de "pensar" do dispositivo antes de responder (sorteado no intervalo)
+        long pensarMaxMs,
+        double taxaNegada,       // Fração dos códigos respondidos com biometria negada
+        double taxaSemResposta,  // Fração dos códigos que o dispositivo ignora (a operação expira)
+        long timeoutMs,          // Espera máxima pela notificação SSE de uma operação
+        List<Operacao> operacoes // Operações sorteadas a cada iteração
+) {
+    enum Operacao { SACAR, TRANSFERIR, PAGAR }
+
+    private static final Set<String> CHAVES = Set.of("clientes", "conexoesMqtt", "aquecimentoSegundos",
+            "duracaoSegundos", "pensarMinMs", "pensarMaxMs", "taxaNegada", "taxaSemResposta", "timeoutMs", "operacoes");
+
+    static ParametrosCarga ler(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (use chave=valor): " + arg);
+            }
+            String chave = arg.substring(0, igual);
+            if (!CHAVES.contains(chave)) {
+                throw new IllegalArgumentException("Parâmetro desconhecido: " + chave + " (válidos: " + CHAVES + ")");
+            }
+            valores.put(chave, arg.substring(igual + 1));
+        }
+
+        ParametrosCarga parametros = new ParametrosCarga(
+                Integer.parseInt(valores.getOrDefault("clientes", "500")),
+                Integer.parseInt(valores.getOrDefault("conexoesMqtt", "8")),
+                Integer.parseInt(valores.getOrDefault("aquecimentoSegundos", "15")),
+                Integer.parseInt(valores.getOrDefault("duracaoSegundos", "60")),
+                Long.parseLong(valores.getOrDefault("pensarMinMs", "50")),
+                Long.parseLong(valores.getOrDefault("pensarMaxMs", "300")),
+                Double.parseDouble(valores.getOrDefault("taxaNegada", "0.02")),
+                Double.parseDouble(valores.getOrDefault("taxaSemResposta", "0.01")),
+                Long.parseLong(valores.getOrDefault("timeoutMs", "10000")),
+                Arrays.stream(valores.getOrDefault("operacoes", "sacar,transferir,pagar").split(","))
+                        .map(nome -> Operacao.valueOf(nome.trim().toUpperCase(Locale.ROOT)))
+                        .toList());
+
+        if (parametros.clientes() < 2 && parametros.operacoes().contains(Operacao.TRANSFERIR)) {
+            throw new IllegalArgumentException("Transferências precisam de pelo menos 2 clientes.");
+        }
+        if (parametros.pensarMaxMs() < parametros.pensarMinMs()) {
+            throw new IllegalArgumentException("pensarMaxMs deve ser maior ou igual a pensarMinMs.");
+        }
+        return parametros;
+    }
+}
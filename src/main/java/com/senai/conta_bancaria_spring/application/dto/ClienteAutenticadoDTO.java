@@ -0,0 +1,76 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.enums.UserRole;
+import com.senai.conta_bancaria_spring.domain.repository.ClienteAutenticadoProjecao;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Principal imutável colocado no SecurityContext. Carrega apenas o necessário para
+ * autorização: id, CPF, perfil e os números das contas do cliente.
+ * Substitui a entidade Cliente (e seu grafo de contas) nas requisições autenticadas.
+ */
+public record ClienteAutenticadoDTO(
+        String id,
+        Long cpf,
+        UserRole role,
+        boolean ativo,
+        Set<Long> numerosContas
+) implements UserDetails {
+
+    public ClienteAutenticadoDTO {
+        numerosContas = Set.copyOf(numerosContas);
+    }
+
+    public static Optional<ClienteAutenticadoDTO> fromProjecao(List<ClienteAutenticadoProjecao> linhas) {
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ClienteAutenticadoProjecao primeira = linhas.getFirst();
+        Set<Long> numerosContas = new HashSet<>();
+        for (ClienteAutenticadoProjecao linha : linhas) {
+            if (linha.getNumeroConta() != null) {
+                numerosContas.add(linha.getNumeroConta());
+            }
+        }
+
+        return Optional.of(new ClienteAutenticadoDTO(
+                primeira.getId(),
+                primeira.getCpf(),
+                primeira.getRole(),
+                Boolean.TRUE.equals(primeira.getAtivo()),
+                numerosContas
+        ));
+    }
+
+    public boolean possuiConta(Long numeroConta) {
+        return numerosContas.contains(numeroConta);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    @Override
+    public String getPassword() {
+        return null; // A senha não é necessária após a validação do token.
+    }
+
+    @Override
+    public String getUsername() {
+        return cpf.toString();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ativo;
+    }
+}
@@ -0,0 +1,27 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.entity.Conta;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+
+import java.math.BigDecimal;
+
+public record ConciliacaoSaldoDTO(
+        Long numeroConta,
+        BigDecimal saldoRegistrado,
+        BigDecimal saldoReconstruido,
+        BigDecimal diferenca,
+        Long ultimaSequenciaEvento,
+        boolean conciliado
+) {
+    public static ConciliacaoSaldoDTO of(Conta conta, Money saldoReconstruido) {
+        Money diferenca = conta.getSaldo().subtrair(saldoReconstruido);
+        return new ConciliacaoSaldoDTO(
+                conta.getNumero(),
+                conta.getSaldo().paraBigDecimal(),
+                saldoReconstruido.paraBigDecimal(),
+                diferenca.paraBigDecimal(),
+                conta.getUltimaSequenciaEvento(),
+                diferenca.isZero()
+        );
+    }
+}
@@ -16,7 +16,7 @@ public record ContaResponseDTO(
 ) {
     public static ContaResponseDTO fromEntity(Conta conta) {
         Long numero = conta.getNumero();
-        BigDecimal saldo = conta.getSaldo();
+        BigDecimal saldo = conta.getSaldo().paraBigDecimal();
         String tipoConta;
         Long limite = null;
         BigDecimal taxa = null;
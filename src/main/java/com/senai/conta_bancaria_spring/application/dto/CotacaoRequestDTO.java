@@ -0,0 +1,19 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record CotacaoRequestDTO(
+        // Lista de IDs (UUIDs) das taxas aplicadas a todos os valores
+        List<String> idsTaxas,
+
+        @NotEmpty(message = "Informe ao menos um valor de boleto.")
+        @Size(max = 10000, message = "A cotação aceita no máximo 10000 valores por requisição.")
+        List<@NotNull(message = "O valor não pode ser nulo.") @Positive(message = "O valor do boleto deve ser positivo.") BigDecimal> valores
+) {
+}
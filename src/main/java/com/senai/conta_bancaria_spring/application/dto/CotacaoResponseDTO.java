@@ -0,0 +1,9 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import java.util.List;
+
+public record CotacaoResponseDTO(
+        List<String> idsTaxas,
+        List<ItemCotacaoDTO> itens // Na mesma ordem dos valores enviados
+) {
+}
@@ -0,0 +1,38 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de paginação do extrato (keyset): a última transação entregue, identificada
+ * por (dataHora, id). A próxima página começa logo "depois" dela na ordem decrescente.
+ */
+public record CursorExtrato(
+        LocalDateTime dataHora,
+        UUID id
+) {
+    private static final String SEPARADOR = "|";
+
+    public static CursorExtrato fromEntity(Transacao transacao) {
+        return new CursorExtrato(transacao.getDataHora(), transacao.getId());
+    }
+
+    public String codificar() {
+        String bruto = dataHora + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorExtrato decodificar(String cursor) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int posicao = bruto.indexOf(SEPARADOR);
+            return new CursorExtrato(LocalDateTime.parse(bruto.substring(0, posicao)), UUID.fromString(bruto.substring(posicao + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de extrato inválido.");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import java.util.List;
+
+public record ExtratoPaginaDTO(
+        List<TransacaoResponseDTO> transacoes,
+        // Cursor opaco para buscar a próxima página. Nulo quando não há mais transações.
+        String proximoCursor
+) {
+}
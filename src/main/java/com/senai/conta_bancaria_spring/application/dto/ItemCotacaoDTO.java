@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.service.Money;
+
+import java.math.BigDecimal;
+
+public record ItemCotacaoDTO(
+        BigDecimal valorBoleto,
+        BigDecimal valorTotalTaxas,
+        BigDecimal custoTotal // Mesmo valor que seria debitado em um pagamento real
+) {
+    public static ItemCotacaoDTO of(Money valorBoleto, Money custoTotal) {
+        return new ItemCotacaoDTO(valorBoleto.paraBigDecimal(),
+                custoTotal.subtrair(valorBoleto).paraBigDecimal(), custoTotal.paraBigDecimal());
+    }
+}
@@ -0,0 +1,27 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record ItemLoteDTO(
+        @NotNull(message = "O tipo da operação não pode ser nulo.")
+        TipoItemLote tipo,
+
+        // Conta creditada (DEPOSITO) ou conta de origem (TRANSFERENCIA)
+        @NotNull(message = "O número da conta não pode ser nulo.")
+        Long numeroConta,
+
+        // Apenas para TRANSFERENCIA
+        Long numeroContaDestino,
+
+        @NotNull(message = "O valor não pode ser nulo.")
+        @Positive(message = "O valor da operação deve ser positivo.")
+        BigDecimal valor
+) {
+    public enum TipoItemLote {
+        DEPOSITO,
+        TRANSFERENCIA
+    }
+}
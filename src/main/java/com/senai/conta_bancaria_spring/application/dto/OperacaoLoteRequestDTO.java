@@ -0,0 +1,12 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record OperacaoLoteRequestDTO(
+        @NotEmpty(message = "O lote deve conter ao menos uma operação.")
+        List<@Valid ItemLoteDTO> itens
+) {
+}
@@ -2,12 +2,14 @@ package com.senai.conta_bancaria_spring.application.dto;
 
 import com.senai.conta_bancaria_spring.domain.entity.Pagamento;
 import com.senai.conta_bancaria_spring.domain.enums.StatusPagamento;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public record PagamentoResponseDTO(
-        String id,
+        UUID id,
         StatusPagamento status,
         BigDecimal valorPago, // Valor principal do boleto
         BigDecimal valorTotalTaxas,
@@ -21,18 +23,18 @@ public record PagamentoResponseDTO(
      * @param pagamento  A entidade Pagamento persistida
      * @param custoTotal O custo total (boleto + taxas) que foi retornado pelo DomainService
      */
-    public static PagamentoResponseDTO fromEntity(Pagamento pagamento, BigDecimal custoTotal) {
+    public static PagamentoResponseDTO fromEntity(Pagamento pagamento, Money custoTotal) {
         // O custoTotal é a soma, o valorPago é o base. A diferença é o total de taxas.
-        BigDecimal totalTaxas = (custoTotal != null)
-                ? custoTotal.subtract(pagamento.getValorPago())
-                : BigDecimal.ZERO;
+        Money totalTaxas = (custoTotal != null)
+                ? custoTotal.subtrair(pagamento.getValorPago())
+                : Money.ZERO;
 
         return new PagamentoResponseDTO(
                 pagamento.getId(),
                 pagamento.getStatus(),
-                pagamento.getValorPago(),
-                totalTaxas,
-                (custoTotal != null) ? custoTotal : pagamento.getValorPago(), // Custo total é 0 em falhas
+                pagamento.getValorPago().paraBigDecimal(),
+                totalTaxas.paraBigDecimal(),
+                ((custoTotal != null) ? custoTotal : pagamento.getValorPago()).paraBigDecimal(), // Custo total é 0 em falhas
                 pagamento.getDataPagamento(),
                 pagamento.getConta().getNumero()
         );
@@ -0,0 +1,17 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.entity.ChaveIdempotencia;
+
+public record RespostaIdempotenteDTO(
+        int status,
+        String contentType,
+        byte[] corpo
+) {
+    public static RespostaIdempotenteDTO fromEntity(ChaveIdempotencia chave) {
+        return new RespostaIdempotenteDTO(
+                chave.getStatus(),
+                chave.getContentType(),
+                chave.getCorpo() != null ? chave.getCorpo() : new byte[0]
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+public record ResultadoItemLoteDTO(
+        int indice, // Posição do item na lista enviada
+        boolean sucesso,
+        String mensagem
+) {
+    public static ResultadoItemLoteDTO sucesso(int indice) {
+        return new ResultadoItemLoteDTO(indice, true, "Operação realizada com sucesso.");
+    }
+
+    public static ResultadoItemLoteDTO falha(int indice, String mensagem) {
+        return new ResultadoItemLoteDTO(indice, false, mensagem);
+    }
+}
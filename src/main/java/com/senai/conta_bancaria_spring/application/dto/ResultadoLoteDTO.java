@@ -0,0 +1,15 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import java.util.List;
+
+public record ResultadoLoteDTO(
+        int total,
+        int sucessos,
+        int falhas,
+        List<ResultadoItemLoteDTO> itens // Na mesma ordem do lote enviado
+) {
+    public static ResultadoLoteDTO of(List<ResultadoItemLoteDTO> itens) {
+        int sucessos = (int) itens.stream().filter(ResultadoItemLoteDTO::sucesso).count();
+        return new ResultadoLoteDTO(itens.size(), sucessos, itens.size() - sucessos, itens);
+    }
+}
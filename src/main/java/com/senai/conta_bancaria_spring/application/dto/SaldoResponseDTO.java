@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria_spring.application.dto;
+
+import com.senai.conta_bancaria_spring.domain.service.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SaldoResponseDTO(
+        Long numeroConta,
+        BigDecimal saldo,
+        LocalDateTime em
+) {
+    public static SaldoResponseDTO of(Long numeroConta, Money saldo, LocalDateTime em) {
+        return new SaldoResponseDTO(numeroConta, saldo.paraBigDecimal(), em);
+    }
+}
@@ -16,7 +16,7 @@ public record TaxaResponseDTO(
                 taxa.getId(),
                 taxa.getDescricao(),
                 taxa.getPercentual(),
-                taxa.getValorFixo()
+                taxa.getValorFixo().paraBigDecimal()
         );
     }
 }
@@ -2,6 +2,7 @@ package com.senai.conta_bancaria_spring.application.dto;
 
 import com.senai.conta_bancaria_spring.domain.entity.Transacao;
 import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,8 +18,13 @@ public record TransacaoResponseDTO(
         return new TransacaoResponseDTO(
                 transacao.getDataHora(),
                 transacao.getTipo(),
-                transacao.getValor(),
+                transacao.getValor().paraBigDecimal(),
                 transacao.getContaDestinoNumero()
         );
     }
+
+    // Usado pela projeção JPQL do extrato em stream, que entrega o valor já convertido em Money.
+    public TransacaoResponseDTO(LocalDateTime dataHora, TipoTransacao tipo, Money valor, Long contaDestinoNumero) {
+        this(dataHora, tipo, valor.paraBigDecimal(), contaDestinoNumero);
+    }
 }
\ No newline at end of file
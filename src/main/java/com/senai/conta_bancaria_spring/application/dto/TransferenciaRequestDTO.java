@@ -1,5 +1,7 @@
 package com.senai.conta_bancaria_spring.application.dto;
 
+import com.senai.conta_bancaria_spring.domain.service.NumeroConta;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -14,5 +16,11 @@ public record TransferenciaRequestDTO(
         @Positive(message = "O valor da transferência deve ser positivo.")
         BigDecimal valor
 ) {
-
+    // Recusa um número digitado errado antes de iniciar a autenticação IoT (contas antigas não têm dígito)
+    @AssertTrue(message = "O número da conta de destino é inválido (dígito verificador não confere).")
+    public boolean isDigitoVerificadorValido() {
+        return numeroContaDestino == null
+                || !NumeroConta.possuiDigitoVerificador(numeroContaDestino)
+                || NumeroConta.digitoValido(numeroContaDestino);
+    }
 }
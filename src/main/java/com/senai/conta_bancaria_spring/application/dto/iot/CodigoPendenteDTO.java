@@ -0,0 +1,26 @@
+package com.senai.conta_bancaria_spring.application.dto.iot;
+
+import com.senai.conta_bancaria_spring.domain.entity.CodigoAutenticacao;
+
+import java.time.LocalDateTime;
+
+// Código 2FA ainda não validado, como fica guardado no índice em memória.
+public record CodigoPendenteDTO(
+        String clienteId,
+        String id,
+        String codigo,
+        LocalDateTime expiraEm
+) {
+    public static CodigoPendenteDTO fromEntity(CodigoAutenticacao entidade) {
+        return new CodigoPendenteDTO(
+                entidade.getCliente().getId(),
+                entidade.getId(),
+                entidade.getCodigo(),
+                entidade.getExpiraEm()
+        );
+    }
+
+    public boolean expirado(LocalDateTime agora) {
+        return expiraEm.isBefore(agora);
+    }
+}
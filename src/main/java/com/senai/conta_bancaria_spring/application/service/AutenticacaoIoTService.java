@@ -1,12 +1,15 @@
 package com.senai.conta_bancaria_spring.application.service;
 
 import com.senai.conta_bancaria_spring.application.dto.iot.AutenticacaoSolicitacaoDTO;
+import com.senai.conta_bancaria_spring.application.dto.iot.CodigoPendenteDTO;
 import com.senai.conta_bancaria_spring.domain.entity.Cliente;
 import com.senai.conta_bancaria_spring.domain.entity.CodigoAutenticacao;
 import com.senai.conta_bancaria_spring.domain.exception.AutenticacaoIoTExpiradaException;
 import com.senai.conta_bancaria_spring.domain.repository.CodigoAutenticacaoRepository;
+import com.senai.conta_bancaria_spring.infrastructure.mqtt.CronometroAutenticacaoIoT;
 import com.senai.conta_bancaria_spring.infrastructure.mqtt.MqttPublisherService;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,14 +17,20 @@ import java.util.Optional;
 import java.util.Random;
 
 @Service
+@Slf4j
 public class AutenticacaoIoTService {
     private final CodigoAutenticacaoRepository codigoRepository;
     private final MqttPublisherService mqttPublisher;
+    private final IndiceCodigosPendentesService indiceCodigos;
+    private final CronometroAutenticacaoIoT cronometro;
     private final Random random = new Random();
 
-    public AutenticacaoIoTService(CodigoAutenticacaoRepository codigoRepository, MqttPublisherService mqttPublisher) {
+    public AutenticacaoIoTService(CodigoAutenticacaoRepository codigoRepository, MqttPublisherService mqttPublisher,
+                                  IndiceCodigosPendentesService indiceCodigos, CronometroAutenticacaoIoT cronometro) {
         this.codigoRepository = codigoRepository;
         this.mqttPublisher = mqttPublisher;
+        this.indiceCodigos = indiceCodigos;
+        this.cronometro = cronometro;
     }
 
     @Transactional
@@ -37,9 +46,11 @@ public class AutenticacaoIoTService {
                 .validado(false)
                 .build();
         CodigoAutenticacao salvo = codigoRepository.save(entidade);
+        indiceCodigos.registrar(CodigoPendenteDTO.fromEntity(salvo));
 
         // 3. Publicar MQTT
         AutenticacaoSolicitacaoDTO payload = new AutenticacaoSolicitacaoDTO(cliente.getId(), codigo);
+        cronometro.iniciar(cliente.getId());
         mqttPublisher.solicitarAutenticacao(payload);
 
         return salvo.getId(); // Retorna o ID do código gerado para controle futuro
@@ -47,27 +58,30 @@ public class AutenticacaoIoTService {
 
     @Transactional
     public Optional<CodigoAutenticacao> validarCodigoRecebido(String clienteId, String codigoRecebido) {
-        // Busca o código mais recente, não validado, deste cliente
-        Optional<CodigoAutenticacao> codigoOpt = codigoRepository
-                .findFirstByClienteIdAndValidadoFalseOrderByExpiraEmDesc(clienteId);
+        // Busca o código mais recente, não validado, deste cliente (índice em memória, sem consulta)
+        Optional<CodigoPendenteDTO> pendenteOpt = indiceCodigos.buscar(clienteId);
 
-        if (codigoOpt.isPresent()) {
-            CodigoAutenticacao entidade = codigoOpt.get();
+        if (pendenteOpt.isPresent()) {
+            CodigoPendenteDTO pendente = pendenteOpt.get();
 
-            // VERIFICAÇÃO DE EXPIRAÇÃO EXPLÍCITA
-            if (entidade.getExpiraEm().isBefore(LocalDateTime.now())) {
+            // VERIFICAÇÃO DE EXPIRAÇÃO EXPLÍCITA (o código expirado fica no índice até a roda retirá-lo)
+            if (pendente.expirado(LocalDateTime.now())) {
                 throw new AutenticacaoIoTExpiradaException("O tempo limite para autenticação biométrica expirou.");
             }
 
-            // Verifica se o código bate
-            if (entidade.getCodigo().equals(codigoRecebido)) {
-                entidade.setValidado(true);
-                codigoRepository.save(entidade);
-                System.out.println(">>> SUCESSO: Código IoT validado para cliente " + clienteId);
-                return Optional.of(entidade);
+            // Verifica se o código bate (e garante que só uma mensagem o consuma)
+            if (pendente.codigo().equals(codigoRecebido) && indiceCodigos.consumir(pendente)) {
+                Optional<CodigoAutenticacao> entidadeOpt = codigoRepository.findById(pendente.id());
+                if (entidadeOpt.isPresent() && !entidadeOpt.get().getValidado()) {
+                    CodigoAutenticacao entidade = entidadeOpt.get();
+                    entidade.setValidado(true);
+                    codigoRepository.save(entidade);
+                    log.info(">>> SUCESSO: Código IoT validado para cliente {}", clienteId);
+                    return Optional.of(entidade);
+                }
             }
         }
-        System.out.println(">>> FALHA: Tentativa de validação IoT falhou ou código inexistente para cliente " + clienteId);
+        log.warn(">>> FALHA: Tentativa de validação IoT falhou ou código inexistente para cliente {}", clienteId);
         return Optional.empty();
     }
 }
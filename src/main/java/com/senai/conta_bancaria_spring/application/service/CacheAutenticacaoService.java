@@ -0,0 +1,132 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado e com expiração de tokens JWT já validados -> usuário autenticado.
+ * Em regime normal, o SecurityFilter resolve o usuário sem verificar a assinatura
+ * de novo e sem consultar o banco.
+ */
+@Service
+@Slf4j
+public class CacheAutenticacaoService {
+
+    private record Entrada(UserDetails usuario, long expiraEmMs) {
+    }
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    // Geração por usuário, incrementada a cada invalidação (só existe para usuários já invalidados)
+    private final Map<String, AtomicLong> geracoes = new ConcurrentHashMap<>();
+
+    @Value("${api.security.token.cache.max-entradas}")
+    private int maxEntradas;
+
+    @Value("${api.security.token.cache.ttl-ms}")
+    private long ttlMs;
+
+    public UserDetails buscar(String token) {
+        Entrada entrada = cache.get(token);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expiraEmMs() <= System.currentTimeMillis()) {
+            cache.remove(token, entrada);
+            return null;
+        }
+        return entrada.usuario();
+    }
+
+    /**
+     * Geração atual do usuário. Deve ser lida antes de carregar o usuário do banco e repassada a
+     * {@link #armazenar}, que descarta o que foi carregado se houve uma invalidação no meio.
+     */
+    public long geracao(String username) {
+        AtomicLong geracao = geracoes.get(username);
+        return geracao == null ? 0L : geracao.get();
+    }
+
+    /**
+     * Armazena o usuário de um token válido. A entrada nunca vive mais que o próprio token.
+     * Se o usuário foi invalidado depois de {@code geracaoLida} (lida antes da consulta ao banco),
+     * o estado carregado pode ser o antigo e não é guardado.
+     */
+    public void armazenar(String token, UserDetails usuario, Date expiracaoToken, long geracaoLida) {
+        String username = usuario.getUsername();
+        if (geracao(username) != geracaoLida) {
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        long expiraEm = agora + ttlMs;
+        if (expiracaoToken != null) {
+            expiraEm = Math.min(expiraEm, expiracaoToken.getTime());
+        }
+
+        if (cache.size() >= maxEntradas) {
+            liberarEspaco(agora);
+        }
+        Entrada entrada = new Entrada(usuario, expiraEm);
+        cache.put(token, entrada);
+
+        // Uma invalidação entre a verificação acima e o put pode já ter varrido o cache: confere de novo
+        // e desfaz. (invalidarUsuario incrementa a geração antes de remover as entradas.)
+        if (geracao(username) != geracaoLida) {
+            cache.remove(token, entrada);
+        }
+    }
+
+    /**
+     * Remove todas as entradas do usuário (ex: cliente desativado ou alterado).
+     * Dentro de uma transação, a remoção acontece após o commit; antes dele o banco ainda devolve o
+     * estado antigo, que não deve ser considerado atualizado. Uma requisição concorrente que carregou
+     * esse estado antigo não consegue recolocá-lo no cache: a geração do usuário é incrementada aqui,
+     * e {@link #armazenar} descarta o que foi lido com uma geração anterior.
+     */
+    public void invalidarUsuario(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removerUsuario(username);
+                }
+            });
+        } else {
+            removerUsuario(username);
+        }
+    }
+
+    private void removerUsuario(String username) {
+        geracoes.computeIfAbsent(username, u -> new AtomicLong()).incrementAndGet();
+        cache.values().removeIf(entrada -> entrada.usuario().getUsername().equals(username));
+        log.debug("Cache de autenticação invalidado para o usuário {}", username);
+    }
+
+    private void liberarEspaco(long agora) {
+        // 1. Remove primeiro o que já expirou
+        cache.values().removeIf(entrada -> entrada.expiraEmMs() <= agora);
+
+        // 2. Se ainda estiver cheio, descarta ~10% das entradas (serão recarregadas do banco sob demanda)
+        if (cache.size() < maxEntradas) {
+            return;
+        }
+        int excedente = cache.size() - maxEntradas + Math.max(1, maxEntradas / 10);
+        Iterator<String> iterator = cache.keySet().iterator();
+        while (excedente > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            excedente--;
+        }
+    }
+}
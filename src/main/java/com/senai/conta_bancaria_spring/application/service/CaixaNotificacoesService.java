@@ -0,0 +1,121 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.application.dto.NotificacaoDTO;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.RodaDeExpiracao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Histórico recente, em memória, das notificações SSE de cada cliente, entregues ou não.
+ * Cada cliente guarda no máximo N notificações (as mais antigas saem primeiro), e cada uma expira após o TTL.
+ * Clientes sem notificações recentes não ocupam memória. A expiração usa a RodaDeExpiracao.
+ * <p>
+ * Uma reconexão com Last-Event-ID recebe de novo tudo o que veio depois desse id, mesmo o que foi entregue
+ * a uma conexão que morreu sem ser detectada, falhou no meio do envio ou foi descartada como consumidor lento.
+ * Sem Last-Event-ID (página nova), só as notificações geradas enquanto o cliente não tinha conexão são reenviadas.
+ */
+@Service
+@Slf4j
+public class CaixaNotificacoesService {
+
+    // pendente: gerada sem nenhuma conexão ativa e ainda não reenviada
+    public record NotificacaoGuardada(long eventoId, NotificacaoDTO notificacao, long expiraEmMs, boolean pendente) {
+    }
+
+    private final Map<String, ArrayDeque<NotificacaoGuardada>> caixas = new ConcurrentHashMap<>();
+    private final RodaDeExpiracao roda;
+    // Começa no relógio (µs) para continuar crescendo após um restart (o navegador guarda o último id recebido)
+    private final AtomicLong sequenciaEventos = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    @Value("${banco.sse.caixa.max-por-cliente}")
+    private int maxPorCliente;
+
+    @Value("${banco.sse.caixa.ttl-ms}")
+    private long ttlMs;
+
+    public CaixaNotificacoesService(@Value("${banco.sse.caixa.roda.slots}") int slots,
+                                    @Value("${banco.sse.caixa.roda.tick-ms}") long tickMs) {
+        this.roda = new RodaDeExpiracao(slots, tickMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Dá um id de evento à notificação, entrega pelas conexões ativas ({@code entregar} devolve false se não
+     * havia nenhuma) e a guarda no histórico do cliente.
+     * <p>
+     * {@code entregar} roda com o histórico do cliente travado, assim como {@link #reproduzir}: os ids saem
+     * em ordem por cliente e uma conexão nova recebe cada notificação uma única vez (pelo histórico ou ao vivo).
+     * Não deve chamar outros métodos desta classe.
+     */
+    public void registrar(String clienteId, NotificacaoDTO notificacao, LongPredicate entregar) {
+        long expiraEmMs = System.currentTimeMillis() + ttlMs;
+        caixas.compute(clienteId, (id, caixa) -> {
+            long eventoId = sequenciaEventos.incrementAndGet();
+            boolean entregue = entregar.test(eventoId);
+            ArrayDeque<NotificacaoGuardada> fila = caixa != null ? caixa : new ArrayDeque<>(4);
+            if (fila.size() >= maxPorCliente) {
+                fila.pollFirst();
+            }
+            fila.addLast(new NotificacaoGuardada(eventoId, notificacao, expiraEmMs, !entregue));
+            return fila;
+        });
+        roda.agendar(expiraEmMs, () -> removerExpiradas(clienteId));
+    }
+
+    /**
+     * Registra uma conexão nova ({@code registrarConexao}) e passa a {@code reenviar}, em ordem de eventoId,
+     * as notificações guardadas que ela deve receber: com ultimoEventoId, todas as posteriores a ele;
+     * sem, só as pendentes. As duas callbacks rodam com o histórico do cliente travado (ver {@link #registrar}).
+     */
+    public void reproduzir(String clienteId, Long ultimoEventoId, Runnable registrarConexao,
+                           Consumer<NotificacaoGuardada> reenviar) {
+        long agora = System.currentTimeMillis();
+        caixas.compute(clienteId, (id, caixa) -> {
+            registrarConexao.run();
+            if (caixa == null) {
+                return null;
+            }
+            ArrayDeque<NotificacaoGuardada> fila = new ArrayDeque<>(caixa.size());
+            for (NotificacaoGuardada guardada : caixa) {
+                if (guardada.expiraEmMs() <= agora) {
+                    continue;
+                }
+                boolean reenviada = ultimoEventoId != null ? guardada.eventoId() > ultimoEventoId : guardada.pendente();
+                if (reenviada) {
+                    reenviar.accept(guardada);
+                }
+                fila.addLast(reenviada && guardada.pendente()
+                        ? new NotificacaoGuardada(guardada.eventoId(), guardada.notificacao(), guardada.expiraEmMs(), false)
+                        : guardada);
+            }
+            return fila.isEmpty() ? null : fila;
+        });
+    }
+
+    public int clientesComHistorico() {
+        return caixas.size();
+    }
+
+    @Scheduled(fixedRateString = "${banco.sse.caixa.roda.tick-ms}")
+    public void expirar() {
+        roda.avancar(System.currentTimeMillis());
+    }
+
+    private void removerExpiradas(String clienteId) {
+        long agora = System.currentTimeMillis();
+        caixas.computeIfPresent(clienteId, (id, fila) -> {
+            while (!fila.isEmpty() && fila.peekFirst().expiraEmMs() <= agora) {
+                fila.pollFirst();
+            }
+            return fila.isEmpty() ? null : fila;
+        });
+    }
+}
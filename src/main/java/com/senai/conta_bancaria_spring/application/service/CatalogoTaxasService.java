@@ -0,0 +1,144 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.domain.entity.Taxa;
+import com.senai.conta_bancaria_spring.domain.repository.TaxaRepository;
+import com.senai.conta_bancaria_spring.domain.service.PlanoTarifario;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cópia imutável, em memória, de todas as taxas cadastradas.
+ * Leituras (pagamentos e listagem) não consultam o banco; cada alteração feita pelo
+ * TaxaService gera um novo mapa (copy-on-write) que substitui o anterior de forma atômica.
+ * As instâncias de Taxa guardadas aqui são compartilhadas entre threads e não devem ser alteradas.
+ */
+@Service
+@Slf4j
+public class CatalogoTaxasService {
+    // Limite de combinações de taxas com plano guardado (combinações além disso são compiladas a cada uso).
+    private static final int MAX_PLANOS = 1024;
+
+    /**
+     * Taxas de uma combinação de IDs e o plano tarifário compilado a partir delas.
+     */
+    public record Combinacao(Set<Taxa> taxas, PlanoTarifario plano) {}
+
+    // Versão imutável do catálogo + as combinações de taxas já compiladas para ela.
+    private record Catalogo(Map<String, Taxa> taxas, Map<Set<String>, Combinacao> combinacoes) {
+        Catalogo(Map<String, Taxa> taxas) {
+            this(taxas, new ConcurrentHashMap<>());
+        }
+    }
+
+    private final TaxaRepository taxaRepository;
+    private final AtomicReference<Catalogo> catalogo = new AtomicReference<>(new Catalogo(Map.of()));
+
+    public CatalogoTaxasService(TaxaRepository taxaRepository) {
+        this.taxaRepository = taxaRepository;
+    }
+
+    @PostConstruct
+    public void recarregar() {
+        Map<String, Taxa> novo = new LinkedHashMap<>();
+        taxaRepository.findAll().forEach(taxa -> novo.put(taxa.getId(), taxa));
+        catalogo.set(new Catalogo(Collections.unmodifiableMap(novo)));
+        log.info("Catálogo de taxas carregado com {} taxas.", novo.size());
+    }
+
+    public Optional<Taxa> buscar(String id) {
+        return Optional.ofNullable(catalogo.get().taxas().get(id));
+    }
+
+    public Collection<Taxa> listarTodas() {
+        return catalogo.get().taxas().values();
+    }
+
+    /**
+     * Plano tarifário (taxas pré-somadas) para uma combinação de IDs.
+     * Retorna vazio se algum ID não existir no catálogo.
+     */
+    public Optional<PlanoTarifario> buscarPlano(Collection<String> ids) {
+        return buscarCombinacao(ids).map(Combinacao::plano);
+    }
+
+    /**
+     * Taxas e plano tarifário de uma combinação de IDs, resolvidos juntos e somente em memória.
+     * As combinações ficam guardadas junto da versão atual do catálogo e são descartadas quando qualquer taxa muda.
+     * Retorna vazio se algum ID não existir no catálogo. IDs repetidos contam uma vez só.
+     */
+    public Optional<Combinacao> buscarCombinacao(Collection<String> ids) {
+        Catalogo atual = catalogo.get();
+        Set<String> chave = ids == null ? Set.of() : Set.copyOf(ids);
+
+        Combinacao combinacao = atual.combinacoes().get(chave);
+        if (combinacao != null) {
+            return Optional.of(combinacao);
+        }
+
+        List<Taxa> taxas = new ArrayList<>(chave.size());
+        for (String id : chave) {
+            Taxa taxa = atual.taxas().get(id);
+            if (taxa == null) {
+                return Optional.empty();
+            }
+            taxas.add(taxa);
+        }
+
+        combinacao = new Combinacao(Set.copyOf(taxas), PlanoTarifario.compilar(taxas));
+        if (atual.combinacoes().size() < MAX_PLANOS) {
+            atual.combinacoes().putIfAbsent(chave, combinacao);
+        }
+        return Optional.of(combinacao);
+    }
+
+    // Publica a taxa criada/alterada após o commit (uma transação desfeita não altera o catálogo).
+    public void registrarAlteracao(Taxa taxa) {
+        aplicarAposCommit(mapa -> {
+            mapa.put(taxa.getId(), copiar(taxa));
+            return mapa;
+        });
+    }
+
+    public void registrarRemocao(String id) {
+        aplicarAposCommit(mapa -> {
+            mapa.remove(id);
+            return mapa;
+        });
+    }
+
+    private void aplicarAposCommit(UnaryOperator<Map<String, Taxa>> alteracao) {
+        // O novo catálogo começa sem combinações: as antigas usavam valores de taxa desatualizados.
+        Runnable troca = () -> catalogo.updateAndGet(atual ->
+                new Catalogo(Collections.unmodifiableMap(alteracao.apply(new LinkedHashMap<>(atual.taxas())))));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    troca.run();
+                }
+            });
+        } else {
+            troca.run();
+        }
+    }
+
+    // Cópia desvinculada da entidade gerenciada pelo TaxaService, para que alterações futuras
+    // nela não vazem para o catálogo antes do commit.
+    private Taxa copiar(Taxa taxa) {
+        return Taxa.builder()
+                .id(taxa.getId())
+                .descricao(taxa.getDescricao())
+                .percentual(taxa.getPercentual())
+                .valorFixo(taxa.getValorFixo())
+                .build();
+    }
+}
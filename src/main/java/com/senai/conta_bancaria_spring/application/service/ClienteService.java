@@ -9,6 +9,9 @@ import com.senai.conta_bancaria_spring.domain.exception.RecursoNaoEncontradoExce
 import com.senai.conta_bancaria_spring.domain.exception.RegraDeNegocioException;
 import com.senai.conta_bancaria_spring.domain.repository.ClienteRepository;
 import com.senai.conta_bancaria_spring.domain.repository.TransacaoRepository;
+import com.senai.conta_bancaria_spring.domain.service.LedgerEventosDomainService;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.AlocadorNumeroConta;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,7 +19,6 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -26,15 +28,21 @@ public class ClienteService {
     private final TransacaoRepository transacaoRepository;
     private final BancoConfigProperties bancoConfig;
     private final PasswordEncoder passwordEncoder;
+    private final CacheAutenticacaoService cacheAutenticacao;
+    private final AlocadorNumeroConta alocadorNumeroConta;
+    private final LedgerEventosDomainService ledgerEventos;
 
     @Value("${banco.conta-poupanca.rendimento-padrao}") // Injeta o valor da propriedade diretamente neste campo.
     private BigDecimal rendimentoPadrao;
 
-    public ClienteService(ClienteRepository clienteRepository, TransacaoRepository transacaoRepository, BancoConfigProperties bancoConfigProperties, BancoConfigProperties bancoConfig, PasswordEncoder passwordEncoder) {
+    public ClienteService(ClienteRepository clienteRepository, TransacaoRepository transacaoRepository, BancoConfigProperties bancoConfigProperties, BancoConfigProperties bancoConfig, PasswordEncoder passwordEncoder, CacheAutenticacaoService cacheAutenticacao, AlocadorNumeroConta alocadorNumeroConta, LedgerEventosDomainService ledgerEventos) {
         this.clienteRepository = clienteRepository;
         this.transacaoRepository = transacaoRepository;
         this.bancoConfig = bancoConfig;
         this.passwordEncoder = passwordEncoder;
+        this.cacheAutenticacao = cacheAutenticacao;
+        this.alocadorNumeroConta = alocadorNumeroConta;
+        this.ledgerEventos = ledgerEventos;
     }
 
     @Transactional
@@ -49,16 +57,18 @@ public class ClienteService {
         cliente.setSenha(passwordEncoder.encode(dto.senha()));
         cliente.setRole(UserRole.CLIENTE);
 
-        Conta novaConta = criarInstanciaDeConta(dto.tipoConta(), dto.saldoInicial(), dto.limite(), dto.taxa(), dto.rendimento());
+        Money saldoInicial = Money.de(dto.saldoInicial());
+        Conta novaConta = criarInstanciaDeConta(dto.tipoConta(), saldoInicial, dto.limite(), dto.taxa(), dto.rendimento());
 
         cliente.adicionarConta(novaConta);
         Cliente clienteSalvo = clienteRepository.save(cliente);
+        registrarAbertura(clienteSalvo.getContas().getFirst());
 
-        if (dto.saldoInicial().compareTo(BigDecimal.ZERO) > 0) {
+        if (saldoInicial.isPositivo()) {
             Transacao transacaoInicial = new Transacao();
             transacaoInicial.setConta(clienteSalvo.getContas().getFirst());
             transacaoInicial.setTipo(TipoTransacao.ABERTURA_CONTA);
-            transacaoInicial.setValor(dto.saldoInicial());
+            transacaoInicial.setValor(saldoInicial);
             transacaoRepository.save(transacaoInicial);
         }
 
@@ -76,19 +86,23 @@ public class ClienteService {
             throw new RegraDeNegocioException("O cliente já possui uma conta do tipo " + dto.tipoConta());
         }
 
-        Conta novaConta = criarInstanciaDeConta(dto.tipoConta(), dto.saldoInicial(), dto.limite(), dto.taxa(), dto.rendimento());
+        Money saldoInicial = Money.de(dto.saldoInicial());
+        Conta novaConta = criarInstanciaDeConta(dto.tipoConta(), saldoInicial, dto.limite(), dto.taxa(), dto.rendimento());
 
         cliente.adicionarConta(novaConta);
 
         Cliente clienteSalvo = clienteRepository.save(cliente);
 
         Conta contaSalva = clienteSalvo.getContas().getLast();
+        registrarAbertura(contaSalva);
+        // O principal autenticado carrega os números das contas: força recarregar com a conta nova.
+        cacheAutenticacao.invalidarUsuario(clienteSalvo.getUsername());
 
-        if (dto.saldoInicial().compareTo(BigDecimal.ZERO) > 0) {
+        if (saldoInicial.isPositivo()) {
             Transacao transacaoInicial = new Transacao();
             transacaoInicial.setConta(contaSalva);
             transacaoInicial.setTipo(TipoTransacao.ABERTURA_CONTA);
-            transacaoInicial.setValor(dto.saldoInicial());
+            transacaoInicial.setValor(saldoInicial);
             transacaoRepository.save(transacaoInicial);
         }
 
@@ -110,17 +124,20 @@ public class ClienteService {
         Cliente cliente = buscarClientePorIdOuFalhar(id);
         cliente.setAtivo(false);
         clienteRepository.save(cliente);
+        cacheAutenticacao.invalidarUsuario(cliente.getUsername());
     }
 
     public ClienteResponseDTO atualizarCliente(String id, ClienteUpdateRequestDTO dto) {
         Cliente cliente = buscarClientePorIdOuFalhar(id);
         cliente.setNome(dto.nome());
         Cliente clienteAtualizado = clienteRepository.save(cliente);
+        cacheAutenticacao.invalidarUsuario(cliente.getUsername());
         return ClienteResponseDTO.fromEntity(clienteAtualizado);
     }
 
-    private Conta criarInstanciaDeConta(String tipoConta, BigDecimal saldoInicial, Long limite, BigDecimal taxa, BigDecimal rendimento) {
-        long numeroConta = 100000L + new Random().nextInt(900000);
+    private Conta criarInstanciaDeConta(String tipoConta, Money saldoInicial, Long limite, BigDecimal taxa, BigDecimal rendimento) {
+        // Número único vindo do bloco reservado em memória (sem sorteio e sem retry por colisão)
+        long numeroConta = alocadorNumeroConta.proximoNumero();
 
         if ("Corrente".equalsIgnoreCase(tipoConta)) {
             // Se o limite do DTO for nulo, usa o padrão. Senão, usa o do DTO.
@@ -147,6 +164,12 @@ public class ClienteService {
         }
     }
 
+    // Primeiro evento do ledger da conta, com o saldo inicial. Usa a instância já gerenciada (a que foi salva).
+    private void registrarAbertura(Conta contaSalva) {
+        contaSalva.registrarAbertura();
+        ledgerEventos.gravarEventosPendentes(contaSalva);
+    }
+
     private Cliente buscarClientePorIdOuFalhar(String id) {
         return clienteRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Cliente não encontrado com o ID: " + id));
@@ -0,0 +1,172 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.application.dto.RespostaIdempotenteDTO;
+import com.senai.conta_bancaria_spring.domain.entity.ChaveIdempotencia;
+import com.senai.conta_bancaria_spring.domain.repository.ChaveIdempotenciaRepository;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.RodaDeExpiracao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Registro das requisições feitas com Idempotency-Key.
+ * <p>
+ * A memória guarda as requisições em andamento (sempre) e as respostas concluídas (até o limite configurado,
+ * expiradas pela RodaDeExpiracao). Toda resposta concluída também é gravada na tabela chaves_idempotencia,
+ * consultada quando a chave não está na memória (restart ou limite atingido).
+ * Uma repetição enquanto a original ainda executa espera pela resposta dela, por um tempo limitado.
+ */
+@Service
+@Slf4j
+public class IdempotenciaService {
+
+    public enum Situacao {
+        NOVA,              // Primeira vez: executar a operação e depois chamar concluir/liberar
+        REPETIDA,          // Já concluída: devolver a resposta guardada
+        EM_ANDAMENTO,      // A original ainda não terminou dentro do tempo de espera
+        CHAVE_REUTILIZADA  // Mesma chave usada para uma requisição diferente
+    }
+
+    public record Tentativa(Situacao situacao, RespostaIdempotenteDTO resposta) {
+        static Tentativa de(Situacao situacao) {
+            return new Tentativa(situacao, null);
+        }
+    }
+
+    // Requisição registrada na memória. A resposta fica pendente enquanto a operação executa.
+    private static final class Registro {
+        private final String hashRequisicao;
+        private final CompletableFuture<RespostaIdempotenteDTO> resposta = new CompletableFuture<>();
+
+        private Registro(String hashRequisicao) {
+            this.hashRequisicao = hashRequisicao;
+        }
+    }
+
+    private final Map<String, Registro> registros = new ConcurrentHashMap<>();
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final RodaDeExpiracao roda;
+
+    @Value("${banco.idempotencia.ttl-ms}")
+    private long ttlMs;
+
+    @Value("${banco.idempotencia.max-em-memoria}")
+    private int maxEmMemoria;
+
+    @Value("${banco.idempotencia.espera-em-andamento-ms}")
+    private long esperaEmAndamentoMs;
+
+    public IdempotenciaService(ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                               @Value("${banco.idempotencia.roda.slots}") int slots,
+                               @Value("${banco.idempotencia.roda.tick-ms}") long tickMs) {
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.roda = new RodaDeExpiracao(slots, tickMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Registra o início de uma requisição com a chave (id = usuário + chave) ou devolve o que já se sabe dela.
+     */
+    public Tentativa iniciar(String id, String hashRequisicao) {
+        long prazo = System.currentTimeMillis() + esperaEmAndamentoMs;
+        while (true) {
+            Registro atual = registros.get(id);
+            if (atual == null) {
+                // 1. Fora da memória: pode ter sido concluída antes de um restart ou descartada pelo limite
+                Optional<ChaveIdempotencia> gravada = chaveIdempotenciaRepository.findById(id)
+                        .filter(chave -> chave.getExpiraEm().isAfter(LocalDateTime.now()));
+                if (gravada.isPresent()) {
+                    if (!gravada.get().getHashRequisicao().equals(hashRequisicao)) {
+                        return Tentativa.de(Situacao.CHAVE_REUTILIZADA);
+                    }
+                    return new Tentativa(Situacao.REPETIDA, RespostaIdempotenteDTO.fromEntity(gravada.get()));
+                }
+
+                // 2. Chave nova: só uma das requisições concorrentes consegue registrá-la
+                atual = registros.putIfAbsent(id, new Registro(hashRequisicao));
+                if (atual == null) {
+                    return Tentativa.de(Situacao.NOVA);
+                }
+            }
+
+            if (!atual.hashRequisicao.equals(hashRequisicao)) {
+                return Tentativa.de(Situacao.CHAVE_REUTILIZADA);
+            }
+
+            // 3. Concluída ou em andamento: espera a resposta da original
+            try {
+                RespostaIdempotenteDTO resposta = atual.resposta.get(
+                        Math.max(prazo - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                if (resposta != null) {
+                    return new Tentativa(Situacao.REPETIDA, resposta);
+                }
+                // A original foi liberada sem resposta (falha): esta passa a ser a nova tentativa.
+            } catch (TimeoutException e) {
+                return Tentativa.de(Situacao.EM_ANDAMENTO);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Tentativa.de(Situacao.EM_ANDAMENTO);
+            } catch (ExecutionException e) {
+                // O futuro nunca é completado com erro; tratado como liberado.
+            }
+        }
+    }
+
+    /**
+     * Guarda a resposta da requisição (banco e memória) e a entrega às repetições que estavam esperando.
+     */
+    public void concluir(String id, RespostaIdempotenteDTO resposta) {
+        Registro registro = registros.get(id);
+        if (registro == null) {
+            return;
+        }
+
+        long expiraEmMs = System.currentTimeMillis() + ttlMs;
+        try {
+            chaveIdempotenciaRepository.save(ChaveIdempotencia.builder()
+                    .id(id)
+                    .hashRequisicao(registro.hashRequisicao)
+                    .status(resposta.status())
+                    .contentType(resposta.contentType())
+                    .corpo(resposta.corpo())
+                    .expiraEm(LocalDateTime.now().plus(ttlMs, ChronoUnit.MILLIS))
+                    .build());
+        } catch (RuntimeException e) {
+            // A resposta continua valendo pela memória; só não sobrevive a um restart.
+            log.warn("Falha ao gravar a resposta da Idempotency-Key {}: {}", id, e.getMessage());
+        }
+
+        registro.resposta.complete(resposta);
+        if (registros.size() > maxEmMemoria) {
+            // Memória cheia: a partir de agora esta chave é atendida pelo banco.
+            registros.remove(id, registro);
+        } else {
+            roda.agendar(expiraEmMs, () -> registros.remove(id, registro));
+        }
+    }
+
+    /**
+     * Esquece a requisição sem guardar resposta (erro inesperado): uma repetição executa a operação de novo.
+     */
+    public void liberar(String id) {
+        Registro registro = registros.remove(id);
+        if (registro != null) {
+            registro.resposta.complete(null);
+        }
+    }
+
+    public int registrosEmMemoria() {
+        return registros.size();
+    }
+
+    @Scheduled(fixedRateString = "${banco.idempotencia.roda.tick-ms}")
+    public void expirar() {
+        roda.avancar(System.currentTimeMillis());
+    }
+}
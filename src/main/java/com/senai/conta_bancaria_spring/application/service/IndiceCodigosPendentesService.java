@@ -0,0 +1,114 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.application.dto.iot.CodigoPendenteDTO;
+import com.senai.conta_bancaria_spring.domain.repository.CodigoAutenticacaoRepository;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.RodaDeExpiracao;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória do código 2FA aberto mais recente de cada cliente.
+ * A validação de uma mensagem do dispositivo vira uma busca O(1) por clienteId; o banco é só o registro durável.
+ * Cada entrada sai do índice ao ser validada ou, via RodaDeExpiracao, um pouco depois do seu expiraEm
+ * (a retenção permite responder "expirou" a um dispositivo atrasado em vez de "código inexistente").
+ */
+@Service
+@Slf4j
+public class IndiceCodigosPendentesService {
+
+    private final CodigoAutenticacaoRepository codigoRepository;
+    private final Map<String, CodigoPendenteDTO> pendentesPorCliente = new ConcurrentHashMap<>();
+    private final RodaDeExpiracao roda;
+    private final long retencaoExpiradosMs;
+
+    public IndiceCodigosPendentesService(CodigoAutenticacaoRepository codigoRepository,
+                                         @Value("${banco.iot.codigos.roda.slots}") int slots,
+                                         @Value("${banco.iot.codigos.roda.tick-ms}") long tickMs,
+                                         @Value("${banco.iot.codigos.retencao-expirados-ms}") long retencaoExpiradosMs) {
+        this.codigoRepository = codigoRepository;
+        this.roda = new RodaDeExpiracao(slots, tickMs, System.currentTimeMillis());
+        this.retencaoExpiradosMs = retencaoExpiradosMs;
+    }
+
+    @PostConstruct
+    public void carregar() {
+        LocalDateTime desde = LocalDateTime.now().minusNanos(retencaoExpiradosMs * 1_000_000);
+        codigoRepository.buscarPendentesDesde(desde).forEach(this::indexar);
+        log.info("Índice de códigos 2FA carregado com {} códigos abertos.", pendentesPorCliente.size());
+    }
+
+    public Optional<CodigoPendenteDTO> buscar(String clienteId) {
+        return Optional.ofNullable(pendentesPorCliente.get(clienteId));
+    }
+
+    public int pendentes() {
+        return pendentesPorCliente.size();
+    }
+
+    // Publica o novo código após o commit (uma transação desfeita não deixa código fantasma no índice).
+    public void registrar(CodigoPendenteDTO codigo) {
+        aposCommit(() -> indexar(codigo));
+    }
+
+    /**
+     * Retira o código do índice para validá-lo. Só uma chamada vence (retorna true) para o mesmo código.
+     * Se a transação da validação for desfeita, o código volta ao índice e o dispositivo pode reenviar.
+     */
+    public boolean consumir(CodigoPendenteDTO codigo) {
+        if (!pendentesPorCliente.remove(codigo.clienteId(), codigo)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        pendentesPorCliente.putIfAbsent(codigo.clienteId(), codigo);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Scheduled(fixedRateString = "${banco.iot.codigos.roda.tick-ms}")
+    public void expirar() {
+        int expirados = roda.avancar(System.currentTimeMillis());
+        if (expirados > 0) {
+            log.debug("Roda de expiração 2FA: {} códigos retirados do índice.", expirados);
+        }
+    }
+
+    private void indexar(CodigoPendenteDTO codigo) {
+        // Mantém apenas o código mais recente do cliente (mesma regra da antiga consulta "ORDER BY expiraEm DESC").
+        pendentesPorCliente.merge(codigo.clienteId(), codigo,
+                (atual, novo) -> novo.expiraEm().isAfter(atual.expiraEm()) ? novo : atual);
+
+        long expiraEmMs = codigo.expiraEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        roda.agendar(expiraEmMs + retencaoExpiradosMs, () -> pendentesPorCliente.remove(codigo.clienteId(), codigo));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.application.dto.ItemLoteDTO;
+import com.senai.conta_bancaria_spring.application.dto.OperacaoLoteRequestDTO;
+import com.senai.conta_bancaria_spring.application.dto.ResultadoItemLoteDTO;
+import com.senai.conta_bancaria_spring.application.dto.ResultadoLoteDTO;
+import com.senai.conta_bancaria_spring.domain.entity.Conta;
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.exception.RegraDeNegocioException;
+import com.senai.conta_bancaria_spring.domain.repository.ContaRepository;
+import com.senai.conta_bancaria_spring.domain.service.ContaServiceDomain;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.ContaLockManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Processa lotes de depósitos e transferências (folha de pagamento, arquivos de liquidação).
+ * Os itens são agrupados por conta e aplicados em chunks; cada chunk roda em uma transação curta,
+ * com as contas carregadas de uma vez e os INSERT/UPDATE enviados em batch JDBC no commit.
+ */
+@Service
+@Slf4j
+public class OperacaoLoteService {
+    private final ContaRepository contaRepository;
+    private final ContaServiceDomain contaServiceDomain;
+    private final ContaLockManager contaLockManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${banco.lote.tamanho-chunk}")
+    private int tamanhoChunk;
+
+    @Value("${banco.lote.max-itens}")
+    private int maxItens;
+
+    public OperacaoLoteService(ContaRepository contaRepository,
+                               ContaServiceDomain contaServiceDomain,
+                               ContaLockManager contaLockManager,
+                               TransactionTemplate transactionTemplate) {
+        this.contaRepository = contaRepository;
+        this.contaServiceDomain = contaServiceDomain;
+        this.contaLockManager = contaLockManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public ResultadoLoteDTO processarLote(OperacaoLoteRequestDTO dto) {
+        List<ItemLoteDTO> itens = dto.itens();
+        if (itens.size() > maxItens) {
+            throw new RegraDeNegocioException("O lote excede o limite de " + maxItens + " operações.");
+        }
+
+        ResultadoItemLoteDTO[] resultados = new ResultadoItemLoteDTO[itens.size()];
+
+        // 1. Agrupa os índices por conta (de origem), mantendo a ordem original dentro de cada conta
+        Map<Long, List<Integer>> indicesPorConta = new LinkedHashMap<>();
+        for (int i = 0; i < itens.size(); i++) {
+            indicesPorConta.computeIfAbsent(itens.get(i).numeroConta(), k -> new ArrayList<>()).add(i);
+        }
+
+        // 2. Monta os chunks sem separar os itens de uma mesma conta
+        List<Integer> chunk = new ArrayList<>(tamanhoChunk);
+        for (List<Integer> indicesDaConta : indicesPorConta.values()) {
+            chunk.addAll(indicesDaConta);
+            if (chunk.size() >= tamanhoChunk) {
+                processarChunk(itens, chunk, resultados);
+                chunk = new ArrayList<>(tamanhoChunk);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processarChunk(itens, chunk, resultados);
+        }
+
+        return ResultadoLoteDTO.of(Arrays.asList(resultados));
+    }
+
+    private void processarChunk(List<ItemLoteDTO> itens, List<Integer> indices, ResultadoItemLoteDTO[] resultados) {
+        Set<Long> numerosContas = new HashSet<>();
+        for (int indice : indices) {
+            ItemLoteDTO item = itens.get(indice);
+            numerosContas.add(item.numeroConta());
+            if (item.numeroContaDestino() != null) {
+                numerosContas.add(item.numeroContaDestino());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> contaLockManager.executarComLock(() -> {
+                // Uma única consulta para todas as contas do chunk
+                Map<Long, Conta> contas = contaRepository.findAllByNumeroIn(numerosContas).stream()
+                        .collect(Collectors.toMap(Conta::getNumero, Function.identity()));
+
+                for (int indice : indices) {
+                    resultados[indice] = aplicarItem(indice, itens.get(indice), contas);
+                }
+                // As contas são entidades gerenciadas: os UPDATEs saem em batch no flush do commit.
+            }, numerosContas.toArray(Long[]::new)));
+        } catch (RuntimeException e) {
+            // Falha do chunk inteiro (ex: erro de banco): nada dele foi gravado.
+            log.error("Falha ao gravar chunk do lote com {} itens: {}", indices.size(), e.getMessage(), e);
+            for (int indice : indices) {
+                resultados[indice] = ResultadoItemLoteDTO.falha(indice, "Falha ao gravar o bloco desta operação. Reenvie o item.");
+            }
+        }
+    }
+
+    private ResultadoItemLoteDTO aplicarItem(int indice, ItemLoteDTO item, Map<Long, Conta> contas) {
+        Conta conta = contas.get(item.numeroConta());
+        if (conta == null) {
+            return ResultadoItemLoteDTO.falha(indice, "Conta não encontrada com o número: " + item.numeroConta());
+        }
+
+        try {
+            switch (item.tipo()) {
+                case DEPOSITO -> {
+                    Money valor = Money.de(item.valor());
+                    conta.depositar(valor);
+                    contaServiceDomain.registrarTransacao(conta, TipoTransacao.DEPOSITO, valor, null);
+                }
+                case TRANSFERENCIA -> aplicarTransferencia(item, conta, contas);
+            }
+            return ResultadoItemLoteDTO.sucesso(indice);
+        } catch (RuntimeException e) {
+            return ResultadoItemLoteDTO.falha(indice, e.getMessage());
+        }
+    }
+
+    private void aplicarTransferencia(ItemLoteDTO item, Conta contaOrigem, Map<Long, Conta> contas) {
+        if (item.numeroContaDestino() == null) {
+            throw new RegraDeNegocioException("A conta de destino é obrigatória para transferências.");
+        }
+        if (item.numeroConta().equals(item.numeroContaDestino())) {
+            throw new RegraDeNegocioException("A conta de origem e destino não podem ser as mesmas.");
+        }
+        Conta contaDestino = contas.get(item.numeroContaDestino());
+        if (contaDestino == null) {
+            throw new RegraDeNegocioException("Conta de destino não encontrada com o número: " + item.numeroContaDestino());
+        }
+
+        // Se o crédito falhar depois do débito, o débito é desfeito (o item é atômico dentro do chunk).
+        Money valor = Money.de(item.valor());
+        Conta.Marca marcaOrigem = contaOrigem.marcar();
+        Conta.Marca marcaDestino = contaDestino.marcar();
+        Money valorDebitado;
+        try {
+            valorDebitado = contaOrigem.debitarParaTransferencia(valor);
+            contaDestino.depositar(valor);
+        } catch (RuntimeException e) {
+            contaOrigem.desfazerAte(marcaOrigem);
+            contaDestino.desfazerAte(marcaDestino);
+            throw e;
+        }
+
+        contaServiceDomain.registrarTransacao(contaOrigem, TipoTransacao.TRANSFERENCIA_ENVIADA, valorDebitado.negar(), item.numeroContaDestino());
+        contaServiceDomain.registrarTransacao(contaDestino, TipoTransacao.TRANSFERENCIA_RECEBIDA, valor, item.numeroConta());
+    }
+}
@@ -1,48 +1,76 @@
 package com.senai.conta_bancaria_spring.application.service;
 
+import com.senai.conta_bancaria_spring.application.dto.ClienteAutenticadoDTO;
 import com.senai.conta_bancaria_spring.application.dto.PagamentoRequestDTO;
 import com.senai.conta_bancaria_spring.application.dto.PagamentoResponseDTO;
-import com.senai.conta_bancaria_spring.domain.entity.Cliente;
 import com.senai.conta_bancaria_spring.domain.entity.Conta;
 import com.senai.conta_bancaria_spring.domain.entity.Pagamento;
-import com.senai.conta_bancaria_spring.domain.entity.Taxa;
 import com.senai.conta_bancaria_spring.domain.enums.StatusPagamento;
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
 import com.senai.conta_bancaria_spring.domain.exception.PagamentoInvalidoException;
 import com.senai.conta_bancaria_spring.domain.exception.RecursoNaoEncontradoException;
 import com.senai.conta_bancaria_spring.domain.exception.SaldoInsuficienteException;
 import com.senai.conta_bancaria_spring.domain.repository.ContaRepository;
 import com.senai.conta_bancaria_spring.domain.repository.PagamentoRepository;
-import com.senai.conta_bancaria_spring.domain.repository.TaxaRepository;
+import com.senai.conta_bancaria_spring.domain.service.ContaServiceDomain;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import com.senai.conta_bancaria_spring.domain.service.PagamentoDomainService;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.ContaLockManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
-import java.util.Set;
 
 @Service
 @Transactional
 public class PagamentoAppService {
     private final PagamentoDomainService pagamentoDomainService;
     private final ContaRepository contaRepository;
-    private final TaxaRepository taxaRepository;
+    private final CatalogoTaxasService catalogoTaxas;
     private final PagamentoRepository pagamentoRepository;
+    private final ContaLockManager contaLockManager;
+    private final ContaServiceDomain contaServiceDomain;
+    private final MeterRegistry meterRegistry;
 
     public PagamentoAppService(PagamentoDomainService pagamentoDomainService,
                                ContaRepository contaRepository,
-                               TaxaRepository taxaRepository,
-                               PagamentoRepository pagamentoRepository) {
+                               CatalogoTaxasService catalogoTaxas,
+                               PagamentoRepository pagamentoRepository,
+                               ContaLockManager contaLockManager,
+                               ContaServiceDomain contaServiceDomain,
+                               MeterRegistry meterRegistry) {
         this.pagamentoDomainService = pagamentoDomainService;
         this.contaRepository = contaRepository;
-        this.taxaRepository = taxaRepository;
+        this.catalogoTaxas = catalogoTaxas;
         this.pagamentoRepository = pagamentoRepository;
+        this.contaLockManager = contaLockManager;
+        this.contaServiceDomain = contaServiceDomain;
+        this.meterRegistry = meterRegistry;
     }
 
     public PagamentoResponseDTO realizarPagamento(Long numeroConta, PagamentoRequestDTO dto) {
+        // Timer "banco.pagamento" por StatusPagamento (ERRO: falhou antes de gerar um Pagamento), incluindo a espera do lock.
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String status = "ERRO";
+        try {
+            // O pagamento debita o mesmo saldo que saques e transferências, então entra na mesma fila da conta.
+            PagamentoResponseDTO resposta = contaLockManager.executarComLock(() -> executarPagamento(numeroConta, dto), numeroConta);
+            status = StatusPagamento.SUCESSO.name();
+            return resposta;
+        } catch (SaldoInsuficienteException | PagamentoInvalidoException e) {
+            status = classificarFalha(e).name();
+            throw e;
+        } finally {
+            amostra.stop(meterRegistry.timer("banco.pagamento", "status", status));
+        }
+    }
+
+    private PagamentoResponseDTO executarPagamento(Long numeroConta, PagamentoRequestDTO dto) {
 
         // 1. Buscar Entidade Conta
         Conta conta = contaRepository.findByNumero(numeroConta)
@@ -51,32 +79,32 @@ public class PagamentoAppService {
         // 2. Validar Proprietário (Lógica de segurança)
         validarProprietarioDaConta(conta);
 
-        // 3. Buscar Entidades Taxa
-        Set<Taxa> taxas = new HashSet<>();
-        if (dto.idsTaxas() != null && !dto.idsTaxas().isEmpty()) {
-            taxas.addAll(taxaRepository.findAllById(dto.idsTaxas()));
-            // Validação simples para garantir que todas as taxas pedidas foram encontradas
-            if (taxas.size() != dto.idsTaxas().size()) {
-                throw new RecursoNaoEncontradoException("Uma ou mais taxas não foram encontradas.");
-            }
+        // 3. Buscar Taxas e o plano tarifário no catálogo em memória, em uma única consulta (nenhuma ao banco)
+        CatalogoTaxasService.Combinacao combinacao = catalogoTaxas.buscarCombinacao(dto.idsTaxas())
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Uma ou mais taxas não foram encontradas."));
+        // Validação simples para garantir que não houve IDs repetidos
+        if (dto.idsTaxas() != null && combinacao.taxas().size() != dto.idsTaxas().size()) {
+            throw new RecursoNaoEncontradoException("Uma ou mais taxas não foram encontradas.");
         }
         // Prepara o builder do pagamento para salvar em caso de SUCESSO ou FALHA
+        Money valorBoleto = Money.de(dto.valor());
         Pagamento.PagamentoBuilder pagamentoBuilder = Pagamento.builder()
                 .conta(conta)
                 .boleto(dto.codigoBoleto())
-                .valorPago(dto.valor())
-                .taxas(taxas);
+                .valorPago(valorBoleto)
+                .taxas(new HashSet<>(combinacao.taxas()));
 
-        BigDecimal custoTotal = BigDecimal.ZERO;
+        Money custoTotal = Money.ZERO;
 
         try {
             // 4. Chamar Serviço de Domínio (onde a regra de negócio acontece)
             custoTotal = pagamentoDomainService.processarDebitoPagamento(
-                    conta, dto.valor(), dto.codigoBoleto(), taxas
+                    conta, valorBoleto, dto.codigoBoleto(), combinacao.plano()
             );
 
-            // 5. Salvar a conta (com saldo atualizado)
+            // 5. Salvar a conta (com saldo atualizado) e registrar o débito no histórico
             contaRepository.save(conta);
+            contaServiceDomain.registrarTransacao(conta, TipoTransacao.PAGAMENTO, custoTotal.negar(), null);
 
             // 6. Criar e Salvar Pagamento com SUCESSO
             Pagamento pagamentoSucesso = pagamentoBuilder
@@ -90,14 +118,7 @@ public class PagamentoAppService {
         } catch (SaldoInsuficienteException | PagamentoInvalidoException e) {
 
             // 8. Determinar o Status da Falha
-            StatusPagamento statusFalha;
-            if (e instanceof SaldoInsuficienteException) {
-                statusFalha = StatusPagamento.FALHA_SALDO_INSUFICIENTE;
-            } else if (e.getMessage().contains("vencido")) {
-                statusFalha = StatusPagamento.FALHA_BOLETO_VENCIDO;
-            } else {
-                statusFalha = StatusPagamento.FALHA_OPERACIONAL;
-            }
+            StatusPagamento statusFalha = classificarFalha(e);
 
             // 9. Criar e Salvar Pagamento com FALHA
             Pagamento pagamentoFalha = pagamentoBuilder
@@ -110,6 +131,15 @@ public class PagamentoAppService {
         }
     }
 
+    private static StatusPagamento classificarFalha(RuntimeException e) {
+        if (e instanceof SaldoInsuficienteException) {
+            return StatusPagamento.FALHA_SALDO_INSUFICIENTE;
+        } else if (e.getMessage().contains("vencido")) {
+            return StatusPagamento.FALHA_BOLETO_VENCIDO;
+        }
+        return StatusPagamento.FALHA_OPERACIONAL;
+    }
+
     /**
      * Valida se o cliente autenticado é o proprietário da conta.
      * (Lógica reutilizada do ContaServiceDomain)
@@ -120,11 +150,10 @@ public class PagamentoAppService {
             throw new AccessDeniedException("Usuário não autenticado.");
         }
 
-        Cliente clienteAutenticado = (Cliente) authentication.getPrincipal();
-        String idClienteAutenticado = clienteAutenticado.getId();
-        String idDonoDaConta = conta.getCliente().getId();
+        // Verificação em memória: o principal já carrega os números das contas do cliente.
+        ClienteAutenticadoDTO clienteAutenticado = (ClienteAutenticadoDTO) authentication.getPrincipal();
 
-        if (!idClienteAutenticado.equals(idDonoDaConta)) {
+        if (!clienteAutenticado.possuiConta(conta.getNumero())) {
             throw new AccessDeniedException("Acesso negado: Você não é o proprietário desta conta.");
         }
     }
@@ -0,0 +1,265 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.domain.entity.CheckpointRendimento;
+import com.senai.conta_bancaria_spring.domain.repository.CheckpointRendimentoRepository;
+import com.senai.conta_bancaria_spring.domain.service.LedgerEventosDomainService;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.ContaLockManager;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.CreditoRendimentoJdbc;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.CreditoRendimentoJdbc.ContaElegivel;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.CreditoRendimentoJdbc.ResultadoBloco;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crédito mensal do rendimento das contas poupança.
+ * <p>
+ * O espaço de ids das contas (UUID em texto) é dividido em faixas pelo prefixo hexadecimal; as faixas são
+ * processadas em paralelo por um pool de tamanho fixo, cada uma em blocos de N contas. Cada bloco é uma
+ * transação curta que credita as contas (CreditoRendimentoJdbc) e avança o checkpoint da faixa, com os locks
+ * das contas do bloco (ContaLockManager) segurados do início da leitura até o commit.
+ * Uma execução interrompida continua do último bloco gravado, sem recomeçar nem creditar duas vezes.
+ * <p>
+ * Uma faixa só é concluída por uma passada que começou no início dela e terminou sem contas em conflito;
+ * senão ela é repassada desde o início (a consulta só devolve contas ainda não creditadas no mês).
+ */
+@Service
+@Slf4j
+public class RendimentoPoupancaService {
+
+    /**
+     * Métricas do crédito de rendimento: total acumulado e dados da última execução.
+     */
+    public record Metricas(long totalCreditadas, long totalConflitos, long execucoes,
+                           long creditadasUltimaExecucao, long blocosUltimaExecucao, long duracaoUltimaExecucaoMs) {}
+
+    private record ResultadoFaixa(long creditadas, long conflitos, long blocos) {}
+
+    // Passadas por faixa em uma execução; o que sobrar fica para a próxima (retomarInterrompidas).
+    private static final int MAX_PASSADAS = 3;
+
+    private final CheckpointRendimentoRepository checkpointRendimentoRepository;
+    private final CreditoRendimentoJdbc creditoRendimentoJdbc;
+    private final LedgerEventosDomainService ledgerEventosDomainService;
+    private final ContaLockManager contaLockManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private final AtomicLong totalCreditadas = new AtomicLong();
+    private final AtomicLong totalConflitos = new AtomicLong();
+    private final AtomicLong execucoes = new AtomicLong();
+    private volatile Metricas ultimaExecucao = new Metricas(0, 0, 0, 0, 0, 0);
+
+    @Value("${banco.rendimento.faixas}")
+    private int quantidadeFaixas;
+
+    @Value("${banco.rendimento.threads}")
+    private int threads;
+
+    @Value("${banco.rendimento.tamanho-bloco}")
+    private int tamanhoBloco;
+
+    public RendimentoPoupancaService(CheckpointRendimentoRepository checkpointRendimentoRepository,
+                                     CreditoRendimentoJdbc creditoRendimentoJdbc,
+                                     LedgerEventosDomainService ledgerEventosDomainService,
+                                     ContaLockManager contaLockManager,
+                                     TransactionTemplate transactionTemplate) {
+        this.checkpointRendimentoRepository = checkpointRendimentoRepository;
+        this.creditoRendimentoJdbc = creditoRendimentoJdbc;
+        this.ledgerEventosDomainService = ledgerEventosDomainService;
+        this.contaLockManager = contaLockManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Termina as execuções interrompidas (faixas com checkpoint não concluído) dos meses anteriores.
+     */
+    public void retomarInterrompidas() {
+        for (LocalDate referencia : checkpointRendimentoRepository.buscarReferenciasIncompletas()) {
+            log.info(">>> RENDIMENTO: retomando o crédito interrompido de {}.", referencia);
+            creditarMes(referencia);
+        }
+    }
+
+    /**
+     * Credita o rendimento do mês da data informada a todas as contas poupança ativas que ainda não o receberam.
+     * Rodar de novo o mesmo mês só processa as faixas não concluídas.
+     */
+    public void creditarMes(LocalDate data) {
+        LocalDate referencia = data.withDayOfMonth(1);
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn(">>> RENDIMENTO: já existe um crédito em andamento; execução de {} ignorada.", referencia);
+            return;
+        }
+        try {
+            executar(referencia);
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    public Metricas metricas() {
+        return ultimaExecucao;
+    }
+
+    private void executar(LocalDate referencia) {
+        long inicio = System.currentTimeMillis();
+
+        // 1. Faixas do mês: as já gravadas (execução anterior) ou novas
+        List<CheckpointRendimento> pendentes = prepararFaixas(referencia).stream()
+                .filter(checkpoint -> !checkpoint.getConcluida())
+                .toList();
+        if (pendentes.isEmpty()) {
+            log.debug(">>> RENDIMENTO: todas as faixas de {} já foram concluídas.", referencia);
+            return;
+        }
+
+        // 2. Processa as faixas em paralelo; uma faixa com erro não interrompe as outras
+        boolean gravarEventos = ledgerEventosDomainService.habilitado();
+        AtomicInteger contadorThreads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pendentes.size()), tarefa -> {
+            Thread thread = new Thread(tarefa, "rendimento-" + contadorThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<ResultadoFaixa>> resultados = new ArrayList<>(pendentes.size());
+        try {
+            for (CheckpointRendimento checkpoint : pendentes) {
+                resultados.add(executor.submit(() -> processarFaixa(checkpoint, referencia, gravarEventos)));
+            }
+
+            long creditadas = 0;
+            long conflitos = 0;
+            long blocos = 0;
+            int faixasComErro = 0;
+            for (int i = 0; i < resultados.size(); i++) {
+                try {
+                    ResultadoFaixa faixa = resultados.get(i).get();
+                    creditadas += faixa.creditadas();
+                    conflitos += faixa.conflitos();
+                    blocos += faixa.blocos();
+                } catch (ExecutionException e) {
+                    faixasComErro++;
+                    log.error(">>> RENDIMENTO: falha na faixa {} de {}; será retomada do último checkpoint.",
+                            pendentes.get(i).getFaixa(), referencia, e.getCause());
+                }
+            }
+
+            // 3. Métricas e resumo
+            long duracaoMs = System.currentTimeMillis() - inicio;
+            ultimaExecucao = new Metricas(totalCreditadas.addAndGet(creditadas), totalConflitos.addAndGet(conflitos),
+                    execucoes.incrementAndGet(), creditadas, blocos, duracaoMs);
+            log.info(">>> RENDIMENTO: {} contas creditadas em {} blocos ({} faixas, {} ms) para {}.",
+                    creditadas, blocos, pendentes.size(), duracaoMs, referencia);
+            if (conflitos > 0) {
+                log.info(">>> RENDIMENTO: {} conflitos com alterações concorrentes em {} (contas repassadas ao fim da faixa).",
+                        conflitos, referencia);
+            }
+            if (faixasComErro > 0) {
+                log.warn(">>> RENDIMENTO: {} faixas de {} não terminaram.", faixasComErro, referencia);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn(">>> RENDIMENTO: interrompido; o crédito de {} continua na próxima execução.", referencia);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<CheckpointRendimento> prepararFaixas(LocalDate referencia) {
+        return transactionTemplate.execute(status -> {
+            List<CheckpointRendimento> existentes = checkpointRendimentoRepository.findByDataReferenciaOrderByFaixa(referencia);
+            if (!existentes.isEmpty()) {
+                return existentes; // Mantém a divisão da execução original, mesmo que a configuração tenha mudado
+            }
+
+            List<CheckpointRendimento> faixas = new ArrayList<>(quantidadeFaixas);
+            for (int faixa = 0; faixa < quantidadeFaixas; faixa++) {
+                faixas.add(CheckpointRendimento.builder()
+                        .dataReferencia(referencia)
+                        .faixa(faixa)
+                        .inicio(limiteDaFaixa(faixa))
+                        .fim(faixa + 1 < quantidadeFaixas ? limiteDaFaixa(faixa + 1) : null)
+                        .contasCreditadas(0L)
+                        .concluida(false)
+                        .atualizadoEm(LocalDateTime.now())
+                        .build());
+            }
+            return checkpointRendimentoRepository.saveAll(faixas);
+        });
+    }
+
+    // Prefixo de 8 dígitos hexadecimais que abre a faixa ("" na primeira). Os ids são UUIDs aleatórios em minúsculas,
+    // então as faixas têm tamanhos parecidos e a comparação de texto segue a ordem numérica do prefixo.
+    private String limiteDaFaixa(int faixa) {
+        if (faixa == 0) {
+            return "";
+        }
+        return String.format("%08x", (1L << 32) * faixa / quantidadeFaixas);
+    }
+
+    private ResultadoFaixa processarFaixa(CheckpointRendimento checkpoint, LocalDate referencia, boolean gravarEventos) {
+        long creditadas = 0;
+        long conflitos = 0;
+        long blocos = 0;
+        // Retomada no meio da faixa: as contas antes do cursor podem ter ficado em conflito, então não conclui sem repassar
+        boolean passadaDoInicio = checkpoint.getUltimoIdProcessado() == null;
+        long conflitosNaPassada = 0;
+        int passadas = 0;
+        while (!checkpoint.getConcluida() && !Thread.currentThread().isInterrupted()) {
+            String cursor = checkpoint.getUltimoIdProcessado() != null ? checkpoint.getUltimoIdProcessado() : checkpoint.getInicio();
+            boolean podeConcluir = passadaDoInicio && conflitosNaPassada == 0;
+
+            List<ContaElegivel> contas = creditoRendimentoJdbc.listarBloco(
+                    referencia, cursor, checkpoint.getFim(), tamanhoBloco);
+            String ultimoId = contas.isEmpty() ? cursor : contas.getLast().id();
+            Long[] numeros = contas.stream().map(ContaElegivel::numero).toArray(Long[]::new);
+
+            // Locks das contas antes da leitura e do UPDATE, liberados depois do commit: as operações dos clientes
+            // nessas contas esperam o bloco, em vez de uma delas perder a corrida para o outro lado.
+            // Crédito do bloco e avanço do checkpoint na mesma transação: ou os dois ficam gravados, ou nenhum.
+            ResultadoBloco bloco = contaLockManager.executarComLock(() -> transactionTemplate.execute(status -> {
+                ResultadoBloco resultado = creditoRendimentoJdbc.creditarBloco(referencia, contas, gravarEventos);
+                boolean fimDaFaixa = resultado.lidas() < tamanhoBloco;
+                boolean concluir = fimDaFaixa && podeConcluir && resultado.conflitos() == 0;
+                // No fim de uma passada que não pode concluir, o cursor volta ao início da faixa (null)
+                checkpoint.setUltimoIdProcessado(fimDaFaixa && !concluir ? null : ultimoId);
+                checkpoint.setContasCreditadas(checkpoint.getContasCreditadas() + resultado.creditadas());
+                checkpoint.setConcluida(concluir);
+                checkpoint.setAtualizadoEm(LocalDateTime.now());
+                checkpointRendimentoRepository.save(checkpoint);
+                return resultado;
+            }), numeros);
+
+            creditadas += bloco.creditadas();
+            conflitos += bloco.conflitos();
+            conflitosNaPassada += bloco.conflitos();
+            blocos++;
+
+            if (bloco.lidas() < tamanhoBloco && !checkpoint.getConcluida()) {
+                passadas++;
+                if (passadas >= MAX_PASSADAS) {
+                    log.warn(">>> RENDIMENTO: faixa {} de {} ainda tem contas em conflito após {} passadas; "
+                            + "continua na próxima execução.", checkpoint.getFaixa(), referencia, passadas);
+                    break;
+                }
+                passadaDoInicio = true;
+                conflitosNaPassada = 0;
+            }
+        }
+        return new ResultadoFaixa(creditadas, conflitos, blocos);
+    }
+}
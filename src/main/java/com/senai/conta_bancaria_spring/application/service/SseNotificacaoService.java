@@ -1,83 +1,298 @@
 package com.senai.conta_bancaria_spring.application.service;
 
 import com.senai.conta_bancaria_spring.application.dto.NotificacaoDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Fan-out de notificações SSE: cada cliente pode ter várias conexões (abas, celular, etc).
+ * <p>
+ * Quem produz a notificação (worker da fila IoT, por exemplo) apenas a coloca no buffer limitado
+ * de cada conexão; o envio pela rede acontece em virtual threads, no máximo uma tarefa por conexão
+ * por vez (mantendo a ordem dos eventos), então um socket parado prende só a própria tarefa.
+ * Uma conexão cujo buffer enche é um consumidor lento e é descartada, nunca bloqueando o produtor:
+ * o produtor só a marca como encerrada e o complete() do emitter fica com a tarefa de envio.
+ * Heartbeats periódicos evitam que proxies derrubem conexões ociosas.
+ * <p>
+ * Cada notificação leva um id de evento crescente e fica no histórico recente do cliente (CaixaNotificacoesService),
+ * entregue ou não. Uma reconexão com Last-Event-ID recebe tudo o que veio depois desse id; uma conexão nova, sem ele,
+ * recebe as notificações geradas enquanto o cliente estava sem conexão.
+ * O tempo entre enfileirar uma notificação e terminar de enviá-la é medido no timer "banco.sse.entrega".
+ */
 @Service
 @Slf4j
 public class SseNotificacaoService {
-    // Armazena os emitters (conexões) de cada cliente. Thread-safe.
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
-
     // Timeout de 30 minutos para a conexão SSE
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L;
 
+    // Armazena as conexões de cada cliente. Thread-safe.
+    private final Map<String, Set<Conexao>> conexoesPorCliente = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConexoes = new AtomicInteger();
+    private final AtomicLong sequenciaConexoes = new AtomicLong();
+    private final AtomicLong consumidoresLentosDescartados = new AtomicLong();
+
+    private final CaixaNotificacoesService caixaNotificacoes;
+    private final ExecutorService executorEnvio;
+    private final Timer tempoEntrega;
+
+    @Value("${banco.sse.buffer-por-conexao}")
+    private int bufferPorConexao;
+
+    @Value("${banco.sse.max-conexoes-por-cliente}")
+    private int maxConexoesPorCliente;
+
+    @Value("${banco.sse.caixa.max-por-cliente}")
+    private int maxHistoricoPorCliente;
+
+    public SseNotificacaoService(CaixaNotificacoesService caixaNotificacoes, MeterRegistry meterRegistry) {
+        this.caixaNotificacoes = caixaNotificacoes;
+        this.tempoEntrega = Timer.builder("banco.sse.entrega")
+                .description("Da notificação enfileirada na conexão até o envio concluído")
+                .register(meterRegistry);
+        // Uma virtual thread por tarefa: um send() bloqueado em um socket lento não ocupa uma thread da plataforma
+        this.executorEnvio = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-envio-", 1).factory());
+    }
+
+    @PreDestroy
+    public void desligar() {
+        executorEnvio.shutdownNow();
+    }
+
     /**
-     * Cria e armazena um novo SseEmitter para um cliente.
+     * Cria e registra uma nova conexão SSE para um cliente (sem substituir as demais) e reenvia as
+     * notificações guardadas com id maior que ultimoEventoId (cabeçalho Last-Event-ID, pode ser nulo:
+     * nesse caso só as que não foram entregues a nenhuma conexão).
      * Este método será chamado pelo NotificacaoController.
      */
-    public SseEmitter criarEmitter(String clienteId) {
+    public SseEmitter criarEmitter(String clienteId, String ultimoEventoId) {
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
-
-        // Adiciona o emitter ao mapa
-        this.emitters.put(clienteId, emitter);
-        log.info("SSE Emitter criado para o cliente: {}", clienteId);
+        // Espaço extra para o "connect" e o histórico reenviado, que chegam de uma vez: não é consumidor lento
+        Conexao conexao = new Conexao(clienteId, emitter, sequenciaConexoes.incrementAndGet(),
+                bufferPorConexao + maxHistoricoPorCliente + 1);
 
         // Define o que fazer quando a conexão é completada (timeout ou erro)
-        emitter.onCompletion(() -> {
-            this.emitters.remove(clienteId);
-            log.info("SSE Emitter removido (onCompletion) para o cliente: {}", clienteId);
-        });
-        emitter.onTimeout(() -> {
-            this.emitters.remove(clienteId);
-            log.info("SSE Emitter removido (onTimeout) para o cliente: {}", clienteId);
-        });
+        emitter.onCompletion(() -> remover(conexao));
+        emitter.onTimeout(() -> remover(conexao));
         emitter.onError((e) -> {
-            this.emitters.remove(clienteId);
-            log.error("SSE Emitter removido (onError) para o cliente: {}. Erro: {}", clienteId, e.getMessage());
+            log.debug("SSE Emitter com erro para o cliente: {}. Erro: {}", clienteId, e.getMessage());
+            remover(conexao);
         });
 
-        // Envia um evento "heartbeat" inicial para confirmar a conexão
-        try {
-            emitter.send(SseEmitter.event().name("connect").data("Conexão SSE estabelecida."));
-        } catch (IOException e) {
-            log.warn("Falha ao enviar evento de conexão SSE para cliente {}: {}", clienteId, e.getMessage());
-        }
+        // Envia um evento "connect" inicial para confirmar a conexão
+        publicar(conexao, SseEmitter.event().name("connect").data("Conexão SSE estabelecida."), false);
+
+        // Registro e reenvio do histórico juntos, travando o histórico do cliente: cada notificação chega a esta
+        // conexão uma única vez, ou pelo histórico ou ao vivo (enviarNotificacao), e na ordem dos ids.
+        AtomicInteger reenviadas = new AtomicInteger();
+        caixaNotificacoes.reproduzir(clienteId, converterEventoId(ultimoEventoId),
+                () -> registrar(conexao),
+                guardada -> {
+                    publicar(conexao, eventoNotificacao(guardada.eventoId(), guardada.notificacao()), true);
+                    reenviadas.incrementAndGet();
+                });
+        log.info("SSE Emitter criado para o cliente: {} ({} conexões ativas no nó, {} notificações reenviadas)",
+                clienteId, totalConexoes.get(), reenviadas.get());
 
         return emitter;
     }
 
     /**
-     * Envia uma notificação para um cliente específico.
-     * Este método será chamado pelo MqttListenerService.
+     * Envia uma notificação para todas as conexões de um cliente. Não bloqueia: o envio é feito pelo executor.
+     * Este método será chamado pelo ValidacaoIoTService.
      */
     public void enviarNotificacao(String clienteId, NotificacaoDTO notificacao) {
-        SseEmitter emitter = emitters.get(clienteId);
+        // Guardada sempre: uma conexão pode morrer com a notificação no buffer, e a reconexão (Last-Event-ID) a recupera
+        caixaNotificacoes.registrar(clienteId, notificacao, eventoId -> {
+            Set<Conexao> conexoes = conexoesPorCliente.get(clienteId);
+            if (conexoes == null || conexoes.isEmpty()) {
+                log.info("Nenhum Emitter SSE ativo para o cliente {}. Notificação guardada para a próxima conexão.", clienteId);
+                return false;
+            }
+            log.info("Enviando notificação SSE para cliente {} ({} conexões): {}", clienteId, conexoes.size(), notificacao.mensagem());
+            for (Conexao conexao : conexoes) {
+                publicar(conexao, eventoNotificacao(eventoId, notificacao), true);
+            }
+            return true;
+        });
+    }
+
+    // Comentário SSE (": heartbeat") é ignorado pelo EventSource, mas mantém a conexão com tráfego.
+    @Scheduled(fixedRateString = "${banco.sse.heartbeat-ms}")
+    public void enviarHeartbeats() {
+        for (Set<Conexao> conexoes : conexoesPorCliente.values()) {
+            for (Conexao conexao : conexoes) {
+                publicar(conexao, SseEmitter.event().comment("heartbeat"), false);
+            }
+        }
+    }
+
+    // O 'eventName' "operacao_concluida" será usado pelo front-end para
+    // filtrar este evento de outros eventos (como o "connect").
+    private SseEmitter.SseEventBuilder eventoNotificacao(long eventoId, NotificacaoDTO notificacao) {
+        return SseEmitter.event()
+                .id(Long.toString(eventoId))
+                .name("operacao_concluida")
+                .data(notificacao);
+    }
+
+    private Long converterEventoId(String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(ultimoEventoId.trim());
+        } catch (NumberFormatException e) {
+            return null; // Id desconhecido: trata como conexão nova
+        }
+    }
+
+    public int conexoesAtivas() {
+        return totalConexoes.get();
+    }
+
+    public long consumidoresLentosDescartados() {
+        return consumidoresLentosDescartados.get();
+    }
+
+    // medirEntrega: só notificações entram no timer (connect e heartbeat não).
+    private void publicar(Conexao conexao, SseEmitter.SseEventBuilder evento, boolean medirEntrega) {
+        if (conexao.encerrada) {
+            return;
+        }
+        if (!conexao.buffer.offer(new EventoEnfileirado(evento, medirEntrega ? System.nanoTime() : 0L))) {
+            // Buffer cheio: o cliente não está consumindo. Derruba a conexão em vez de esperar por ela.
+            // O complete() não roda aqui: ele espera o mesmo lock que o send() bloqueado no socket lento.
+            consumidoresLentosDescartados.incrementAndGet();
+            log.warn("Conexão SSE do cliente {} descartada: buffer de eventos cheio (consumidor lento).", conexao.clienteId);
+            encerrar(conexao);
+            return;
+        }
+        agendarEnvio(conexao);
+    }
 
-        if (emitter != null) {
+    // Garante no máximo uma tarefa de envio por conexão na fila do executor.
+    private void agendarEnvio(Conexao conexao) {
+        if (conexao.envioAgendado.compareAndSet(false, true)) {
             try {
-                log.info("Enviando notificação SSE para cliente {}: {}", clienteId, notificacao.mensagem());
-                // O 'eventName' "operacao_concluida" será usado pelo front-end para
-                // filtrar este evento de outros eventos (como o "connect").
-                SseEmitter.SseEventBuilder sseEvent = SseEmitter.event()
-                        .name("operacao_concluida")
-                        .data(notificacao);
-
-                emitter.send(sseEvent);
-
-            } catch (IOException e) {
-                log.warn("Falha ao enviar notificação SSE para cliente {}. Removendo emitter. Erro: {}", clienteId, e.getMessage());
-                // Se falhar, a conexão provavelmente está morta. Removemos.
-                this.emitters.remove(clienteId);
+                executorEnvio.execute(() -> esvaziarBuffer(conexao));
+            } catch (RejectedExecutionException e) {
+                conexao.envioAgendado.set(false); // Aplicação encerrando
             }
-        } else {
-            log.warn("Nenhum Emitter SSE ativo encontrado para o cliente: {}", clienteId);
+        }
+    }
+
+    private void esvaziarBuffer(Conexao conexao) {
+        try {
+            EventoEnfileirado enfileirado;
+            while (!conexao.encerrada && (enfileirado = conexao.buffer.poll()) != null) {
+                conexao.emitter.send(enfileirado.evento());
+                if (enfileirado.enfileiradoEmNanos() != 0L) {
+                    tempoEntrega.record(System.nanoTime() - enfileirado.enfileiradoEmNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Se falhar, a conexão provavelmente está morta. Removemos.
+            log.debug("Falha ao enviar evento SSE para cliente {}. Removendo conexão. Erro: {}", conexao.clienteId, e.getMessage());
+            remover(conexao);
+        } finally {
+            conexao.envioAgendado.set(false);
+        }
+        if (conexao.encerrada) {
+            completar(conexao);
+        } else if (!conexao.buffer.isEmpty()) {
+            // Um evento pode ter chegado entre o último poll e a liberação do agendamento.
+            agendarEnvio(conexao);
+        }
+    }
+
+    // Adiciona dentro do compute para não correr com a remoção do conjunto vazio (ver remover)
+    private void registrar(Conexao conexao) {
+        Set<Conexao> conexoes = conexoesPorCliente.compute(conexao.clienteId, (id, atual) -> {
+            Set<Conexao> conjunto = atual != null ? atual : ConcurrentHashMap.newKeySet();
+            conjunto.add(conexao);
+            return conjunto;
+        });
+        totalConexoes.incrementAndGet();
+        if (conexao.encerrada) {
+            remover(conexao); // O emitter terminou antes do registro
+            return;
+        }
+        limitarConexoesDoCliente(conexoes);
+    }
+
+    // Mantém só as conexões mais recentes do cliente.
+    private void limitarConexoesDoCliente(Set<Conexao> conexoes) {
+        while (conexoes.size() > maxConexoesPorCliente) {
+            conexoes.stream()
+                    .min(Comparator.comparingLong(c -> c.sequencia))
+                    .ifPresent(this::encerrar);
+        }
+    }
+
+    // Pode ser chamado pelo produtor: só desregistra e deixa o complete() para a tarefa de envio da conexão.
+    // Se uma tarefa já está rodando (talvez presa no socket), ela completa ao terminar; senão uma nova é agendada.
+    private void encerrar(Conexao conexao) {
+        remover(conexao);
+        agendarEnvio(conexao);
+    }
+
+    // Só roda na tarefa de envio da conexão, nunca na thread de quem publica.
+    private void completar(Conexao conexao) {
+        if (!conexao.completada.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            conexao.emitter.complete();
+        } catch (IllegalStateException e) {
+            // Já completado
+        }
+    }
+
+    private void remover(Conexao conexao) {
+        conexao.encerrada = true;
+        conexao.buffer.clear();
+        Set<Conexao> conexoes = conexoesPorCliente.get(conexao.clienteId);
+        if (conexoes != null && conexoes.remove(conexao)) {
+            totalConexoes.decrementAndGet();
+            log.info("SSE Emitter removido para o cliente: {}", conexao.clienteId);
+            // Remove o conjunto vazio sem apagar um que acabou de ganhar uma conexão nova.
+            conexoesPorCliente.computeIfPresent(conexao.clienteId, (id, atual) -> atual.isEmpty() ? null : atual);
+        }
+    }
+
+    // enfileiradoEmNanos = 0: evento fora da medição de entrega.
+    private record EventoEnfileirado(SseEmitter.SseEventBuilder evento, long enfileiradoEmNanos) {
+    }
+
+    private static final class Conexao {
+        private final String clienteId;
+        private final SseEmitter emitter;
+        private final long sequencia;
+        private final BlockingQueue<EventoEnfileirado> buffer;
+        private final AtomicBoolean envioAgendado = new AtomicBoolean();
+        private final AtomicBoolean completada = new AtomicBoolean();
+        private volatile boolean encerrada;
+
+        private Conexao(String clienteId, SseEmitter emitter, long sequencia, int tamanhoBuffer) {
+            this.clienteId = clienteId;
+            this.emitter = emitter;
+            this.sequencia = sequencia;
+            this.buffer = new ArrayBlockingQueue<>(tamanhoBuffer);
         }
     }
 }
@@ -1,13 +1,21 @@
 package com.senai.conta_bancaria_spring.application.service;
 
+import com.senai.conta_bancaria_spring.application.dto.CotacaoRequestDTO;
+import com.senai.conta_bancaria_spring.application.dto.CotacaoResponseDTO;
+import com.senai.conta_bancaria_spring.application.dto.ItemCotacaoDTO;
 import com.senai.conta_bancaria_spring.application.dto.TaxaRequestDTO;
 import com.senai.conta_bancaria_spring.application.dto.TaxaResponseDTO;
 import com.senai.conta_bancaria_spring.domain.entity.Taxa;
 import com.senai.conta_bancaria_spring.domain.exception.RecursoNaoEncontradoException;
 import com.senai.conta_bancaria_spring.domain.repository.TaxaRepository;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.domain.service.PlanoTarifario;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,47 +23,77 @@ import java.util.stream.Collectors;
 @Transactional
 public class TaxaService {
     private final TaxaRepository taxaRepository;
+    private final CatalogoTaxasService catalogoTaxas;
 
-    public TaxaService(TaxaRepository taxaRepository) {
+    public TaxaService(TaxaRepository taxaRepository, CatalogoTaxasService catalogoTaxas) {
         this.taxaRepository = taxaRepository;
+        this.catalogoTaxas = catalogoTaxas;
     }
 
     public TaxaResponseDTO criarTaxa(TaxaRequestDTO dto) {
         Taxa novaTaxa = Taxa.builder()
                 .descricao(dto.descricao())
                 .percentual(dto.percentual())
-                .valorFixo(dto.valorFixo())
+                .valorFixo(Money.de(dto.valorFixo()))
                 .build();
 
         Taxa taxaSalva = taxaRepository.save(novaTaxa);
+        catalogoTaxas.registrarAlteracao(taxaSalva);
         return TaxaResponseDTO.fromEntity(taxaSalva);
     }
 
+    // Leituras vêm do catálogo em memória (sem consulta ao banco).
     public TaxaResponseDTO buscarPorId(String id) {
-        Taxa taxa = buscarTaxaOuFalhar(id);
+        Taxa taxa = catalogoTaxas.buscar(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Taxa não encontrada com o ID: " + id));
         return TaxaResponseDTO.fromEntity(taxa);
     }
 
     public List<TaxaResponseDTO> listarTodas() {
-        return taxaRepository.findAll().stream()
+        return catalogoTaxas.listarTodas().stream()
                 .map(TaxaResponseDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Prévia do custo de vários boletos com a mesma combinação de taxas.
+     * Usa o mesmo plano tarifário do pagamento, então o custo cotado é exatamente o que seria debitado.
+     */
+    public CotacaoResponseDTO cotar(CotacaoRequestDTO dto) {
+        List<String> idsTaxas = dto.idsTaxas() == null ? List.of() : dto.idsTaxas();
+
+        // 1. Mesma regra do pagamento: IDs inexistentes ou repetidos são rejeitados
+        if (new HashSet<>(idsTaxas).size() != idsTaxas.size()) {
+            throw new RecursoNaoEncontradoException("Uma ou mais taxas não foram encontradas.");
+        }
+        PlanoTarifario plano = catalogoTaxas.buscarPlano(idsTaxas)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Uma ou mais taxas não foram encontradas."));
+
+        // 2. Aplica o plano (já compilado) a cada valor
+        List<ItemCotacaoDTO> itens = new ArrayList<>(dto.valores().size());
+        for (BigDecimal valor : dto.valores()) {
+            Money valorBoleto = Money.de(valor);
+            itens.add(ItemCotacaoDTO.of(valorBoleto, plano.calcularCustoTotal(valorBoleto)));
+        }
+        return new CotacaoResponseDTO(idsTaxas, itens);
+    }
+
     public TaxaResponseDTO atualizarTaxa(String id, TaxaRequestDTO dto) {
         Taxa taxaExistente = buscarTaxaOuFalhar(id);
 
         taxaExistente.setDescricao(dto.descricao());
         taxaExistente.setPercentual(dto.percentual());
-        taxaExistente.setValorFixo(dto.valorFixo());
+        taxaExistente.setValorFixo(Money.de(dto.valorFixo()));
 
         Taxa taxaAtualizada = taxaRepository.save(taxaExistente);
+        catalogoTaxas.registrarAlteracao(taxaAtualizada);
         return TaxaResponseDTO.fromEntity(taxaAtualizada);
     }
 
     public void deletarTaxa(String id) {
         Taxa taxa = buscarTaxaOuFalhar(id);
         taxaRepository.delete(taxa);
+        catalogoTaxas.registrarRemocao(id);
     }
 
     // Método utilitário privado para evitar repetição de código
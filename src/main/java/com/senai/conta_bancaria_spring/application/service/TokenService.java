@@ -1,10 +1,13 @@
 package com.senai.conta_bancaria_spring.application.service;
 
 import com.senai.conta_bancaria_spring.domain.entity.Cliente;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +23,18 @@ public class TokenService {
     @Value("${api.security.token.expiration-ms}")
     private long expirationMs;
 
+    // Chave e parser são imutáveis e thread-safe: montados uma única vez na inicialização.
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializarChave() {
+        byte[] keyBytes = Decoders.BASE64.decode(this.secret);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .setSigningKey(this.signingKey).build();
+    }
+
     public String gerarToken(Cliente cliente) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expirationMs);
@@ -30,19 +45,19 @@ public class TokenService {
                 .claim("role", cliente.getRole().toString())
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String getSubject(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody()
-                .getSubject();
+        return validarToken(token).getSubject();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifica assinatura e expiração do token e retorna suas claims.
+     * Lança exceção do JJWT se o token for inválido.
+     */
+    public Claims validarToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
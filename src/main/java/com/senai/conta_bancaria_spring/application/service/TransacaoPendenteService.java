@@ -6,6 +6,7 @@ import com.senai.conta_bancaria_spring.domain.entity.*;
 import com.senai.conta_bancaria_spring.domain.enums.TipoOperacao;
 import com.senai.conta_bancaria_spring.domain.repository.CodigoAutenticacaoRepository;
 import com.senai.conta_bancaria_spring.domain.repository.TransacaoPendenteRepository;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -46,7 +47,7 @@ public class TransacaoPendenteService {
                 .tipoOperacao(tipo)
                 .contaOrigemNumero(origem)
                 .contaDestinoNumero(destino)
-                .valor(valor)
+                .valor(Money.de(valor))
                 .codigoBoleto(boleto)
                 .codigoAutenticacao(codigoAuth)
                 .build();
@@ -0,0 +1,153 @@
+package com.senai.conta_bancaria_spring.application.service;
+
+import com.senai.conta_bancaria_spring.application.dto.ClienteAutenticadoDTO;
+import com.senai.conta_bancaria_spring.application.dto.NotificacaoDTO;
+import com.senai.conta_bancaria_spring.application.dto.PagamentoRequestDTO;
+import com.senai.conta_bancaria_spring.application.dto.iot.AutenticacaoValidacaoDTO;
+import com.senai.conta_bancaria_spring.domain.entity.CodigoAutenticacao;
+import com.senai.conta_bancaria_spring.domain.entity.TransacaoPendente;
+import com.senai.conta_bancaria_spring.domain.exception.AutenticacaoIoTExpiradaException;
+import com.senai.conta_bancaria_spring.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria_spring.domain.repository.CodigoAutenticacaoRepository;
+import com.senai.conta_bancaria_spring.domain.repository.TransacaoPendenteRepository;
+import com.senai.conta_bancaria_spring.domain.service.ContaServiceDomain;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conclui uma operação que aguardava a confirmação biométrica do dispositivo IoT.
+ * Chamado pelos workers da FilaValidacaoIoT (nunca na thread do cliente MQTT).
+ */
+@Service
+@Slf4j
+public class ValidacaoIoTService {
+
+    private final AutenticacaoIoTService autenticacaoIoTService;
+    private final TransacaoPendenteRepository transacaoPendenteRepository;
+    private final ClienteRepository clienteRepository;
+    private final CodigoAutenticacaoRepository codigoAutenticacaoRepository;
+    private final ContaServiceDomain contaServiceDomain;
+    private final PagamentoAppService pagamentoAppService;
+    private final SseNotificacaoService notificacaoService;
+
+    public ValidacaoIoTService(AutenticacaoIoTService autenticacaoIoTService,
+                               TransacaoPendenteRepository transacaoPendenteRepository,
+                               ClienteRepository clienteRepository,
+                               CodigoAutenticacaoRepository codigoAutenticacaoRepository,
+                               ContaServiceDomain contaServiceDomain,
+                               PagamentoAppService pagamentoAppService,
+                               SseNotificacaoService notificacaoService) {
+        this.autenticacaoIoTService = autenticacaoIoTService;
+        this.transacaoPendenteRepository = transacaoPendenteRepository;
+        this.clienteRepository = clienteRepository;
+        this.codigoAutenticacaoRepository = codigoAutenticacaoRepository;
+        this.contaServiceDomain = contaServiceDomain;
+        this.pagamentoAppService = pagamentoAppService;
+        this.notificacaoService = notificacaoService;
+    }
+
+    @Transactional
+    public void processarValidacao(AutenticacaoValidacaoDTO payload) {
+        String clienteId = payload.clienteId(); // <-- Guardar o ID do cliente
+
+        if (Boolean.TRUE.equals(payload.biometriaOk())) {
+            try {
+                // 1. Tenta validar o código recebido (pode lançar AutenticacaoIoTExpiradaException)
+                Optional<CodigoAutenticacao> codigoValidado = autenticacaoIoTService
+                        .validarCodigoRecebido(payload.clienteId(), payload.codigoValidado());
+
+                if (codigoValidado.isPresent()) {
+                    // 2. Se validou, busca qual era a transação que estava esperando por esse código
+                    Optional<TransacaoPendente> pendenciaOpt = transacaoPendenteRepository
+                            .findByCodigoAutenticacao(codigoValidado.get());
+
+                    if (pendenciaOpt.isPresent()) {
+                        TransacaoPendente pendencia = pendenciaOpt.get();
+                        log.info(">>> EXECUTANDO OPERAÇÃO PENDENTE: {}", pendencia.getTipoOperacao());
+
+                        try {
+                            // 3. Executa a operação real em nome do dono do código (não há requisição HTTP nesta thread).
+                            // Só o CPF é projetado: inicializar o proxy do Cliente carregaria as contas dele antes
+                            // do lock da conta, e a operação trabalharia com um saldo/version desatualizado.
+                            Long cpfCliente = codigoAutenticacaoRepository.buscarCpfDoCliente(codigoValidado.get().getId())
+                                    .orElseThrow(() -> new AccessDeniedException("Cliente inativo ou inexistente."));
+                            String mensagemSucesso = executarComoCliente(cpfCliente, () -> executarPendencia(pendencia));
+
+                            // 4. SUCESSO: deleta a pendência (já foi processada)
+                            transacaoPendenteRepository.delete(pendencia);
+                            log.info(">>> OPERAÇÃO CONCLUÍDA COM SUCESSO!");
+                            notificacaoService.enviarNotificacao(clienteId, NotificacaoDTO.sucesso(mensagemSucesso));
+
+                        } catch (Exception e) {
+                            // 5. ERRO DE NEGÓCIO (ex: Saldo insuficiente no momento da execução)
+                            log.error(">>> ERRO AO EXECUTAR OPERAÇÃO PENDENTE: {}", e.getMessage(), e);
+                            // Deletamos a pendência para não ficar travada no banco.
+                            transacaoPendenteRepository.delete(pendencia);
+                            notificacaoService.enviarNotificacao(clienteId, NotificacaoDTO.falha(e.getMessage()));
+                        }
+                    } else {
+                        log.warn(">>> AVISO: Código validado, mas nenhuma transação pendente foi encontrada.");
+                    }
+                }
+            } catch (AutenticacaoIoTExpiradaException e) {
+                log.error(">>> ERRO IOT: {}", e.getMessage());
+                notificacaoService.enviarNotificacao(clienteId, NotificacaoDTO.falha(e.getMessage()));
+            }
+        } else {
+            log.warn(">>> FALHA BIOMETRIA: Cliente negou a operação no dispositivo.");
+            notificacaoService.enviarNotificacao(clienteId, NotificacaoDTO.falha("Operação negada no dispositivo."));
+        }
+    }
+
+    private String executarPendencia(TransacaoPendente pendencia) {
+        return switch (pendencia.getTipoOperacao()) {
+            case SAQUE -> {
+                contaServiceDomain.sacar(pendencia.getContaOrigemNumero(), pendencia.getValor());
+                yield String.format("Saque de R$ %.2f concluído com sucesso.", pendencia.getValor().paraBigDecimal());
+            }
+            case TRANSFERENCIA -> {
+                contaServiceDomain.transferir(
+                        pendencia.getContaOrigemNumero(), pendencia.getContaDestinoNumero(), pendencia.getValor());
+                yield String.format("Transferência de R$ %.2f para conta %d concluída.",
+                        pendencia.getValor().paraBigDecimal(), pendencia.getContaDestinoNumero());
+            }
+            case PAGAMENTO_BOLETO -> {
+                // Recria o DTO necessário para o serviço de pagamento.
+                // Nota: Estamos passando uma lista vazia de taxas aqui por simplificação.
+                PagamentoRequestDTO dto = new PagamentoRequestDTO(
+                        pendencia.getCodigoBoleto(), pendencia.getValor().paraBigDecimal(), Collections.emptyList());
+                pagamentoAppService.realizarPagamento(pendencia.getContaOrigemNumero(), dto);
+                yield String.format("Pagamento de boleto no valor de R$ %.2f concluído.", pendencia.getValor().paraBigDecimal());
+            }
+        };
+    }
+
+    /**
+     * Coloca o cliente dono do código 2FA no SecurityContext durante a operação, para que a
+     * validação de proprietário da conta continue valendo fora de uma requisição HTTP.
+     */
+    private <T> T executarComoCliente(Long cpf, Supplier<T> operacao) {
+        ClienteAutenticadoDTO principal = ClienteAutenticadoDTO
+                .fromProjecao(clienteRepository.buscarDadosAutenticacaoPorCpf(cpf))
+                .filter(ClienteAutenticadoDTO::isEnabled)
+                .orElseThrow(() -> new AccessDeniedException("Cliente inativo ou inexistente."));
+
+        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+        contexto.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        SecurityContextHolder.setContext(contexto);
+        try {
+            return operacao.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.senai.conta_bancaria_spring.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senai.conta_bancaria_spring.application.dto.RespostaIdempotenteDTO;
+import com.senai.conta_bancaria_spring.application.service.IdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cabeçalho Idempotency-Key nas operações financeiras (depositar, sacar, transferir, pagar).
+ * <p>
+ * Roda depois do Spring Security (ordem padrão de filtro), então a chave é sempre do usuário autenticado.
+ * A primeira requisição com a chave executa normalmente e tem a resposta guardada; as repetições recebem
+ * a mesma resposta (cabeçalho Idempotency-Replayed: true) sem chegar ao controller, ou seja, sem novo
+ * código 2FA, pendência ou publicação MQTT. Sem o cabeçalho, nada muda.
+ */
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+    public static final String CABECALHO_CHAVE = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotency-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final Pattern OPERACOES_FINANCEIRAS =
+            Pattern.compile("^/contas/[^/]+/(depositar|sacar|transferir|pagar)$");
+
+    private final IdempotenciaService idempotenciaService;
+    private final ObjectMapper objectMapper;
+
+    public IdempotenciaFilter(IdempotenciaService idempotenciaService, ObjectMapper objectMapper) {
+        this.idempotenciaService = idempotenciaService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(CABECALHO_CHAVE) == null) {
+            return true;
+        }
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return !OPERACOES_FINANCEIRAS.matcher(caminho).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(CABECALHO_CHAVE).trim();
+        if (chave.isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            escreverErro(response, HttpStatus.BAD_REQUEST,
+                    "O cabeçalho " + CABECALHO_CHAVE + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 1. Lê o corpo uma vez: ele entra no hash e é reentregue ao controller
+        RequisicaoComCorpo requisicao = new RequisicaoComCorpo(request);
+        String id = authentication.getName() + ":" + chave;
+        String hash = calcularHash(requisicao);
+
+        // 2. Já conhecida? Responde sem executar a operação
+        IdempotenciaService.Tentativa tentativa = idempotenciaService.iniciar(id, hash);
+        switch (tentativa.situacao()) {
+            case REPETIDA -> {
+                escreverRepetida(response, tentativa.resposta());
+                return;
+            }
+            case EM_ANDAMENTO -> {
+                escreverErro(response, HttpStatus.CONFLICT,
+                        "Uma requisição com esta " + CABECALHO_CHAVE + " ainda está em andamento. Tente novamente.");
+                return;
+            }
+            case CHAVE_REUTILIZADA -> {
+                escreverErro(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Esta " + CABECALHO_CHAVE + " já foi usada em uma requisição diferente.");
+                return;
+            }
+            case NOVA -> {
+                // Segue para a execução
+            }
+        }
+
+        // 3. Executa e guarda a resposta (erros temporários não são guardados: a repetição executa de novo)
+        ContentCachingResponseWrapper respostaEmCache = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requisicao, respostaEmCache);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotenciaService.liberar(id);
+            throw e;
+        }
+
+        int status = respostaEmCache.getStatus();
+        if (deveGuardar(status)) {
+            idempotenciaService.concluir(id, new RespostaIdempotenteDTO(
+                    status, respostaEmCache.getContentType(), respostaEmCache.getContentAsByteArray()));
+        } else {
+            idempotenciaService.liberar(id);
+        }
+        respostaEmCache.copyBodyToResponse();
+    }
+
+    // Sucessos e erros de validação/negócio são definitivos; conflito de concorrência, limite e 5xx não.
+    private boolean deveGuardar(int status) {
+        if (status >= 200 && status < 300) {
+            return true;
+        }
+        return status >= 400 && status < 500
+                && status != HttpStatus.REQUEST_TIMEOUT.value()
+                && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private String calcularHash(RequisicaoComCorpo requisicao) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((requisicao.getMethod() + " " + requisicao.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(requisicao.corpo);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível.", e);
+        }
+    }
+
+    private void escreverRepetida(HttpServletResponse response, RespostaIdempotenteDTO resposta) throws IOException {
+        response.setStatus(resposta.status());
+        if (resposta.contentType() != null) {
+            response.setContentType(resposta.contentType());
+        }
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        response.setContentLength(resposta.corpo().length);
+        response.getOutputStream().write(resposta.corpo());
+    }
+
+    private void escreverErro(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("erro", mensagem)));
+    }
+
+    // Requisição com o corpo já lido em memória (as operações financeiras têm corpos JSON pequenos).
+    private static final class RequisicaoComCorpo extends HttpServletRequestWrapper {
+        private final byte[] corpo;
+
+        private RequisicaoComCorpo(HttpServletRequest request) throws IOException {
+            super(request);
+            this.corpo = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Como no container, a leitura não bloqueante só vale em modo assíncrono, e os callbacks rodam
+                // fora da thread que registrou o listener. O corpo já está em memória: tudo fica disponível de uma vez.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    if (!RequisicaoComCorpo.this.isAsyncStarted()) {
+                        throw new IllegalStateException("setReadListener exige que a requisição esteja em modo assíncrono.");
+                    }
+                    RequisicaoComCorpo.this.getAsyncContext().start(() -> {
+                        try {
+                            readListener.onDataAvailable();
+                            readListener.onAllDataRead();
+                        } catch (Throwable t) {
+                            readListener.onError(t);
+                        }
+                    });
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.senai.conta_bancaria_spring.config;
+
+import com.senai.conta_bancaria_spring.application.service.CaixaNotificacoesService;
+import com.senai.conta_bancaria_spring.application.service.IdempotenciaService;
+import com.senai.conta_bancaria_spring.application.service.IndiceCodigosPendentesService;
+import com.senai.conta_bancaria_spring.application.service.RendimentoPoupancaService;
+import com.senai.conta_bancaria_spring.application.service.SseNotificacaoService;
+import com.senai.conta_bancaria_spring.domain.repository.TransacaoPendenteRepository;
+import com.senai.conta_bancaria_spring.infrastructure.mqtt.FilaValidacaoIoT;
+import com.senai.conta_bancaria_spring.infrastructure.scheduler.LimpezaPendenciasScheduler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica no Micrometer (e em /actuator/prometheus) os contadores que os componentes já mantêm.
+ * Os timers das operações ficam nos próprios serviços (@Timed ou Timer manual).
+ * As métricas do pool de conexões (hikaricp.*) e do Tomcat são registradas pelo Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    // Habilita @Timed nos beans (operações do ContaServiceDomain).
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder metricasFilaIoT(FilaValidacaoIoT fila) {
+        return registry -> {
+            Gauge.builder("banco.iot.fila.profundidade", fila, f -> f.metricas().profundidade())
+                    .description("Mensagens de validação IoT aguardando nas partições")
+                    .register(registry);
+            Gauge.builder("banco.iot.fila.capacidade", fila, f -> f.metricas().capacidadeTotal())
+                    .register(registry);
+            TimeGauge.builder("banco.iot.fila.atraso.maximo", fila, TimeUnit.MILLISECONDS, f -> f.metricas().maiorAtrasoMs())
+                    .description("Maior tempo de uma mensagem na fila antes de ser processada")
+                    .register(registry);
+            FunctionCounter.builder("banco.iot.fila.mensagens", fila, f -> f.metricas().recebidas())
+                    .tag("resultado", "recebida").register(registry);
+            FunctionCounter.builder("banco.iot.fila.mensagens", fila, f -> f.metricas().processadas())
+                    .tag("resultado", "processada").register(registry);
+            FunctionCounter.builder("banco.iot.fila.mensagens", fila, f -> f.metricas().falhas())
+                    .tag("resultado", "falha").register(registry);
+            FunctionCounter.builder("banco.iot.fila.mensagens", fila, f -> f.metricas().rejeitadas())
+                    .tag("resultado", "rejeitada").register(registry);
+        };
+    }
+
+    // Operações aguardando a confirmação do dispositivo (2FA).
+    @Bean
+    public MeterBinder metricasPendencias(IndiceCodigosPendentesService indiceCodigos,
+                                          TransacaoPendenteRepository transacaoPendenteRepository,
+                                          LimpezaPendenciasScheduler limpezaPendencias) {
+        return registry -> {
+            Gauge.builder("banco.iot.codigos.pendentes", indiceCodigos, IndiceCodigosPendentesService::pendentes)
+                    .description("Códigos 2FA abertos no índice em memória")
+                    .register(registry);
+            // Um COUNT por coleta (a tabela é pequena: pendências vencidas são apagadas pelo scheduler)
+            Gauge.builder("banco.operacoes.pendentes", transacaoPendenteRepository, TransacaoPendenteRepository::count)
+                    .description("Saques e transferências aguardando confirmação IoT")
+                    .register(registry);
+            FunctionCounter.builder("banco.operacoes.pendentes.expiradas", limpezaPendencias,
+                            l -> l.metricas().totalExcluidas())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasSse(SseNotificacaoService sse, CaixaNotificacoesService caixa) {
+        return registry -> {
+            Gauge.builder("banco.sse.conexoes.ativas", sse, SseNotificacaoService::conexoesAtivas)
+                    .register(registry);
+            FunctionCounter.builder("banco.sse.consumidores.lentos", sse, SseNotificacaoService::consumidoresLentosDescartados)
+                    .description("Conexões SSE derrubadas por buffer cheio")
+                    .register(registry);
+            Gauge.builder("banco.sse.caixa.clientes", caixa, CaixaNotificacoesService::clientesComHistorico)
+                    .description("Clientes com notificações recentes guardadas para reenvio")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasIdempotencia(IdempotenciaService idempotencia) {
+        return registry -> Gauge.builder("banco.idempotencia.registros", idempotencia, IdempotenciaService::registrosEmMemoria)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder metricasRendimento(RendimentoPoupancaService rendimento) {
+        return registry -> {
+            FunctionCounter.builder("banco.rendimento.contas", rendimento, r -> r.metricas().totalCreditadas())
+                    .tag("resultado", "creditada").register(registry);
+            FunctionCounter.builder("banco.rendimento.contas", rendimento, r -> r.metricas().totalConflitos())
+                    .tag("resultado", "conflito")
+                    .description("Conflitos com alterações concorrentes no crédito de rendimento (contas repassadas ao fim da faixa)")
+                    .register(registry);
+            TimeGauge.builder("banco.rendimento.duracao.ultima", rendimento, TimeUnit.MILLISECONDS,
+                            r -> r.metricas().duracaoUltimaExecucaoMs())
+                    .register(registry);
+        };
+    }
+}
@@ -46,6 +46,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/clientes").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
 
+                        // Observabilidade: só o health é aberto; o resto do actuator (inclusive o scrape do Prometheus,
+                        // feito com o token de um GERENTE) expõe dados internos
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_GERENTE")
+
                         // Endpoints de GERENTE
                         .requestMatchers(HttpMethod.GET, "/clientes").hasAuthority("ROLE_GERENTE")
                         .requestMatchers(HttpMethod.GET, "/clientes/{id}").hasAuthority("ROLE_GERENTE")
@@ -53,7 +58,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/clientes/{id}").hasAuthority("ROLE_GERENTE")
                         .requestMatchers(HttpMethod.POST, "/clientes/{clienteId}/contas").hasAuthority("ROLE_GERENTE")
 
+                        .requestMatchers(HttpMethod.POST, "/taxas/cotacao").hasAnyAuthority("ROLE_CLIENTE", "ROLE_GERENTE")
                         .requestMatchers("/taxas/**").hasAuthority("ROLE_GERENTE")
+                        .requestMatchers(HttpMethod.POST, "/contas/lote").hasAuthority("ROLE_GERENTE")
+                        .requestMatchers(HttpMethod.GET, "/contas/{numeroConta}/conciliacao").hasAuthority("ROLE_GERENTE")
 
                         // Endpoints de CLIENTE
                         .requestMatchers("/contas/**").hasAuthority("ROLE_CLIENTE")
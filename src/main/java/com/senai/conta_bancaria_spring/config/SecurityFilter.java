@@ -1,7 +1,10 @@
 package com.senai.conta_bancaria_spring.config;
 
+import com.senai.conta_bancaria_spring.application.dto.ClienteAutenticadoDTO;
+import com.senai.conta_bancaria_spring.application.service.CacheAutenticacaoService;
 import com.senai.conta_bancaria_spring.application.service.TokenService;
 import com.senai.conta_bancaria_spring.domain.repository.ClienteRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,10 +21,12 @@ import java.io.IOException;
 public class SecurityFilter extends OncePerRequestFilter {
     private final TokenService tokenService;
     private final ClienteRepository clienteRepository;
+    private final CacheAutenticacaoService cacheAutenticacao;
 
-    public SecurityFilter(TokenService tokenService, ClienteRepository clienteRepository) {
+    public SecurityFilter(TokenService tokenService, ClienteRepository clienteRepository, CacheAutenticacaoService cacheAutenticacao) {
         this.tokenService = tokenService;
         this.clienteRepository = clienteRepository;
+        this.cacheAutenticacao = cacheAutenticacao;
     }
 
     @Override
@@ -31,9 +36,23 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                String subject = tokenService.getSubject(token); // CPF do usuário
-                Long cpf = Long.parseLong(subject);
-                UserDetails user = clienteRepository.findByCpf(cpf).orElse(null);
+                // 1. Caminho rápido: token já validado recentemente (sem criptografia e sem banco)
+                UserDetails user = cacheAutenticacao.buscar(token);
+
+                if (user == null) {
+                    // 2. Valida assinatura/expiração e carrega o principal enxuto do banco (uma consulta, sem entidades)
+                    Claims claims = tokenService.validarToken(token);
+                    Long cpf = Long.parseLong(claims.getSubject()); // CPF do usuário
+                    // Lida antes da consulta: uma invalidação concorrente impede que o estado lido vá para o cache
+                    long geracao = cacheAutenticacao.geracao(claims.getSubject());
+                    user = ClienteAutenticadoDTO.fromProjecao(clienteRepository.buscarDadosAutenticacaoPorCpf(cpf))
+                            .filter(ClienteAutenticadoDTO::isEnabled) // Clientes desativados não autenticam
+                            .orElse(null);
+
+                    if (user != null) {
+                        cacheAutenticacao.armazenar(token, user, claims.getExpiration(), geracao);
+                    }
+                }
 
                 if (user != null) {
                     var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
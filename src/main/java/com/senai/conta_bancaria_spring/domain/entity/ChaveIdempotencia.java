@@ -0,0 +1,42 @@
+package com.senai.conta_bancaria_spring.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta gravada de uma requisição feita com o cabeçalho Idempotency-Key.
+ * O id combina o usuário autenticado e a chave enviada; uma repetição com a mesma chave
+ * (e a mesma requisição) recebe esta resposta sem executar a operação de novo.
+ */
+@Entity
+@Table(name = "chaves_idempotencia",
+        indexes = @Index(name = "idx_idempotencia_expira_em", columnList = "expira_em")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChaveIdempotencia {
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    // SHA-256 (hex) do método, caminho e corpo da requisição original.
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(nullable = false)
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    private byte[] corpo;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,53 @@
+package com.senai.conta_bancaria_spring.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progresso de uma faixa de ids de contas no crédito de rendimento de um mês.
+ * Atualizado na mesma transação de cada bloco processado: depois de uma queda, a execução
+ * continua a partir de ultimoIdProcessado em vez de recomeçar a faixa.
+ */
+@Entity
+@Table(name = "checkpoints_rendimento",
+        uniqueConstraints = @UniqueConstraint(name = "uk_checkpoint_rendimento_faixa", columnNames = {"data_referencia", "faixa"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckpointRendimento {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    // Primeiro dia do mês a que o rendimento se refere.
+    @Column(name = "data_referencia", nullable = false)
+    private LocalDate dataReferencia;
+
+    @Column(nullable = false)
+    private Integer faixa;
+
+    // Limites da faixa de ids (inicio exclusivo; fim exclusivo, nulo na última faixa).
+    @Column(nullable = false, length = 36)
+    private String inicio;
+
+    @Column(length = 36)
+    private String fim;
+
+    @Column(name = "ultimo_id_processado", length = 36)
+    private String ultimoIdProcessado;
+
+    @Column(name = "contas_creditadas", nullable = false)
+    private Long contasCreditadas;
+
+    @Column(nullable = false)
+    private Boolean concluida;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
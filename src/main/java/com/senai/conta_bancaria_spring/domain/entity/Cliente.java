@@ -4,7 +4,6 @@ import com.senai.conta_bancaria_spring.domain.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.ArrayList;
@@ -47,11 +46,7 @@ public class Cliente implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (this.role == UserRole.GERENTE) {
-            return List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"));
-        } else {
-            return List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"));
-        }
+        return this.role.getAuthorities();
     }
 
     @Override
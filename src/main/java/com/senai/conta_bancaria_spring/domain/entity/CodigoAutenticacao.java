@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "codigos_autenticacao")
+@Table(name = "codigos_autenticacao",
+        indexes = @Index(name = "idx_codigo_expira_em", columnList = "expira_em")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,13 +1,17 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.senai.conta_bancaria_spring.domain.enums.TipoEventoConta;
 import com.senai.conta_bancaria_spring.domain.exception.SaldoInsuficienteException;
 import com.senai.conta_bancaria_spring.domain.exception.ValorInvalidoException;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "contas",
@@ -25,6 +29,8 @@ import java.math.BigDecimal;
 @SuperBuilder
 public abstract class Conta {
 
+    private static final Money DEPOSITO_MINIMO = Money.deReais(10);
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -33,7 +39,7 @@ public abstract class Conta {
     private Long numero;
 
     @Column(nullable = false)
-    private BigDecimal saldo = BigDecimal.ZERO; // VALOR PADRÃO: Garante que nunca seja nulo.
+    private Money saldo = Money.ZERO; // VALOR PADRÃO: Garante que nunca seja nulo.
 
     @Column(nullable = false)
     private Boolean ativa = true; // VALOR PADRÃO: Garante que nunca seja nulo.
@@ -41,41 +47,147 @@ public abstract class Conta {
     @Version
     private Long version;
 
+    // Controle dos snapshots de saldo: movimentos desde o último snapshot e o dia em que ele foi tirado.
+    @Column(name = "movimentos_desde_snapshot")
+    private Integer movimentosDesdeSnapshot;
+
+    @Column(name = "data_ultimo_snapshot")
+    private LocalDate dataUltimoSnapshot;
+
+    // Sequência do último evento de saldo gerado pela conta (ver EventoConta).
+    @Column(name = "ultima_sequencia_evento")
+    private Long ultimaSequenciaEvento;
+
+    // Mês de referência (primeiro dia) do último rendimento creditado; impede crédito duplo (ver RendimentoPoupancaService).
+    @Column(name = "data_ultimo_rendimento")
+    private LocalDate dataUltimoRendimento;
+
+    // Variações de saldo desta transação ainda não entregues ao LedgerEventosDomainService.
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<VariacaoSaldo> variacoesPendentes;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", foreignKey = @ForeignKey(name = "fk_conta_cliente"))
     @JsonIgnore
     private Cliente cliente;
 
-    public abstract void sacar(BigDecimal valor);
+    public abstract void sacar(Money valor);
 
-    public void depositar(BigDecimal valor) {
-        if (valor.compareTo(BigDecimal.TEN) <= 0) {
+    public void depositar(Money valor) {
+        if (!valor.maiorQue(DEPOSITO_MINIMO)) {
             throw new ValorInvalidoException("O valor do depósito deve ser maior que R$10,00.");
         }
-        this.saldo = this.saldo.add(valor);
+        Money saldoAnterior = this.saldo;
+        this.saldo = this.saldo.somar(valor);
+        registrarEvento(TipoEventoConta.DEPOSITO, saldoAnterior);
+    }
+
+    /**
+     * Evento de abertura com o saldo inicial. Chamado uma vez, logo depois que a conta é criada.
+     */
+    public void registrarAbertura() {
+        registrarEvento(TipoEventoConta.ABERTURA, Money.ZERO);
     }
 
-    protected void validarValorDebitoPositivo(BigDecimal valor, String tipoOperacao) {
-        if (valor == null || valor.compareTo(BigDecimal.ZERO) <= 0) {
+    /**
+     * Variação de saldo de uma operação, com a sequência que ela recebeu na conta.
+     * Se vira um EventoConta gravado é decisão do LedgerEventosDomainService (banco.ledger.eventos.habilitado).
+     */
+    public record VariacaoSaldo(long sequencia, TipoEventoConta tipo, Money valor) {
+    }
+
+    /**
+     * Anota a variação de saldo (saldo atual - saldoAnterior) com a próxima sequência da conta.
+     * Deve ser chamado por toda operação que altera o saldo, depois de alterá-lo.
+     */
+    protected void registrarEvento(TipoEventoConta tipo, Money saldoAnterior) {
+        long sequencia = (this.ultimaSequenciaEvento == null ? 0 : this.ultimaSequenciaEvento) + 1;
+        this.ultimaSequenciaEvento = sequencia;
+        variacoesPendentes().add(new VariacaoSaldo(sequencia, tipo, this.saldo.subtrair(saldoAnterior)));
+    }
+
+    /**
+     * Entrega e esquece as variações ainda não entregues.
+     */
+    public List<VariacaoSaldo> retirarVariacoesPendentes() {
+        if (this.variacoesPendentes == null) {
+            return List.of();
+        }
+        List<VariacaoSaldo> variacoes = this.variacoesPendentes;
+        this.variacoesPendentes = null;
+        return variacoes;
+    }
+
+    /**
+     * Estado em memória da conta (saldo, sequência e variações pendentes), para um possível {@link #desfazerAte}.
+     */
+    public record Marca(Money saldo, Long ultimaSequenciaEvento, int variacoesPendentes) {
+    }
+
+    public Marca marcar() {
+        return new Marca(this.saldo, this.ultimaSequenciaEvento, this.variacoesPendentes == null ? 0 : this.variacoesPendentes.size());
+    }
+
+    /**
+     * Desfaz, em memória, as operações feitas depois da marca: o saldo e a sequência voltam e as variações
+     * (ainda não entregues) são descartadas. Usado quando uma operação composta falha no meio.
+     */
+    public void desfazerAte(Marca marca) {
+        this.saldo = marca.saldo();
+        this.ultimaSequenciaEvento = marca.ultimaSequenciaEvento();
+        while (this.variacoesPendentes != null && this.variacoesPendentes.size() > marca.variacoesPendentes()) {
+            this.variacoesPendentes.removeLast();
+        }
+    }
+
+    private List<VariacaoSaldo> variacoesPendentes() {
+        if (this.variacoesPendentes == null) {
+            this.variacoesPendentes = new ArrayList<>();
+        }
+        return this.variacoesPendentes;
+    }
+
+    protected void validarValorDebitoPositivo(Money valor, String tipoOperacao) {
+        if (valor == null || !valor.isPositivo()) {
             // Usamos String.format para criar uma mensagem de erro mais dinâmica.
             throw new ValorInvalidoException(String.format("O valor do %s deve ser maior que R$0,00.", tipoOperacao));
         }
     }
 
-    protected void validarSaldoSuficiente(BigDecimal valor) {
-        if (valor.compareTo(this.getSaldo()) > 0) {
+    protected void validarSaldoSuficiente(Money valor) {
+        if (valor.maiorQue(this.getSaldo())) {
             throw new SaldoInsuficienteException("Saldo insuficiente.");
         }
     }
 
-    protected void validarSaldoComLimiteSuficiente(BigDecimal valor, Long limite) {
-        BigDecimal saldoDisponivel = this.getSaldo().add(BigDecimal.valueOf(limite));
-        if (valor.compareTo(saldoDisponivel) > 0) {
+    protected void validarSaldoComLimiteSuficiente(Money valor, Long limite) {
+        Money saldoDisponivel = this.getSaldo().somar(Money.deReais(limite));
+        if (valor.maiorQue(saldoDisponivel)) {
             throw new SaldoInsuficienteException("Saldo insuficiente, mesmo com o limite.");
         }
     }
 
-    public abstract BigDecimal debitarParaTransferencia(BigDecimal valor);
+    public abstract Money debitarParaTransferencia(Money valor);
+
+    /**
+     * Contabiliza um novo movimento e indica se a conta chegou a um ponto de snapshot de saldo:
+     * a cada {@code intervaloMovimentos} movimentos ou no primeiro movimento de um novo dia.
+     */
+    public boolean registrarMovimentoParaSnapshot(int intervaloMovimentos, LocalDate hoje) {
+        int movimentos = (this.movimentosDesdeSnapshot == null ? 0 : this.movimentosDesdeSnapshot) + 1;
+
+        if (movimentos >= intervaloMovimentos || !hoje.equals(this.dataUltimoSnapshot)) {
+            this.movimentosDesdeSnapshot = 0;
+            this.dataUltimoSnapshot = hoje;
+            return true;
+        }
+
+        this.movimentosDesdeSnapshot = movimentos;
+        return false;
+    }
 
     /**
      * Debita um valor genérico da conta, aplicando validação de saldo.
@@ -84,7 +196,7 @@ public abstract class Conta {
      *
      * @param valorTotal Valor total a ser debitado (ex: boleto + taxas).
      */
-    public void debitarPagamento(BigDecimal valorTotal) {
+    public void debitarPagamento(Money valorTotal) {
         // 1. Valida se o valor do débito é positivo
         validarValorDebitoPositivo(valorTotal, "pagamento");
 
@@ -92,6 +204,8 @@ public abstract class Conta {
         validarSaldoSuficiente(valorTotal);
 
         // 3. Aplica o débito
-        this.setSaldo(this.getSaldo().subtract(valorTotal));
+        Money saldoAnterior = this.getSaldo();
+        this.setSaldo(saldoAnterior.subtrair(valorTotal));
+        registrarEvento(TipoEventoConta.DEBITO_PAGAMENTO, saldoAnterior);
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.senai.conta_bancaria_spring.application.dto.ContaCorrenteUpdateRequestDTO;
+import com.senai.conta_bancaria_spring.domain.enums.TipoEventoConta;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.domain.service.PlanoTarifario;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Transient;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -22,24 +27,41 @@ public class ContaCorrente extends Conta {
 
     private BigDecimal taxa;
 
+    // Valor + taxa pré-compilado (inteiro escalado), criado no primeiro débito e descartado quando a taxa muda.
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private PlanoTarifario planoTaxa;
+
+    public void setTaxa(BigDecimal taxa) {
+        this.taxa = taxa;
+        this.planoTaxa = null;
+    }
+
     @Override
-    public void sacar(BigDecimal valor) {
+    public void sacar(Money valor) {
         validarValorDebitoPositivo(valor, "saque");
 
-        BigDecimal valorComTaxa = valor.add(valor.multiply(this.taxa));
+        Money valorComTaxa = aplicarTaxa(valor);
         validarSaldoComLimiteSuficiente(valorComTaxa, this.getLimite());
 
-        this.setSaldo(this.getSaldo().subtract(valorComTaxa));
+        Money saldoAnterior = this.getSaldo();
+        this.setSaldo(saldoAnterior.subtrair(valorComTaxa));
+        registrarEvento(TipoEventoConta.SAQUE, saldoAnterior);
     }
 
     @Override
-    public BigDecimal debitarParaTransferencia(BigDecimal valor) {
+    public Money debitarParaTransferencia(Money valor) {
         validarValorDebitoPositivo(valor, "transferência");
 
-        BigDecimal valorComTaxa = valor.add(valor.multiply(this.getTaxa()));
+        Money valorComTaxa = aplicarTaxa(valor);
         validarSaldoComLimiteSuficiente(valorComTaxa, this.getLimite());
 
-        this.setSaldo(this.getSaldo().subtract(valorComTaxa));
+        Money saldoAnterior = this.getSaldo();
+        this.setSaldo(saldoAnterior.subtrair(valorComTaxa));
+        registrarEvento(TipoEventoConta.DEBITO_TRANSFERENCIA, saldoAnterior);
         return valorComTaxa;
     }
 
@@ -57,7 +79,7 @@ public class ContaCorrente extends Conta {
      * a lógica de validação com limite, específica da Conta Corrente.
      */
     @Override
-    public void debitarPagamento(BigDecimal valorTotal) {
+    public void debitarPagamento(Money valorTotal) {
         // 1. Valida se o valor do débito é positivo
         validarValorDebitoPositivo(valorTotal, "pagamento");
 
@@ -65,6 +87,16 @@ public class ContaCorrente extends Conta {
         validarSaldoComLimiteSuficiente(valorTotal, this.getLimite());
 
         // 3. Aplica o débito
-        this.setSaldo(this.getSaldo().subtract(valorTotal));
+        Money saldoAnterior = this.getSaldo();
+        this.setSaldo(saldoAnterior.subtrair(valorTotal));
+        registrarEvento(TipoEventoConta.DEBITO_PAGAMENTO, saldoAnterior);
+    }
+
+    // Valor + valor × taxa, arredondado para centavos (Money.ARREDONDAMENTO).
+    private Money aplicarTaxa(Money valor) {
+        if (this.planoTaxa == null) {
+            this.planoTaxa = PlanoTarifario.percentual(this.taxa);
+        }
+        return this.planoTaxa.calcularCustoTotal(valor);
     }
 }
\ No newline at end of file
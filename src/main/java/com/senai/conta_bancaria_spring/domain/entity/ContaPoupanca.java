@@ -1,5 +1,7 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
+import com.senai.conta_bancaria_spring.domain.enums.TipoEventoConta;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
@@ -21,22 +23,30 @@ public class ContaPoupanca extends Conta {
     private BigDecimal rendimento;
 
     @Override
-    public void sacar(BigDecimal valor) {
-        validarValorDebitoPositivo(valor, "saque");
-        validarSaldoSuficiente(valor);
-
-        this.setSaldo(this.getSaldo().subtract(valor));
+    public void sacar(Money valor) {
+        debitar(valor, TipoEventoConta.SAQUE);
     }
 
     @Override
-    public BigDecimal debitarParaTransferencia(BigDecimal valor) {
-        this.sacar(valor);
+    public Money debitarParaTransferencia(Money valor) {
+        debitar(valor, TipoEventoConta.DEBITO_TRANSFERENCIA);
         return valor;
     }
 
     public void aplicarRendimento() {
-        BigDecimal valorRendimento = this.getSaldo().multiply(this.rendimento);
-        this.setSaldo(this.getSaldo().add(valorRendimento));
+        Money saldoAnterior = this.getSaldo();
+        Money valorRendimento = saldoAnterior.multiplicar(this.rendimento, Money.ARREDONDAMENTO);
+        this.setSaldo(saldoAnterior.somar(valorRendimento));
+        registrarEvento(TipoEventoConta.RENDIMENTO, saldoAnterior);
+    }
+
+    private void debitar(Money valor, TipoEventoConta tipoEvento) {
+        validarValorDebitoPositivo(valor, "saque");
+        validarSaldoSuficiente(valor);
+
+        Money saldoAnterior = this.getSaldo();
+        this.setSaldo(saldoAnterior.subtrair(valor));
+        registrarEvento(tipoEvento, saldoAnterior);
     }
 
 
@@ -0,0 +1,55 @@
+package com.senai.conta_bancaria_spring.domain.entity;
+
+import com.senai.conta_bancaria_spring.domain.enums.TipoEventoConta;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.IdUuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento imutável de alteração de saldo de uma conta (ledger de eventos).
+ * Cada mutação da Conta gera um evento com a variação do saldo e uma sequência crescente por conta;
+ * o saldo é reconstruído a partir do último snapshot somando os eventos com sequência maior que a dele.
+ * A chave única (conta_id, sequencia) impede que dois eventos ocupem a mesma posição do histórico.
+ */
+@Entity
+@Immutable
+@Table(name = "eventos_conta",
+        uniqueConstraints = @UniqueConstraint(name = "uk_evento_conta_sequencia", columnNames = {"conta_id", "sequencia"})
+)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoConta {
+
+    @Id
+    @IdUuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conta_id", nullable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_evento_conta"))
+    private Conta conta;
+
+    @Column(nullable = false, updatable = false)
+    private Long sequencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TipoEventoConta tipo;
+
+    // Variação do saldo: positiva para créditos, negativa para débitos (já com taxas).
+    @Column(nullable = false, updatable = false)
+    private Money valor;
+
+    @Column(name = "data_hora", nullable = false, updatable = false)
+    private LocalDateTime dataHora;
+}
@@ -2,13 +2,17 @@ package com.senai.conta_bancaria_spring.domain.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.senai.conta_bancaria_spring.domain.enums.StatusPagamento;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.IdUuidV7;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
 
 @Entity
 @Table(name = "pagamentos")
@@ -19,8 +23,10 @@ import java.util.Set;
 @Builder
 public class Pagamento {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id; // [cite: 7]
+    @IdUuidV7 // UUID v7 (ordenado pelo tempo) gravado em 16 bytes, como em Transacao
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id; // [cite: 7]
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conta_id", nullable = false, foreignKey = @ForeignKey(name = "fk_pagamento_conta"))
@@ -31,7 +37,7 @@ public class Pagamento {
     private String boleto; // [cite: 9]
 
     @Column(nullable = false, updatable = false)
-    private BigDecimal valorPago; // [cite: 10]
+    private Money valorPago; // [cite: 10]
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime dataPagamento; //
@@ -0,0 +1,46 @@
+package com.senai.conta_bancaria_spring.domain.entity;
+
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fotografia do saldo de uma conta em um ponto do tempo.
+ * O saldo aqui já inclui todas as transações com dataHora <= a dataHora do snapshot,
+ * então consultas históricas só precisam somar as transações posteriores a ele.
+ * Com o ledger de eventos ligado, guarda também a sequência do último evento já incluído no saldo.
+ */
+@Entity
+@Table(name = "saldos_snapshot",
+        indexes = {
+                @Index(name = "idx_snapshot_conta_data", columnList = "conta_id, data_hora"),
+                @Index(name = "idx_snapshot_conta_sequencia", columnList = "conta_id, sequencia_evento")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaldoSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conta_id", nullable = false, foreignKey = @ForeignKey(name = "fk_snapshot_conta"))
+    private Conta conta;
+
+    @Column(nullable = false, updatable = false)
+    private Money saldo;
+
+    // Mesma dataHora da transação que disparou o snapshot.
+    @Column(name = "data_hora", nullable = false, updatable = false)
+    private LocalDateTime dataHora;
+
+    // Sequência do último EventoConta contido no saldo (nula se o ledger de eventos estava desligado).
+    @Column(name = "sequencia_evento", updatable = false)
+    private Long sequenciaEvento;
+}
@@ -1,5 +1,6 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -26,5 +27,5 @@ public class Taxa {
 
     @Builder.Default
     @Column(nullable = false)
-    private BigDecimal valorFixo = BigDecimal.ZERO; // Valor fixo adicional [cite: 18]
+    private Money valorFixo = Money.ZERO; // Valor fixo adicional [cite: 18]
 }
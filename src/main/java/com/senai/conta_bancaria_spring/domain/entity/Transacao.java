@@ -1,22 +1,31 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
 import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.IdUuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "transacoes")
+@Table(name = "transacoes",
+        indexes = @Index(name = "idx_transacao_conta_data", columnList = "conta_id, data_hora")
+)
 @Getter
 @Setter
 public class Transacao {
 
+    // UUID v7 em 16 bytes: ordenado pelo tempo, os INSERTs vão sempre para o fim do índice.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @IdUuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime dataHora; // Registra a data e hora exatas da transação.
@@ -26,7 +35,7 @@ public class Transacao {
     private TipoTransacao tipo;
 
     @Column(nullable = false, updatable = false)
-    private BigDecimal valor;
+    private Money valor;
 
     // Relacionamento com a conta principal envolvida na transação.
     // Muitas transações podem estar associadas a uma conta.
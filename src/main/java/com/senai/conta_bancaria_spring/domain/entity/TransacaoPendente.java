@@ -1,14 +1,16 @@
 package com.senai.conta_bancaria_spring.domain.entity;
 
 import com.senai.conta_bancaria_spring.domain.enums.TipoOperacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transacoes_pendentes")
+@Table(name = "transacoes_pendentes",
+        indexes = @Index(name = "idx_pendente_data_criacao", columnList = "data_criacao")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,7 +26,7 @@ public class TransacaoPendente {
     private TipoOperacao tipoOperacao;
 
     @Column(nullable = false)
-    private BigDecimal valor;
+    private Money valor;
 
     @Column(nullable = false)
     private Long contaOrigemNumero;
@@ -0,0 +1,10 @@
+package com.senai.conta_bancaria_spring.domain.enums;
+
+public enum TipoEventoConta {
+    ABERTURA,
+    DEPOSITO,
+    SAQUE,
+    DEBITO_TRANSFERENCIA,
+    DEBITO_PAGAMENTO,
+    RENDIMENTO
+}
@@ -5,5 +5,7 @@ public enum TipoTransacao {
     SAQUE,
     TRANSFERENCIA_ENVIADA,
     TRANSFERENCIA_RECEBIDA,
-    ABERTURA_CONTA
+    ABERTURA_CONTA,
+    PAGAMENTO,
+    RENDIMENTO
 }
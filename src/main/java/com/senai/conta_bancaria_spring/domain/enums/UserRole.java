@@ -1,5 +1,10 @@
 package com.senai.conta_bancaria_spring.domain.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 public enum UserRole {
     CLIENTE("CLIENTE"),
     GERENTE("GERENTE");
@@ -13,4 +18,13 @@ public enum UserRole {
     public String getRole() {
         return role;
     }
+
+    // GERENTE também tem acesso às operações de CLIENTE.
+    public List<GrantedAuthority> getAuthorities() {
+        if (this == GERENTE) {
+            return List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"));
+        } else {
+            return List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"));
+        }
+    }
 }
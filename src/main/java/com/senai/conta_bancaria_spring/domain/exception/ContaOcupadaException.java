@@ -0,0 +1,9 @@
+package com.senai.conta_bancaria_spring.domain.exception;
+
+// Lançada quando uma operação não consegue o lock da conta dentro do tempo limite
+// (ex: conta muito disputada por várias operações simultâneas).
+public class ContaOcupadaException extends RuntimeException {
+    public ContaOcupadaException(String message) {
+        super(message);
+    }
+}
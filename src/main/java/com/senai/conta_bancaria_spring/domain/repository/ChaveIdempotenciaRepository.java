@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.entity.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+    // Remove as respostas vencidas em um único DELETE (usa o índice de expira_em).
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.expiraEm < :agora")
+    int excluirExpiradas(@Param("agora") LocalDateTime agora);
+}
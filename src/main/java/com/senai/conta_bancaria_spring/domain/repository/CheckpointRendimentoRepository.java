@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.entity.CheckpointRendimento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CheckpointRendimentoRepository extends JpaRepository<CheckpointRendimento, String> {
+    List<CheckpointRendimento> findByDataReferenciaOrderByFaixa(LocalDate dataReferencia);
+
+    // Meses com alguma faixa interrompida (execução que caiu antes de terminar).
+    @Query("SELECT DISTINCT c.dataReferencia FROM CheckpointRendimento c WHERE c.concluida = false ORDER BY c.dataReferencia")
+    List<LocalDate> buscarReferenciasIncompletas();
+}
@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.enums.UserRole;
+
+// Projeção enxuta usada na autenticação: uma linha por conta do cliente (numeroConta nulo se não houver contas).
+public interface ClienteAutenticadoProjecao {
+    String getId();
+
+    Long getCpf();
+
+    UserRole getRole();
+
+    Boolean getAtivo();
+
+    Long getNumeroConta();
+}
@@ -2,6 +2,8 @@ package com.senai.conta_bancaria_spring.domain.repository;
 
 import com.senai.conta_bancaria_spring.domain.entity.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +12,12 @@ public interface ClienteRepository extends JpaRepository<Cliente, String> {
     Optional<Cliente> findByCpf(Long cpf);
     // Query Method para buscar todos os clientes onde o campo 'ativo' é true.
     List<Cliente> findAllByAtivoTrue();
+
+    // Dados mínimos para montar o principal autenticado, em uma única consulta (sem carregar entidades).
+    @Query("""
+            SELECT c.id AS id, c.cpf AS cpf, c.role AS role, c.ativo AS ativo, co.numero AS numeroConta
+            FROM Cliente c LEFT JOIN c.contas co
+            WHERE c.cpf = :cpf
+            """)
+    List<ClienteAutenticadoProjecao> buscarDadosAutenticacaoPorCpf(@Param("cpf") Long cpf);
 }
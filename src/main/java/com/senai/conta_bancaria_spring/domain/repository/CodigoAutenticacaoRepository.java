@@ -1,11 +1,36 @@
 package com.senai.conta_bancaria_spring.domain.repository;
 
+import com.senai.conta_bancaria_spring.application.dto.iot.CodigoPendenteDTO;
 import com.senai.conta_bancaria_spring.domain.entity.CodigoAutenticacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface CodigoAutenticacaoRepository extends JpaRepository<CodigoAutenticacao, String> {
-    // Busca o último código aberto para o cliente
-    Optional<CodigoAutenticacao> findFirstByClienteIdAndValidadoFalseOrderByExpiraEmDesc(String clienteId);
+    // Códigos ainda abertos, para reconstruir o índice em memória na inicialização
+    @Query("""
+            SELECT new com.senai.conta_bancaria_spring.application.dto.iot.CodigoPendenteDTO(
+                c.cliente.id, c.id, c.codigo, c.expiraEm)
+            FROM CodigoAutenticacao c
+            WHERE c.validado = false AND c.expiraEm > :desde
+            """)
+    List<CodigoPendenteDTO> buscarPendentesDesde(@Param("desde") LocalDateTime desde);
+
+    // CPF do dono do código, sem carregar a entidade Cliente (e as contas EAGER dela) no contexto de persistência
+    @Query("SELECT c.cliente.cpf FROM CodigoAutenticacao c WHERE c.id = :id")
+    Optional<Long> buscarCpfDoCliente(@Param("id") String id);
+
+    // Remove em um único DELETE os códigos encerrados (validados ou expirados) que nenhuma pendência referencia
+    @Modifying
+    @Query("""
+            DELETE FROM CodigoAutenticacao c
+            WHERE (c.validado = true OR c.expiraEm < :limite)
+              AND NOT EXISTS (SELECT 1 FROM TransacaoPendente p WHERE p.codigoAutenticacao = c)
+            """)
+    int excluirEncerrados(@Param("limite") LocalDateTime limite);
 }
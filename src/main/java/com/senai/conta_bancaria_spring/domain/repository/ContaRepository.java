@@ -2,9 +2,27 @@ package com.senai.conta_bancaria_spring.domain.repository;
 
 import com.senai.conta_bancaria_spring.domain.entity.Conta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ContaRepository extends JpaRepository<Conta, String> {
     Optional<Conta> findByNumero(Long numero);
+    // Carrega várias contas em uma única consulta (usado no processamento em lote).
+    List<Conta> findAllByNumeroIn(Collection<Long> numeros);
+
+    // Contas cujo ledger de eventos não cobre o saldo atual: depois do último snapshot com sequência, faltam
+    // eventos (a sequência andou com o ledger desligado) ou a conta nunca teve evento nem snapshot com sequência.
+    @Query(value = """
+            SELECT c.id FROM contas c
+            LEFT JOIN (SELECT s.conta_id, MAX(s.sequencia_evento) AS sequencia FROM saldos_snapshot s
+                       WHERE s.sequencia_evento IS NOT NULL GROUP BY s.conta_id) base ON base.conta_id = c.id
+            WHERE (c.ultima_sequencia_evento IS NULL AND base.sequencia IS NULL)
+               OR COALESCE(c.ultima_sequencia_evento, 0) - COALESCE(base.sequencia, 0) <>
+                  (SELECT COUNT(*) FROM eventos_conta e
+                   WHERE e.conta_id = c.id AND e.sequencia > COALESCE(base.sequencia, 0))
+            """, nativeQuery = true)
+    List<String> buscarIdsSemBaseNoLedger();
 }
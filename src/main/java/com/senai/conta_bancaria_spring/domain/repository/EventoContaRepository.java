@@ -0,0 +1,17 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.entity.EventoConta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface EventoContaRepository extends JpaRepository<EventoConta, UUID> {
+    // Soma (em centavos) dos eventos posteriores a uma sequência (a do snapshot). Usa a chave única (conta_id, sequencia).
+    @Query(value = """
+            SELECT COALESCE(SUM(e.valor), 0) FROM eventos_conta e
+            WHERE e.conta_id = :contaId AND e.sequencia > :desde
+            """, nativeQuery = true)
+    long somarCentavosApos(@Param("contaId") String contaId, @Param("desde") long desde);
+}
@@ -0,0 +1,15 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.entity.SaldoSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SaldoSnapshotRepository extends JpaRepository<SaldoSnapshot, String> {
+    // Snapshot mais recente da conta que não ultrapassa o instante consultado.
+    Optional<SaldoSnapshot> findFirstByContaIdAndDataHoraLessThanEqualOrderByDataHoraDesc(String contaId, LocalDateTime dataHora);
+
+    // Snapshot mais recente gravado com o ledger de eventos ligado (ponto de partida da reconstrução do saldo).
+    Optional<SaldoSnapshot> findFirstByContaIdAndSequenciaEventoIsNotNullOrderBySequenciaEventoDesc(String contaId);
+}
@@ -0,0 +1,18 @@
+package com.senai.conta_bancaria_spring.domain.repository;
+
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Projeção de uma linha de transacoes para o arquivamento mensal (sem carregar a entidade nem a conta).
+public record TransacaoArquivavel(
+        String contaId,
+        UUID id,
+        LocalDateTime dataHora,
+        TipoTransacao tipo,
+        Money valor,
+        Long contaDestinoNumero
+) {
+}
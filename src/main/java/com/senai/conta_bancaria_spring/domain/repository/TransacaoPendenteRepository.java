@@ -2,12 +2,26 @@ package com.senai.conta_bancaria_spring.domain.repository;
 
 import com.senai.conta_bancaria_spring.domain.entity.CodigoAutenticacao;
 import com.senai.conta_bancaria_spring.domain.entity.TransacaoPendente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransacaoPendenteRepository extends JpaRepository<TransacaoPendente, String> {
     Optional<TransacaoPendente> findByCodigoAutenticacao(CodigoAutenticacao codigoAutenticacao);
-    void deleteByDataCriacaoBefore(LocalDateTime dataLimite);
+
+    // Próximo bloco de pendências expiradas (percorre o índice de data_criacao, sem carregar entidades)
+    @Query("SELECT p.id FROM TransacaoPendente p WHERE p.dataCriacao < :limite ORDER BY p.dataCriacao")
+    List<String> buscarIdsExpirados(@Param("limite") LocalDateTime limite, Limit tamanho);
+
+    // DELETE em lote; retorna a quantidade de linhas apagadas
+    @Modifying
+    @Query("DELETE FROM TransacaoPendente p WHERE p.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<String> ids);
 }
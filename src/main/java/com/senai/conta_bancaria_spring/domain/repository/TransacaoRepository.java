@@ -1,12 +1,127 @@
 package com.senai.conta_bancaria_spring.domain.repository;
 
+import com.senai.conta_bancaria_spring.application.dto.TransacaoResponseDTO;
 import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TransacaoRepository extends JpaRepository <Transacao, String> {
-    // Query Method para buscar todas as transações de uma conta específica,
-    // ordenadas pela data e hora em ordem decrescente (as mais recentes primeiro).
-    List<Transacao> findByContaNumeroOrderByDataHoraDesc(Long numeroConta);
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface TransacaoRepository extends JpaRepository <Transacao, UUID> {
+    // Primeira página do extrato (keyset). Usa o índice (conta_id, data_hora).
+    // inicioQuente: linhas mais antigas já estão nos arquivos mensais (ArquivoTransacoes) e são ignoradas aqui.
+    @Query("""
+            SELECT t FROM Transacao t
+            WHERE t.conta.id = :contaId AND t.dataHora >= :inicioQuente
+            ORDER BY t.dataHora DESC, t.id DESC
+            """)
+    List<Transacao> buscarPrimeiraPaginaExtrato(@Param("contaId") String contaId,
+                                                @Param("inicioQuente") LocalDateTime inicioQuente,
+                                                Limit limite);
+
+    // Páginas seguintes: tudo que vem "depois" do cursor (dataHora, id) na ordem decrescente.
+    @Query("""
+            SELECT t FROM Transacao t
+            WHERE t.conta.id = :contaId AND t.dataHora >= :inicioQuente
+              AND (t.dataHora < :dataHora OR (t.dataHora = :dataHora AND t.id < :id))
+            ORDER BY t.dataHora DESC, t.id DESC
+            """)
+    List<Transacao> buscarPaginaExtratoApos(@Param("contaId") String contaId,
+                                            @Param("inicioQuente") LocalDateTime inicioQuente,
+                                            @Param("dataHora") LocalDateTime dataHora,
+                                            @Param("id") UUID id,
+                                            Limit limite);
+
+    // Extrato completo como cursor do banco, projetado direto em DTO (não ocupa o contexto de persistência).
+    // Deve ser consumido dentro de uma transação e fechado ao final.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.senai.conta_bancaria_spring.application.dto.TransacaoResponseDTO(
+                t.dataHora, t.tipo, t.valor, t.contaDestinoNumero)
+            FROM Transacao t
+            WHERE t.conta.id = :contaId AND t.dataHora >= :inicioQuente
+            ORDER BY t.dataHora DESC, t.id DESC
+            """)
+    Stream<TransacaoResponseDTO> streamExtratoPorContaId(@Param("contaId") String contaId,
+                                                         @Param("inicioQuente") LocalDateTime inicioQuente);
+
+    // Transações da conta em um intervalo [inicio, fim), da mais antiga para a mais recente (exportação do extrato).
+    // Mesmo cursor somente leitura do stream acima: uma linha por vez, nada acumulado em memória.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.senai.conta_bancaria_spring.application.dto.TransacaoResponseDTO(
+                t.dataHora, t.tipo, t.valor, t.contaDestinoNumero)
+            FROM Transacao t
+            WHERE t.conta.id = :contaId AND t.dataHora >= :inicio AND t.dataHora < :fim
+            ORDER BY t.dataHora, t.id
+            """)
+    Stream<TransacaoResponseDTO> streamExtratoNoPeriodo(@Param("contaId") String contaId,
+                                                        @Param("inicio") LocalDateTime inicio,
+                                                        @Param("fim") LocalDateTime fim);
+
+    // Soma (em centavos) dos movimentos entre um snapshot (exclusive) e o instante consultado (inclusive).
+    // SQL nativo: a coluna valor guarda centavos (MoneyConverter), e SUM em JPQL tentaria convertê-la em Money.
+    @Query(value = """
+            SELECT COALESCE(SUM(t.valor), 0) FROM transacoes t
+            WHERE t.conta_id = :contaId AND t.data_hora >= :inicioQuente AND t.data_hora > :desde AND t.data_hora <= :ate
+            """, nativeQuery = true)
+    long somarCentavosNoPeriodo(@Param("contaId") String contaId,
+                                @Param("inicioQuente") LocalDateTime inicioQuente,
+                                @Param("desde") LocalDateTime desde,
+                                @Param("ate") LocalDateTime ate);
+
+    // Usado quando a conta ainda não tem snapshot anterior ao instante consultado.
+    @Query(value = """
+            SELECT COALESCE(SUM(t.valor), 0) FROM transacoes t
+            WHERE t.conta_id = :contaId AND t.data_hora >= :inicioQuente AND t.data_hora <= :ate
+            """, nativeQuery = true)
+    long somarCentavosAte(@Param("contaId") String contaId,
+                          @Param("inicioQuente") LocalDateTime inicioQuente,
+                          @Param("ate") LocalDateTime ate);
+
+    // Data da transação mais antiga ainda na tabela (primeiro mês a arquivar); nulo se a tabela estiver vazia.
+    @Query("SELECT MIN(t.dataHora) FROM Transacao t")
+    LocalDateTime buscarDataHoraMaisAntiga();
+
+    // Linhas de um mês, agrupadas por conta e na ordem do extrato, para o arquivo mensal.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.senai.conta_bancaria_spring.domain.repository.TransacaoArquivavel(
+                t.conta.id, t.id, t.dataHora, t.tipo, t.valor, t.contaDestinoNumero)
+            FROM Transacao t
+            WHERE t.dataHora >= :inicio AND t.dataHora < :fim
+            ORDER BY t.conta.id, t.dataHora DESC, t.id DESC
+            """)
+    Stream<TransacaoArquivavel> streamParaArquivamento(@Param("inicio") LocalDateTime inicio,
+                                                       @Param("fim") LocalDateTime fim);
+
+    // Próximo bloco de linhas já arquivadas (anteriores a inicioQuente), para apagar em transações curtas.
+    @Query("SELECT t.id FROM Transacao t WHERE t.dataHora < :limite")
+    List<UUID> buscarIdsAnterioresA(@Param("limite") LocalDateTime limite, Limit tamanho);
+
+    // DELETE em lote; retorna a quantidade de linhas apagadas
+    @Modifying
+    @Query("DELETE FROM Transacao t WHERE t.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<UUID> ids);
 }
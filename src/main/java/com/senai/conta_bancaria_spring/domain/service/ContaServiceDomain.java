@@ -1,36 +1,69 @@
 package com.senai.conta_bancaria_spring.domain.service;
 
+import com.senai.conta_bancaria_spring.application.dto.ClienteAutenticadoDTO;
+import com.senai.conta_bancaria_spring.application.dto.ConciliacaoSaldoDTO;
 import com.senai.conta_bancaria_spring.application.dto.ContaCorrenteUpdateRequestDTO;
 import com.senai.conta_bancaria_spring.application.dto.ContaResponseDTO;
+import com.senai.conta_bancaria_spring.application.dto.CursorExtrato;
+import com.senai.conta_bancaria_spring.application.dto.ExtratoPaginaDTO;
+import com.senai.conta_bancaria_spring.application.dto.SaldoResponseDTO;
 import com.senai.conta_bancaria_spring.application.dto.TransacaoResponseDTO;
-import com.senai.conta_bancaria_spring.domain.entity.Cliente;
 import com.senai.conta_bancaria_spring.domain.entity.Conta;
 import com.senai.conta_bancaria_spring.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria_spring.domain.entity.SaldoSnapshot;
 import com.senai.conta_bancaria_spring.domain.entity.Transacao;
 import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
 import com.senai.conta_bancaria_spring.domain.exception.RecursoNaoEncontradoException;
 import com.senai.conta_bancaria_spring.domain.exception.RegraDeNegocioException;
 import com.senai.conta_bancaria_spring.domain.repository.ContaRepository;
+import com.senai.conta_bancaria_spring.domain.repository.SaldoSnapshotRepository;
 import com.senai.conta_bancaria_spring.domain.repository.TransacaoRepository;
+import com.senai.conta_bancaria_spring.infrastructure.concurrency.ContaLockManager;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.ArquivoTransacoes;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Transactional
 @Service
 public class ContaServiceDomain {
+    private static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 200;
+    // Timer de cada operação (tags method e exception: "none" no sucesso, a classe da exceção na falha)
+    private static final String METRICA_OPERACAO = "banco.conta.operacao";
+
     private final ContaRepository contaRepository;
     private final TransacaoRepository transacaoRepository;
+    private final SaldoSnapshotRepository saldoSnapshotRepository;
+    private final ContaLockManager contaLockManager;
+    private final LedgerEventosDomainService ledgerEventos;
+    private final ArquivoTransacoes arquivoTransacoes;
+
+    @Value("${banco.snapshot.intervalo-transacoes}") // A cada quantos movimentos um snapshot de saldo é gravado.
+    private int intervaloSnapshot;
 
-    public ContaServiceDomain(ContaRepository contaRepository, TransacaoRepository transacaoRepository) {
+    public ContaServiceDomain(ContaRepository contaRepository, TransacaoRepository transacaoRepository,
+                              SaldoSnapshotRepository saldoSnapshotRepository, ContaLockManager contaLockManager,
+                              LedgerEventosDomainService ledgerEventos, ArquivoTransacoes arquivoTransacoes) {
         this.contaRepository = contaRepository;
         this.transacaoRepository = transacaoRepository;
+        this.saldoSnapshotRepository = saldoSnapshotRepository;
+        this.contaLockManager = contaLockManager;
+        this.ledgerEventos = ledgerEventos;
+        this.arquivoTransacoes = arquivoTransacoes;
     }
 
     public Conta buscarPorNumero(Long numero) {
@@ -38,74 +71,241 @@ public class ContaServiceDomain {
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Conta não encontrada com o número: " + numero));
     }
 
-    public void depositar(Long numeroConta, BigDecimal valor) {
-        Conta conta = buscarPorNumero(numeroConta);
-        validarProprietarioDaConta(conta);
-        conta.depositar(valor);
-        contaRepository.save(conta);
+    @Timed(METRICA_OPERACAO)
+    public void depositar(Long numeroConta, Money valor) {
+        // A conta só é carregada depois do lock, para enxergar o saldo já gravado pela operação anterior.
+        contaLockManager.executarComLock(() -> {
+            Conta conta = buscarPorNumero(numeroConta);
+            validarProprietarioDaConta(conta);
+            conta.depositar(valor);
+            contaRepository.save(conta);
 
-        registrarTransacao(conta, TipoTransacao.DEPOSITO, valor, null);
+            registrarTransacao(conta, TipoTransacao.DEPOSITO, valor, null);
+        }, numeroConta);
     }
 
-    public void sacar(Long numeroConta, BigDecimal valor) {
-        Conta conta = buscarPorNumero(numeroConta);
-        //O Java chama o método sacar() da classe concreta (ContaCorrente ou ContaPoupanca).
-        validarProprietarioDaConta(conta);
-        conta.sacar(valor);
-        contaRepository.save(conta);
+    @Timed(METRICA_OPERACAO)
+    public void sacar(Long numeroConta, Money valor) {
+        contaLockManager.executarComLock(() -> {
+            Conta conta = buscarPorNumero(numeroConta);
+            //O Java chama o método sacar() da classe concreta (ContaCorrente ou ContaPoupanca).
+            validarProprietarioDaConta(conta);
+            Money saldoAnterior = conta.getSaldo();
+            conta.sacar(valor);
+            contaRepository.save(conta);
 
-        registrarTransacao(conta, TipoTransacao.SAQUE, valor.negate(), null); // Valor negativo para representar saída
+            // Registra o valor efetivamente debitado (com taxa, na Conta Corrente), como já é feito na transferência.
+            // Assim a soma das transações bate com o saldo, o que os snapshots de saldo exigem.
+            Money valorDebitado = saldoAnterior.subtrair(conta.getSaldo());
+            registrarTransacao(conta, TipoTransacao.SAQUE, valorDebitado.negar(), null); // Valor negativo para representar saída
+        }, numeroConta);
     }
 
+    @Timed(METRICA_OPERACAO)
     @Transactional
-    public void transferir(Long numeroContaOrigem, Long numeroContaDestino, BigDecimal valor) {
+    public void transferir(Long numeroContaOrigem, Long numeroContaDestino, Money valor) {
         if (numeroContaOrigem.equals(numeroContaDestino)) {
             throw new RegraDeNegocioException("A conta de origem e destino não podem ser as mesmas.");
         }
 
-        Conta contaOrigem = buscarPorNumero(numeroContaOrigem);
-        validarProprietarioDaConta(contaOrigem);
-        Conta contaDestino = buscarPorNumero(numeroContaDestino);
+        // Os locks das duas contas são adquiridos em ordem fixa pelo ContaLockManager (sem deadlock).
+        contaLockManager.executarComLock(() -> {
+            Conta contaOrigem = buscarPorNumero(numeroContaOrigem);
+            validarProprietarioDaConta(contaOrigem);
+            Conta contaDestino = buscarPorNumero(numeroContaDestino);
 
-        // 1. Delega a lógica de débito para a própria entidade (Polimorfismo!).
-        BigDecimal valorDebitado = contaOrigem.debitarParaTransferencia(valor);
+            // 1. Delega a lógica de débito para a própria entidade (Polimorfismo!).
+            Money valorDebitado = contaOrigem.debitarParaTransferencia(valor);
 
-        // 2. Reutilizamos o método depositar para creditar na conta de destino.
-        contaDestino.depositar(valor);
+            // 2. Reutilizamos o método depositar para creditar na conta de destino.
+            contaDestino.depositar(valor);
 
-        // 3. Salvamos o estado atualizado das duas contas.
-        contaRepository.save(contaOrigem);
-        contaRepository.save(contaDestino);
+            // 3. Salvamos o estado atualizado das duas contas.
+            contaRepository.save(contaOrigem);
+            contaRepository.save(contaDestino);
 
-        registrarTransacao(contaOrigem, TipoTransacao.TRANSFERENCIA_ENVIADA, valorDebitado.negate(), numeroContaDestino);
-        registrarTransacao(contaDestino, TipoTransacao.TRANSFERENCIA_RECEBIDA, valor, numeroContaOrigem);
+            registrarTransacao(contaOrigem, TipoTransacao.TRANSFERENCIA_ENVIADA, valorDebitado.negar(), numeroContaDestino);
+            registrarTransacao(contaDestino, TipoTransacao.TRANSFERENCIA_RECEBIDA, valor, numeroContaOrigem);
+        }, numeroContaOrigem, numeroContaDestino);
     }
 
-    // MÉTODO PARA BUSCAR O EXTRATO
-    public List<TransacaoResponseDTO> buscarExtratoPorNumeroConta(Long numeroConta) {
+    // MÉTODO PARA BUSCAR O EXTRATO (paginado por cursor, das mais recentes para as mais antigas)
+    // As transações dos meses já arquivados vêm dos arquivos mensais, depois das que ainda estão na tabela.
+    @Timed(METRICA_OPERACAO)
+    public ExtratoPaginaDTO buscarExtratoPorNumeroConta(Long numeroConta, String cursor, Integer tamanho) {
         // Primeiro, verifica se a conta existe. Se não, o método buscarPorNumero já lança a exceção.
         Conta conta = buscarPorNumero(numeroConta);
         validarProprietarioDaConta(conta);
 
-        // Busca a lista de entidades Transacao do banco de dados, já ordenadas.
-        List<Transacao> transacoes = transacaoRepository.findByContaNumeroOrderByDataHoraDesc(numeroConta);
+        int tamanhoPagina = limitarTamanhoPagina(tamanho);
+        // Busca um registro a mais só para saber se existe próxima página.
+        Limit limite = Limit.of(tamanhoPagina + 1);
+        ArquivoTransacoes.Catalogo arquivo = arquivoTransacoes.catalogo();
+        CursorExtrato posicao = cursor == null || cursor.isBlank() ? null : CursorExtrato.decodificar(cursor);
+
+        // 1. Camada quente (tabela): só linhas a partir do início do primeiro mês não arquivado
+        List<Transacao> transacoes;
+        if (posicao == null) {
+            transacoes = transacaoRepository.buscarPrimeiraPaginaExtrato(conta.getId(), arquivo.inicioQuente(), limite);
+        } else if (!posicao.dataHora().isBefore(arquivo.inicioQuente())) {
+            transacoes = transacaoRepository.buscarPaginaExtratoApos(conta.getId(), arquivo.inicioQuente(),
+                    posicao.dataHora(), posicao.id(), limite);
+        } else {
+            transacoes = List.of(); // O cursor já está nos meses arquivados
+        }
+
+        // 2. Camada fria: completa a página com os meses arquivados (todos mais antigos que a tabela)
+        int faltam = tamanhoPagina + 1 - transacoes.size();
+        if (faltam > 0 && !arquivo.meses().isEmpty()) {
+            CursorExtrato posicaoNoArquivo = posicao != null && posicao.dataHora().isBefore(arquivo.inicioQuente()) ? posicao : null;
+            List<Transacao> completa = new ArrayList<>(transacoes);
+            completa.addAll(arquivoTransacoes.buscarPagina(arquivo, conta.getId(),
+                    posicaoNoArquivo == null ? null : posicaoNoArquivo.dataHora(),
+                    posicaoNoArquivo == null ? null : posicaoNoArquivo.id(),
+                    faltam));
+            transacoes = completa;
+        }
+
+        String proximoCursor = null;
+        if (transacoes.size() > tamanhoPagina) {
+            transacoes = transacoes.subList(0, tamanhoPagina);
+            proximoCursor = CursorExtrato.fromEntity(transacoes.getLast()).codificar();
+        }
 
-        // Converte a lista de entidades para uma lista de DTOs e a retorna.
-        return transacoes.stream()
+        List<TransacaoResponseDTO> pagina = transacoes.stream()
                 .map(TransacaoResponseDTO::fromEntity)
                 .collect(Collectors.toList());
+        return new ExtratoPaginaDTO(pagina, proximoCursor);
+    }
+
+    /**
+     * Valida o acesso ao extrato e retorna o ID interno da conta.
+     * Usado antes de iniciar o streaming, que roda fora da thread da requisição.
+     */
+    public String validarAcessoAoExtrato(Long numeroConta) {
+        Conta conta = buscarPorNumero(numeroConta);
+        validarProprietarioDaConta(conta);
+        return conta.getId();
+    }
+
+    /**
+     * Percorre o extrato inteiro com um cursor do banco, entregando uma linha por vez ao consumidor.
+     * Nenhuma lista é montada em memória.
+     */
+    @Timed(METRICA_OPERACAO)
+    public void transmitirExtrato(String contaId, Consumer<TransacaoResponseDTO> consumidor) {
+        ArquivoTransacoes.Catalogo arquivo = arquivoTransacoes.catalogo();
+        try (Stream<TransacaoResponseDTO> linhas = transacaoRepository.streamExtratoPorContaId(contaId, arquivo.inicioQuente())) {
+            linhas.forEach(consumidor);
+        }
+        // Depois da tabela, os meses arquivados (um bloco descomprimido por mês)
+        arquivoTransacoes.percorrer(arquivo, contaId, transacao -> consumidor.accept(TransacaoResponseDTO.fromEntity(transacao)));
+    }
+
+    /**
+     * Percorre as transações da conta entre as datas informadas (inclusive), da mais antiga para a mais recente:
+     * primeiro os meses arquivados, depois a tabela, com um cursor do banco. Nenhuma lista é montada em memória.
+     */
+    @Timed(METRICA_OPERACAO)
+    public void transmitirExtratoPorPeriodo(String contaId, LocalDate de, LocalDate ate,
+                                            Consumer<TransacaoResponseDTO> consumidor) {
+        LocalDateTime inicio = de.atStartOfDay();
+        LocalDateTime fim = ate.plusDays(1).atStartOfDay();
+        ArquivoTransacoes.Catalogo arquivo = arquivoTransacoes.catalogo();
+
+        // 1. Camada fria: só o trecho do período anterior à tabela
+        LocalDateTime fimNoArquivo = fim.isBefore(arquivo.inicioQuente()) ? fim : arquivo.inicioQuente();
+        arquivoTransacoes.percorrerPeriodo(arquivo, contaId, inicio, fimNoArquivo,
+                transacao -> consumidor.accept(TransacaoResponseDTO.fromEntity(transacao)));
+
+        // 2. Camada quente
+        LocalDateTime inicioNaTabela = inicio.isBefore(arquivo.inicioQuente()) ? arquivo.inicioQuente() : inicio;
+        if (inicioNaTabela.isBefore(fim)) {
+            try (Stream<TransacaoResponseDTO> linhas = transacaoRepository.streamExtratoNoPeriodo(contaId, inicioNaTabela, fim)) {
+                linhas.forEach(consumidor);
+            }
+        }
+    }
+
+    private int limitarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    /**
+     * Calcula o saldo da conta em um instante passado: parte do snapshot mais próximo
+     * (anterior ao instante) e soma apenas as transações entre ele e o instante consultado.
+     */
+    @Timed(METRICA_OPERACAO)
+    public SaldoResponseDTO consultarSaldoEm(Long numeroConta, LocalDateTime em) {
+        Conta conta = buscarPorNumero(numeroConta);
+        validarProprietarioDaConta(conta);
+
+        if (em == null) {
+            return SaldoResponseDTO.of(numeroConta, conta.getSaldo(), LocalDateTime.now());
+        }
+
+        Money saldo = saldoSnapshotRepository
+                .findFirstByContaIdAndDataHoraLessThanEqualOrderByDataHoraDesc(conta.getId(), em)
+                .map(snapshot -> snapshot.getSaldo().somar(Money.deCentavos(
+                        somarCentavos(conta.getId(), snapshot.getDataHora(), em))))
+                .orElseGet(() -> Money.deCentavos(somarCentavos(conta.getId(), null, em)));
+
+        return SaldoResponseDTO.of(numeroConta, saldo, em);
+    }
+
+    // Soma das transações com desde < dataHora <= ate (desde nulo: desde o início), na tabela e nos meses arquivados.
+    private long somarCentavos(String contaId, LocalDateTime desde, LocalDateTime ate) {
+        ArquivoTransacoes.Catalogo arquivo = arquivoTransacoes.catalogo();
+        long quente = desde == null
+                ? transacaoRepository.somarCentavosAte(contaId, arquivo.inicioQuente(), ate)
+                : transacaoRepository.somarCentavosNoPeriodo(contaId, arquivo.inicioQuente(), desde, ate);
+        return quente + arquivoTransacoes.somarCentavos(arquivo, contaId, desde, ate);
     }
 
-    //MÉTODO AUXILIAR PARA EVITAR REPETIÇÃO DE CÓDIGO
-    private void registrarTransacao(Conta conta, TipoTransacao tipo, BigDecimal valor, Long contaDestinoNumero) {
+    /**
+     * Compara o saldo gravado na conta com o saldo reconstruído pelo ledger de eventos (GERENTE).
+     */
+    @Timed(METRICA_OPERACAO)
+    public ConciliacaoSaldoDTO conciliarSaldo(Long numeroConta) {
+        if (!ledgerEventos.habilitado()) {
+            throw new RegraDeNegocioException("O ledger de eventos está desligado; não há eventos para conciliar.");
+        }
+        Conta conta = buscarPorNumero(numeroConta);
+        return ConciliacaoSaldoDTO.of(conta, ledgerEventos.reconstruirSaldo(conta));
+    }
+
+    /**
+     * Registra uma transação no histórico da conta e, se a conta atingiu um ponto de checkpoint,
+     * grava também um snapshot do saldo atual.
+     * Deve ser chamado depois que o saldo da conta já foi atualizado.
+     * Os eventos de saldo anotados pela conta até aqui também são gravados (ledger de eventos).
+     */
+    @Timed(METRICA_OPERACAO)
+    public void registrarTransacao(Conta conta, TipoTransacao tipo, Money valor, Long contaDestinoNumero) {
+        ledgerEventos.gravarEventosPendentes(conta);
+
         Transacao transacao = new Transacao();
         transacao.setConta(conta);
         transacao.setTipo(tipo);
         transacao.setValor(valor);
         transacao.setContaDestinoNumero(contaDestinoNumero);
         transacaoRepository.save(transacao);
+
+        if (conta.registrarMovimentoParaSnapshot(intervaloSnapshot, transacao.getDataHora().toLocalDate())) {
+            SaldoSnapshot snapshot = SaldoSnapshot.builder()
+                    .conta(conta)
+                    .saldo(conta.getSaldo())
+                    .dataHora(transacao.getDataHora())
+                    .sequenciaEvento(ledgerEventos.habilitado() ? conta.getUltimaSequenciaEvento() : null)
+                    .build();
+            saldoSnapshotRepository.save(snapshot);
+        }
     }
 
+    @Timed(METRICA_OPERACAO)
     public ContaResponseDTO atualizarParametrosContaCorrente(Long numeroConta, ContaCorrenteUpdateRequestDTO dto) {
         // 1. Busca a conta
         Conta conta = buscarPorNumero(numeroConta);
@@ -130,11 +330,10 @@ public class ContaServiceDomain {
             throw new AccessDeniedException("Usuário não autenticado.");
         }
 
-        Cliente clienteAutenticado = (Cliente) authentication.getPrincipal();
-        String idClienteAutenticado = clienteAutenticado.getId();
-        String idDonoDaConta = conta.getCliente().getId();
+        // Verificação em memória: o principal já carrega os números das contas do cliente.
+        ClienteAutenticadoDTO clienteAutenticado = (ClienteAutenticadoDTO) authentication.getPrincipal();
 
-        if (!idClienteAutenticado.equals(idDonoDaConta)) {
+        if (!clienteAutenticado.possuiConta(conta.getNumero())) {
             throw new AccessDeniedException("Acesso negado: Você não é o proprietário desta conta.");
         }
     }
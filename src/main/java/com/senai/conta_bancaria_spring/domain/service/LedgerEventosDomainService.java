@@ -0,0 +1,112 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+import com.senai.conta_bancaria_spring.domain.entity.Conta;
+import com.senai.conta_bancaria_spring.domain.entity.EventoConta;
+import com.senai.conta_bancaria_spring.domain.entity.SaldoSnapshot;
+import com.senai.conta_bancaria_spring.domain.repository.ContaRepository;
+import com.senai.conta_bancaria_spring.domain.repository.EventoContaRepository;
+import com.senai.conta_bancaria_spring.domain.repository.SaldoSnapshotRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ledger de eventos das contas: transforma em eventos as variações que a Conta anotou a cada alteração de saldo
+ * e reconstrói o saldo a partir do último snapshot mais os eventos posteriores a ele.
+ * <p>
+ * Com o ledger desligado, as operações só avançam a sequência da conta; nenhum evento é criado nem gravado.
+ * Ao ligar o ledger em um banco já existente, cada conta cujo ledger não cobre o saldo atual recebe um
+ * snapshot de base (saldo atual, sequência atual), e a reconstrução passa a partir dele.
+ */
+@Service
+@Transactional
+@Slf4j
+public class LedgerEventosDomainService {
+    private static final int TAMANHO_BLOCO_BASE = 500;
+
+    private final EventoContaRepository eventoContaRepository;
+    private final SaldoSnapshotRepository saldoSnapshotRepository;
+    private final ContaRepository contaRepository;
+
+    @Value("${banco.ledger.eventos.habilitado}")
+    private boolean habilitado;
+
+    public LedgerEventosDomainService(EventoContaRepository eventoContaRepository,
+                                      SaldoSnapshotRepository saldoSnapshotRepository,
+                                      ContaRepository contaRepository) {
+        this.eventoContaRepository = eventoContaRepository;
+        this.saldoSnapshotRepository = saldoSnapshotRepository;
+        this.contaRepository = contaRepository;
+    }
+
+    /**
+     * Grava o snapshot de base das contas que o ledger não cobre (criadas ou movimentadas com ele desligado).
+     * Sem isso, a conciliação somaria só os eventos gravados depois de ligá-lo e acusaria diferença em todas elas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrarBasesAusentes() {
+        if (!habilitado) {
+            return;
+        }
+        List<String> ids = contaRepository.buscarIdsSemBaseNoLedger();
+        LocalDateTime agora = LocalDateTime.now();
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_BLOCO_BASE) {
+            List<String> bloco = ids.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_BASE, ids.size()));
+            saldoSnapshotRepository.saveAll(contaRepository.findAllById(bloco).stream()
+                    .map(conta -> SaldoSnapshot.builder()
+                            .conta(conta)
+                            .saldo(conta.getSaldo())
+                            .dataHora(agora)
+                            .sequenciaEvento(conta.getUltimaSequenciaEvento() == null ? 0L : conta.getUltimaSequenciaEvento())
+                            .build())
+                    .toList());
+        }
+        if (!ids.isEmpty()) {
+            log.info(">>> LEDGER: snapshot de base gravado para {} contas sem histórico completo de eventos.", ids.size());
+        }
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Grava (somente INSERT) um evento para cada variação de saldo pendente da conta, na transação da operação.
+     * Com o ledger desligado, as variações só são descartadas.
+     * Deve ser chamado depois da operação e antes de um snapshot, que referencia a sequência atual.
+     */
+    public void gravarEventosPendentes(Conta conta) {
+        List<Conta.VariacaoSaldo> variacoes = conta.retirarVariacoesPendentes();
+        if (!habilitado || variacoes.isEmpty()) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        eventoContaRepository.saveAll(variacoes.stream()
+                .map(variacao -> EventoConta.builder()
+                        .conta(conta)
+                        .sequencia(variacao.sequencia())
+                        .tipo(variacao.tipo())
+                        .valor(variacao.valor())
+                        .dataHora(agora)
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Saldo da conta calculado só pelo ledger: saldo do snapshot mais recente com sequência
+     * somado aos eventos com sequência maior que a dele (ou todos os eventos, se não houver snapshot).
+     */
+    public Money reconstruirSaldo(Conta conta) {
+        return saldoSnapshotRepository
+                .findFirstByContaIdAndSequenciaEventoIsNotNullOrderBySequenciaEventoDesc(conta.getId())
+                .map(snapshot -> snapshot.getSaldo().somar(Money.deCentavos(
+                        eventoContaRepository.somarCentavosApos(conta.getId(), snapshot.getSequenciaEvento()))))
+                .orElseGet(() -> Money.deCentavos(eventoContaRepository.somarCentavosApos(conta.getId(), 0L)));
+    }
+}
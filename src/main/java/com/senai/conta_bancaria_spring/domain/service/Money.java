@@ -0,0 +1,192 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+import com.senai.conta_bancaria_spring.domain.exception.ValorInvalidoException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em centavos (long). Imutável; cada operação aloca no máximo o objeto do resultado
+ * (que o JIT costuma eliminar), contra vários BigDecimal/BigInteger por operação no modelo antigo.
+ * <p>
+ * Soma, subtração e multiplicação verificam estouro (ValorInvalidoException). Frações de centavo só aparecem
+ * em multiplicações por taxas/percentuais, que recebem o modo de arredondamento explicitamente
+ * (no banco, {@link #ARREDONDAMENTO}). Na entrada, valores com mais de 2 casas decimais são recusados.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0L);
+    // Arredondamento padrão das taxas e rendimentos: meio para o par (sem viés acumulado)
+    public static final RoundingMode ARREDONDAMENTO = RoundingMode.HALF_EVEN;
+
+    private static final long[] POTENCIAS_DE_10 = new long[19];
+
+    static {
+        POTENCIAS_DE_10[0] = 1L;
+        for (int i = 1; i < POTENCIAS_DE_10.length; i++) {
+            POTENCIAS_DE_10[i] = POTENCIAS_DE_10[i - 1] * 10;
+        }
+    }
+
+    private final long centavos;
+
+    private Money(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Money deCentavos(long centavos) {
+        return centavos == 0L ? ZERO : new Money(centavos);
+    }
+
+    /**
+     * Converte um valor da API (BigDecimal). Aceita no máximo 2 casas decimais significativas.
+     */
+    public static Money de(BigDecimal valor) {
+        if (valor == null) {
+            throw new ValorInvalidoException("O valor é obrigatório.");
+        }
+        try {
+            return deCentavos(valor.movePointRight(2).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ValorInvalidoException("O valor " + valor.toPlainString()
+                    + " deve ter no máximo 2 casas decimais e caber no limite suportado.");
+        }
+    }
+
+    public static Money deReais(long reais) {
+        return deCentavos(multiplicarExato(reais, 100L));
+    }
+
+    public long centavos() {
+        return centavos;
+    }
+
+    public BigDecimal paraBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public Money somar(Money outro) {
+        try {
+            return deCentavos(Math.addExact(centavos, outro.centavos));
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    public Money subtrair(Money outro) {
+        try {
+            return deCentavos(Math.subtractExact(centavos, outro.centavos));
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    public Money negar() {
+        try {
+            return deCentavos(Math.negateExact(centavos));
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    /**
+     * Multiplica por um fator em inteiro escalado (fator = fatorEscalado / 10^escala), arredondando para centavos.
+     * Sem alocação além do resultado; usado pelos cálculos de taxa pré-compilados (PlanoTarifario).
+     */
+    public Money multiplicar(long fatorEscalado, int escala, RoundingMode arredondamento) {
+        if (escala < 0 || escala >= POTENCIAS_DE_10.length) {
+            return multiplicar(BigDecimal.valueOf(fatorEscalado, escala), arredondamento);
+        }
+        try {
+            long produto = Math.multiplyExact(centavos, fatorEscalado);
+            return deCentavos(dividirArredondando(produto, POTENCIAS_DE_10[escala], arredondamento));
+        } catch (ArithmeticException e) {
+            // Produto intermediário fora do long: refaz em BigDecimal (o resultado ainda pode caber)
+            return multiplicar(BigDecimal.valueOf(fatorEscalado, escala), arredondamento);
+        }
+    }
+
+    /**
+     * Multiplica por um fator qualquer (ex: rendimento da poupança), arredondando para centavos.
+     */
+    public Money multiplicar(BigDecimal fator, RoundingMode arredondamento) {
+        try {
+            return deCentavos(BigDecimal.valueOf(centavos).multiply(fator)
+                    .setScale(0, arredondamento).longValueExact());
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    public boolean isZero() {
+        return centavos == 0L;
+    }
+
+    public boolean isPositivo() {
+        return centavos > 0L;
+    }
+
+    public boolean maiorQue(Money outro) {
+        return centavos > outro.centavos;
+    }
+
+    @Override
+    public int compareTo(Money outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money outro && centavos == outro.centavos);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    @Override
+    public String toString() {
+        return paraBigDecimal().toPlainString();
+    }
+
+    // Divisão inteira com o modo de arredondamento do BigDecimal (divisor sempre positivo aqui).
+    static long dividirArredondando(long dividendo, long divisor, RoundingMode arredondamento) {
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto == 0) {
+            return quociente;
+        }
+
+        int sinal = dividendo < 0 ? -1 : 1;
+        long restoAbsoluto = Math.abs(resto);
+        boolean afastarDoZero = switch (arredondamento) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sinal > 0;
+            case FLOOR -> sinal < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                int comparacao = Long.compare(restoAbsoluto, divisor - restoAbsoluto);
+                if (comparacao != 0) {
+                    yield comparacao > 0;
+                }
+                yield arredondamento == RoundingMode.HALF_UP
+                        || (arredondamento == RoundingMode.HALF_EVEN && (quociente & 1) != 0);
+            }
+            case UNNECESSARY -> throw new ArithmeticException("Arredondamento necessário.");
+        };
+        return afastarDoZero ? quociente + sinal : quociente;
+    }
+
+    private static long multiplicarExato(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            throw estouro();
+        }
+    }
+
+    private static ValorInvalidoException estouro() {
+        return new ValorInvalidoException("Valor fora do limite suportado.");
+    }
+}
@@ -0,0 +1,50 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+/**
+ * Formato dos números de conta: (BASE + sequencial) seguido de um dígito verificador (algoritmo de Luhn).
+ * Ex: sequencial 0 -> corpo 10000000 -> número 100000009 (9 dígitos; cresce sem limite prático).
+ * <p>
+ * O dígito pega qualquer erro em um único dígito e a maioria das trocas de dígitos vizinhos, então
+ * o front-end pode recusar um número digitado errado antes de chamar a API.
+ * Contas antigas (6 dígitos, sem verificador) continuam válidas: não passam pelas regras deste formato.
+ */
+public final class NumeroConta {
+
+    public static final long BASE = 10_000_000L;
+    // Menor número no formato com dígito verificador (BASE * 10)
+    public static final long MENOR_NUMERO = BASE * 10;
+
+    private NumeroConta() {
+    }
+
+    public static long gerar(long sequencial) {
+        long corpo = BASE + sequencial;
+        return corpo * 10 + calcularDigito(corpo);
+    }
+
+    public static boolean possuiDigitoVerificador(long numero) {
+        return numero >= MENOR_NUMERO;
+    }
+
+    public static boolean digitoValido(long numero) {
+        return calcularDigito(numero / 10) == numero % 10;
+    }
+
+    // Luhn: dobra um dígito sim, um não (a partir do último do corpo) e completa a soma até múltiplo de 10.
+    static int calcularDigito(long corpo) {
+        int soma = 0;
+        boolean dobrar = true;
+        for (long resto = corpo; resto > 0; resto /= 10) {
+            int digito = (int) (resto % 10);
+            if (dobrar) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            soma += digito;
+            dobrar = !dobrar;
+        }
+        return (10 - soma % 10) % 10;
+    }
+}
@@ -6,7 +6,6 @@ import com.senai.conta_bancaria_spring.domain.exception.PagamentoInvalidoExcepti
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.Set;
 
 @Service
@@ -14,13 +13,17 @@ import java.util.Set;
 // Embora este serviço de domínio não acesse o DB, ele será chamado
 // por um serviço de aplicação (Dia 4) que é transacional.
 public class PagamentoDomainService {
-    public BigDecimal processarDebitoPagamento(Conta conta, BigDecimal valorBoleto, String codigoBoleto, Set<Taxa> taxas) {
+    public Money processarDebitoPagamento(Conta conta, Money valorBoleto, String codigoBoleto, Set<Taxa> taxas) {
+        return processarDebitoPagamento(conta, valorBoleto, codigoBoleto, PlanoTarifario.compilar(taxas));
+    }
+
+    public Money processarDebitoPagamento(Conta conta, Money valorBoleto, String codigoBoleto, PlanoTarifario plano) {
 
         // 1. Validar o Boleto
         validarBoleto(codigoBoleto, valorBoleto);
 
-        // 2. Calcular o Custo Total
-        BigDecimal custoTotal = calcularCustoTotal(valorBoleto, taxas);
+        // 2. Calcular o Custo Total (plano de taxas pré-compilado)
+        Money custoTotal = plano.calcularCustoTotal(valorBoleto);
 
         // 3. e 4. Validar Saldo e Debitar (POLIMORFISMO)
         // O serviço agora DELEGA a responsabilidade de validar o saldo
@@ -31,33 +34,11 @@ public class PagamentoDomainService {
         return custoTotal;
     }
 
-    /**
-     * Calcula o valor final de um pagamento somando as taxas (percentuais e fixas)
-     * ao valor base do boleto.
-     */
-    private BigDecimal calcularCustoTotal(BigDecimal valorBase, Set<Taxa> taxas) {
-        BigDecimal totalTaxas = BigDecimal.ZERO;
-
-        if (taxas != null) {
-            for (Taxa taxa : taxas) {
-                // Calcula a taxa percentual sobre o valor base
-                BigDecimal valorTaxaPercentual = valorBase.multiply(taxa.getPercentual());
-                // Adiciona a taxa fixa
-                BigDecimal valorTaxaFixa = taxa.getValorFixo();
-
-                totalTaxas = totalTaxas.add(valorTaxaPercentual).add(valorTaxaFixa);
-            }
-        }
-
-        // Custo total = Valor base + Soma de todas as taxas
-        return valorBase.add(totalTaxas);
-    }
-
     /**
      * Simula a validação de um boleto.
      */
-    private void validarBoleto(String codigoBoleto, BigDecimal valorBoleto) {
-        if (valorBoleto == null || valorBoleto.compareTo(BigDecimal.ZERO) <= 0) {
+    private void validarBoleto(String codigoBoleto, Money valorBoleto) {
+        if (valorBoleto == null || !valorBoleto.isPositivo()) {
             throw new PagamentoInvalidoException("O valor do pagamento deve ser positivo.");
         }
 
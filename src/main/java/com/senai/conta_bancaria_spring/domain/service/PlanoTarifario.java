@@ -0,0 +1,66 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+import com.senai.conta_bancaria_spring.domain.entity.Taxa;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Combinação de taxas "pré-compilada" para cálculo rápido do custo de um pagamento.
+ * <p>
+ * Como custo = base + Σ(base × percentual + fixo) = base × (1 + Σpercentual) + Σfixo,
+ * o plano guarda apenas o fator, em inteiro escalado (long + escala), e o fixo total (Money).
+ * Também serve para uma taxa única sobre o valor (saque/transferência da conta corrente): ver {@link #percentual}.
+ * <p>
+ * Regras de arredondamento: base × fator é arredondado uma única vez para centavos, com
+ * {@link Money#ARREDONDAMENTO}; o fixo já está em centavos. Quando o fator não cabe em long,
+ * Money refaz a multiplicação em BigDecimal, com o mesmo arredondamento.
+ */
+public final class PlanoTarifario {
+
+    private final BigDecimal fator;  // 1 + Σ percentual
+    private final Money fixoTotal;   // Σ valorFixo
+
+    private final boolean cabeEmLong;
+    private final long fatorEscalado;
+    private final int escalaFator;
+
+    private PlanoTarifario(BigDecimal fator, Money fixoTotal) {
+        this.fator = fator;
+        this.fixoTotal = fixoTotal;
+        this.escalaFator = fator.scale();
+        this.cabeEmLong = fator.unscaledValue().bitLength() < 64 && escalaFator >= 0 && escalaFator <= 18;
+        this.fatorEscalado = cabeEmLong ? fator.unscaledValue().longValue() : 0L;
+    }
+
+    public static PlanoTarifario compilar(Collection<Taxa> taxas) {
+        BigDecimal somaPercentual = BigDecimal.ZERO;
+        Money somaFixo = Money.ZERO;
+
+        if (taxas != null) {
+            for (Taxa taxa : taxas) {
+                somaPercentual = somaPercentual.add(taxa.getPercentual());
+                somaFixo = somaFixo.somar(taxa.getValorFixo());
+            }
+        }
+
+        return new PlanoTarifario(BigDecimal.ONE.add(somaPercentual), somaFixo);
+    }
+
+    /**
+     * Plano de uma taxa percentual única, sem valor fixo: custo = base × (1 + percentual).
+     */
+    public static PlanoTarifario percentual(BigDecimal percentual) {
+        return new PlanoTarifario(BigDecimal.ONE.add(percentual), Money.ZERO);
+    }
+
+    /**
+     * Custo total (base + todas as taxas) para um valor de boleto.
+     */
+    public Money calcularCustoTotal(Money valorBase) {
+        Money proporcional = cabeEmLong
+                ? valorBase.multiplicar(fatorEscalado, escalaFator, Money.ARREDONDAMENTO)
+                : valorBase.multiplicar(fator, Money.ARREDONDAMENTO);
+        return fixoTotal.isZero() ? proporcional : proporcional.somar(fixoTotal);
+    }
+}
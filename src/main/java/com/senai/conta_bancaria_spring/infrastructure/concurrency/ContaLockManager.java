@@ -0,0 +1,118 @@
+package com.senai.conta_bancaria_spring.infrastructure.concurrency;
+
+import com.senai.conta_bancaria_spring.domain.exception.ContaOcupadaException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa as operações financeiras por conta usando locks "listrados" (lock striping).
+ * Cada número de conta é mapeado para um de N locks fixos. Operações sobre a mesma conta
+ * entram em fila (lock justo) em vez de falhar no @Version da entidade Conta.
+ * Quando há mais de uma conta envolvida (transferência), os locks são adquiridos
+ * sempre em ordem crescente de índice, o que elimina a possibilidade de deadlock.
+ */
+@Component
+@Slf4j
+public class ContaLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+
+    public ContaLockManager(@Value("${banco.concorrencia.lock-stripes:1024}") int quantidadeStripes,
+                            @Value("${banco.concorrencia.lock-timeout-ms:5000}") long timeoutMs) {
+        // Arredonda para potência de 2 para usar máscara de bits no lugar do módulo.
+        int tamanho = 1;
+        while (tamanho < quantidadeStripes) {
+            tamanho <<= 1;
+        }
+        this.stripes = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void executarComLock(Runnable operacao, Long... numerosConta) {
+        executarComLock(() -> {
+            operacao.run();
+            return null;
+        }, numerosConta);
+    }
+
+    /**
+     * Executa a operação segurando os locks de todas as contas informadas.
+     * Se houver uma transação ativa, os locks só são liberados após o commit/rollback,
+     * garantindo que a próxima operação da fila já enxergue o saldo gravado.
+     */
+    public <T> T executarComLock(Supplier<T> operacao, Long... numerosConta) {
+        List<ReentrantLock> adquiridos = adquirir(numerosConta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    liberar(adquiridos);
+                }
+            });
+            return operacao.get();
+        }
+
+        try {
+            return operacao.get();
+        } finally {
+            liberar(adquiridos);
+        }
+    }
+
+    private List<ReentrantLock> adquirir(Long... numerosConta) {
+        // 1. Índices distintos e ordenados: a ordem fixa impede deadlock entre transferências cruzadas.
+        int[] indices = Arrays.stream(numerosConta)
+                .mapToInt(this::indiceDoStripe)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        List<ReentrantLock> adquiridos = new ArrayList<>(indices.length);
+        try {
+            for (int indice : indices) {
+                ReentrantLock lock = stripes[indice];
+                if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    log.warn("Timeout aguardando lock das contas {}", Arrays.toString(numerosConta));
+                    throw new ContaOcupadaException("A conta está processando outras operações. Tente novamente em instantes.");
+                }
+                adquiridos.add(lock);
+            }
+            return adquiridos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(adquiridos);
+            throw new ContaOcupadaException("Operação interrompida enquanto aguardava a conta.");
+        } catch (RuntimeException e) {
+            liberar(adquiridos);
+            throw e;
+        }
+    }
+
+    private void liberar(List<ReentrantLock> adquiridos) {
+        // Libera na ordem inversa da aquisição.
+        for (int i = adquiridos.size() - 1; i >= 0; i--) {
+            adquiridos.get(i).unlock();
+        }
+    }
+
+    private int indiceDoStripe(Long numeroConta) {
+        int h = Long.hashCode(numeroConta);
+        h ^= (h >>> 16); // Espalha os bits altos, já que números de conta são sequenciais
+        return h & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.senai.conta_bancaria_spring.infrastructure.concurrency;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * "Hashed timing wheel": agenda ações de expiração em O(1) e as dispara em lotes a cada tick.
+ * O tempo é dividido em ticks fixos; cada prazo cai no slot (tick do prazo % quantidade de slots).
+ * A cada avanço, apenas os slots dos ticks decorridos são percorridos, e só as tarefas com prazo vencido
+ * disparam. As demais (prazos de voltas futuras da roda) permanecem no slot.
+ * <p>
+ * Thread-safe para agendar; {@link #avancar(long)} deve ser chamado por uma única thread (ex: @Scheduled).
+ * A precisão é de um tick: uma tarefa dispara até um tick depois do prazo, nunca antes
+ * (se for agendada exatamente enquanto seu slot está sendo percorrido, espera a próxima volta).
+ */
+public class RodaDeExpiracao {
+
+    private record Tarefa(long expiraEmMs, Runnable aoExpirar) {
+    }
+
+    private final Queue<Tarefa>[] slots;
+    private final int mascara;
+    private final long duracaoTickMs;
+    private volatile long ultimoTick;
+
+    @SuppressWarnings("unchecked")
+    public RodaDeExpiracao(int quantidadeSlots, long duracaoTickMs, long agoraMs) {
+        // Arredonda para potência de 2 para usar máscara de bits no lugar do módulo.
+        int tamanho = 1;
+        while (tamanho < quantidadeSlots) {
+            tamanho <<= 1;
+        }
+        this.slots = new Queue[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            this.slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mascara = tamanho - 1;
+        this.duracaoTickMs = duracaoTickMs;
+        this.ultimoTick = agoraMs / duracaoTickMs;
+    }
+
+    public void agendar(long expiraEmMs, Runnable aoExpirar) {
+        // Arredonda para cima: quando o slot for visitado, o prazo já terá passado.
+        // Prazos já vencidos vão para o próximo tick (o slot do passado só seria visitado na próxima volta).
+        long tick = Math.max(Math.ceilDiv(expiraEmMs, duracaoTickMs), ultimoTick + 1);
+        slots[(int) (tick & mascara)].add(new Tarefa(expiraEmMs, aoExpirar));
+    }
+
+    /**
+     * Percorre os slots dos ticks decorridos desde a última chamada e dispara as tarefas vencidas.
+     * Retorna quantas tarefas dispararam.
+     */
+    public int avancar(long agoraMs) {
+        long tickAtual = agoraMs / duracaoTickMs;
+        long inicio = ultimoTick + 1;
+        // Se ficou parado mais de uma volta, basta visitar cada slot uma vez.
+        if (tickAtual - inicio >= slots.length) {
+            inicio = tickAtual - slots.length + 1;
+        }
+
+        int disparadas = 0;
+        for (long tick = inicio; tick <= tickAtual; tick++) {
+            Iterator<Tarefa> iterator = slots[(int) (tick & mascara)].iterator();
+            while (iterator.hasNext()) {
+                Tarefa tarefa = iterator.next();
+                if (tarefa.expiraEmMs() <= agoraMs) {
+                    iterator.remove();
+                    tarefa.aoExpirar().run();
+                    disparadas++;
+                }
+            }
+        }
+        ultimoTick = Math.max(ultimoTick, tickAtual);
+        return disparadas;
+    }
+}
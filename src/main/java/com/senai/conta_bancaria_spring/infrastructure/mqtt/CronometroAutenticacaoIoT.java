@@ -0,0 +1,44 @@
+package com.senai.conta_bancaria_spring.infrastructure.mqtt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a ida e volta do 2FA: da publicação do código (AutenticacaoIoTService) até a chegada
+ * da resposta do dispositivo no MqttListenerService (timer "banco.iot.autenticacao.ida.volta").
+ * Guarda um início por cliente, como o índice de códigos: um novo código substitui o anterior.
+ */
+@Component
+public class CronometroAutenticacaoIoT {
+    // Respostas que chegam depois disso não são medidas (o código já expirou: 5 minutos).
+    private static final long VALIDADE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<String, Long> iniciosPorCliente = new ConcurrentHashMap<>();
+    private final Timer idaEVolta;
+
+    public CronometroAutenticacaoIoT(MeterRegistry meterRegistry) {
+        this.idaEVolta = Timer.builder("banco.iot.autenticacao.ida.volta")
+                .description("Da publicação do código 2FA até a resposta do dispositivo chegar via MQTT")
+                .register(meterRegistry);
+    }
+
+    public void iniciar(String clienteId) {
+        iniciosPorCliente.put(clienteId, System.nanoTime());
+    }
+
+    public void registrarResposta(String clienteId) {
+        Long inicio = iniciosPorCliente.remove(clienteId);
+        if (inicio == null) {
+            return; // Resposta repetida, ou código gerado antes de um restart
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (duracao <= VALIDADE_NANOS) {
+            idaEVolta.record(duracao, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.senai.conta_bancaria_spring.infrastructure.mqtt;
+
+import com.senai.conta_bancaria_spring.application.dto.NotificacaoDTO;
+import com.senai.conta_bancaria_spring.application.dto.iot.AutenticacaoValidacaoDTO;
+import com.senai.conta_bancaria_spring.application.service.SseNotificacaoService;
+import com.senai.conta_bancaria_spring.application.service.ValidacaoIoTService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila limitada entre o callback do cliente MQTT e o processamento das validações 2FA.
+ * <p>
+ * As mensagens são divididas em N partições pelo ID do cliente, cada uma com um único worker.
+ * Como toda conta pertence a um único cliente, as confirmações de uma mesma conta são processadas
+ * em ordem, enquanto clientes (e contas) diferentes rodam em paralelo. A thread do MQTT só enfileira.
+ * <p>
+ * Política de overflow (partição cheia):
+ * REJEITAR descarta a mensagem na hora; AGUARDAR segura a thread do MQTT até o timeout e então descarta.
+ * Em ambos os casos o código 2FA continua pendente (o dispositivo pode reenviar) e o cliente é avisado via SSE.
+ */
+@Component
+@Slf4j
+public class FilaValidacaoIoT {
+
+    public enum PoliticaOverflow { REJEITAR, AGUARDAR }
+
+    private record Mensagem(AutenticacaoValidacaoDTO payload, long recebidaEmNanos) {}
+
+    /**
+     * Retrato das métricas da fila (profundidade atual e atraso entre recebimento e início do processamento).
+     */
+    public record Metricas(int profundidade, int capacidadeTotal, long recebidas, long processadas,
+                           long falhas, long rejeitadas, long ultimoAtrasoMs, long maiorAtrasoMs) {}
+
+    private final ValidacaoIoTService validacaoIoTService;
+    private final SseNotificacaoService notificacaoService;
+
+    private final List<BlockingQueue<Mensagem>> particoes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean ativa = true;
+
+    private final AtomicLong recebidas = new AtomicLong();
+    private final AtomicLong processadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong rejeitadas = new AtomicLong();
+    private final AtomicLong ultimoAtrasoMs = new AtomicLong();
+    private final AtomicLong maiorAtrasoMs = new AtomicLong();
+    private long recebidasNoUltimoLog;
+
+    @Value("${banco.iot.fila.particoes}")
+    private int quantidadeParticoes;
+
+    @Value("${banco.iot.fila.capacidade-por-particao}")
+    private int capacidadePorParticao;
+
+    @Value("${banco.iot.fila.politica-overflow}")
+    private PoliticaOverflow politicaOverflow;
+
+    @Value("${banco.iot.fila.timeout-overflow-ms}")
+    private long timeoutOverflowMs;
+
+    public FilaValidacaoIoT(ValidacaoIoTService validacaoIoTService, SseNotificacaoService notificacaoService) {
+        this.validacaoIoTService = validacaoIoTService;
+        this.notificacaoService = notificacaoService;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            BlockingQueue<Mensagem> fila = new ArrayBlockingQueue<>(capacidadePorParticao);
+            particoes.add(fila);
+
+            Thread worker = new Thread(() -> consumir(fila), "iot-validacao-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("Fila de validações IoT iniciada: {} partições x {} mensagens, overflow = {}",
+                quantidadeParticoes, capacidadePorParticao, politicaOverflow);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        ativa = false;
+        workers.forEach(Thread::interrupt);
+        int pendentes = particoes.stream().mapToInt(BlockingQueue::size).sum();
+        if (pendentes > 0) {
+            log.warn("Fila de validações IoT encerrada com {} mensagens não processadas.", pendentes);
+        }
+    }
+
+    /**
+     * Enfileira a validação na partição do cliente. Retorna false se a mensagem foi descartada por overflow.
+     */
+    public boolean enfileirar(AutenticacaoValidacaoDTO payload) {
+        recebidas.incrementAndGet();
+        BlockingQueue<Mensagem> fila = particoes.get(particaoDo(payload.clienteId()));
+        Mensagem mensagem = new Mensagem(payload, System.nanoTime());
+
+        boolean aceita;
+        if (politicaOverflow == PoliticaOverflow.AGUARDAR) {
+            try {
+                aceita = fila.offer(mensagem, timeoutOverflowMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aceita = false;
+            }
+        } else {
+            aceita = fila.offer(mensagem);
+        }
+
+        if (!aceita) {
+            rejeitadas.incrementAndGet();
+            log.warn(">>> FILA IOT CHEIA: validação do cliente {} descartada (política {}).",
+                    payload.clienteId(), politicaOverflow);
+            notificacaoService.enviarNotificacao(payload.clienteId(),
+                    NotificacaoDTO.falha("Sistema ocupado. Confirme novamente no dispositivo."));
+        }
+        return aceita;
+    }
+
+    public Metricas metricas() {
+        int profundidade = particoes.stream().mapToInt(BlockingQueue::size).sum();
+        return new Metricas(profundidade, quantidadeParticoes * capacidadePorParticao,
+                recebidas.get(), processadas.get(), falhas.get(), rejeitadas.get(),
+                ultimoAtrasoMs.get(), maiorAtrasoMs.get());
+    }
+
+    // Só registra no log quando houve movimento desde a última vez.
+    @Scheduled(fixedRateString = "${banco.iot.fila.intervalo-log-metricas-ms}")
+    public void registrarMetricas() {
+        Metricas m = metricas();
+        if (m.profundidade() > 0 || m.recebidas() != recebidasNoUltimoLog) {
+            recebidasNoUltimoLog = m.recebidas();
+            log.info("Fila IoT: profundidade={}/{} recebidas={} processadas={} falhas={} rejeitadas={} atraso(ultimo/max)={}ms/{}ms",
+                    m.profundidade(), m.capacidadeTotal(), m.recebidas(), m.processadas(), m.falhas(),
+                    m.rejeitadas(), m.ultimoAtrasoMs(), m.maiorAtrasoMs());
+        }
+    }
+
+    private void consumir(BlockingQueue<Mensagem> fila) {
+        while (ativa) {
+            Mensagem mensagem;
+            try {
+                mensagem = fila.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long atrasoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mensagem.recebidaEmNanos());
+            ultimoAtrasoMs.set(atrasoMs);
+            maiorAtrasoMs.accumulateAndGet(atrasoMs, Math::max);
+
+            try {
+                validacaoIoTService.processarValidacao(mensagem.payload());
+                processadas.incrementAndGet();
+            } catch (RuntimeException e) {
+                // Ex: falha no commit. O worker segue consumindo as próximas mensagens da partição.
+                falhas.incrementAndGet();
+                log.error(">>> ERRO AO PROCESSAR VALIDAÇÃO IOT do cliente {}: {}",
+                        mensagem.payload().clienteId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private int particaoDo(String clienteId) {
+        int h = clienteId == null ? 0 : clienteId.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, particoes.size());
+    }
+}
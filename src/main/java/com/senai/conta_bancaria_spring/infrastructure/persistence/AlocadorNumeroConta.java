@@ -0,0 +1,90 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.service.NumeroConta;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gera números de conta únicos sem sorteio e sem consultar a tabela de contas (blocos "pooled").
+ * A sequence do banco anda de N em N e cada valor é o primeiro sequencial de um bloco de N para este nó;
+ * os números do bloco saem da memória. Nós diferentes recebem blocos diferentes, então nunca há colisão.
+ * Um restart descarta o resto do bloco atual (gera lacunas na numeração, nunca repetição).
+ * <p>
+ * O tamanho do bloco fica gravado no INCREMENT BY da sequence: se a configuração mudar, a aplicação não sobe
+ * até a sequence ser migrada (docs/migracoes/numero-conta-blocos.sql), porque blocos de outro tamanho
+ * poderiam se sobrepor aos já distribuídos.
+ */
+@Component
+@Slf4j
+public class AlocadorNumeroConta {
+
+    private static final String SEQUENCE = "seq_bloco_numero_conta";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int tamanhoBloco;
+
+    private String consultaProximoBloco;
+    private long proximoSequencial;
+    private long fimDoBloco; // exclusivo
+
+    public AlocadorNumeroConta(JdbcTemplate jdbcTemplate,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${banco.conta.numero.tamanho-bloco}") int tamanhoBloco) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE
+                + " START WITH 0 MINVALUE 0 INCREMENT BY " + tamanhoBloco);
+        validarTamanhoBloco();
+        // SQL do "próximo valor" no dialeto do banco em uso (H2, PostgreSQL, ...)
+        consultaProximoBloco = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE);
+    }
+
+    public synchronized long proximoNumero() {
+        if (proximoSequencial == fimDoBloco) {
+            reservarBloco();
+        }
+        return NumeroConta.gerar(proximoSequencial++);
+    }
+
+    // A sequence já existente precisa andar exatamente de tamanhoBloco em tamanhoBloco.
+    private void validarTamanhoBloco() {
+        List<String> incrementos = jdbcTemplate.queryForList(
+                "SELECT increment FROM information_schema.sequences WHERE UPPER(sequence_name) = ?",
+                String.class, SEQUENCE.toUpperCase());
+        if (incrementos.isEmpty()) {
+            log.warn(">>> NUMERO CONTA: não foi possível ler o incremento de {}; tamanho do bloco não conferido.", SEQUENCE);
+            return;
+        }
+        long incremento = Long.parseLong(incrementos.getFirst().trim());
+        if (incremento != tamanhoBloco) {
+            throw new IllegalStateException("A sequence " + SEQUENCE + " reserva blocos de " + incremento
+                    + " números, mas banco.conta.numero.tamanho-bloco=" + tamanhoBloco
+                    + ". Migre a sequence (docs/migracoes/numero-conta-blocos.sql) ou volte a configuração.");
+        }
+    }
+
+    private void reservarBloco() {
+        Long inicio = jdbcTemplate.queryForObject(consultaProximoBloco, Long.class);
+        if (inicio == null) {
+            throw new IllegalStateException("A sequence " + SEQUENCE + " não retornou valor.");
+        }
+        proximoSequencial = inicio;
+        fimDoBloco = proximoSequencial + tamanhoBloco;
+        log.debug("Bloco de números de conta reservado: sequenciais {} a {}", proximoSequencial, fimDoBloco - 1);
+    }
+}
@@ -0,0 +1,281 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Arquivo imutável com as transações de um mês, fora do banco (camada fria do extrato).
+ * <p>
+ * Formato: cabeçalho, um bloco comprimido (deflate) por conta, índice e rodapé.
+ * <pre>
+ * [MAGICO VERSAO ano mes] [bloco conta 1] ... [bloco conta N] [índice] [posição do índice, MAGICO]
+ * </pre>
+ * Dentro de cada bloco, as transações da conta seguem a ordem do extrato (dataHora DESC, id DESC).
+ * O índice (conta → posição, tamanho, linhas, soma em centavos, CRC32 do bloco) fica em memória,
+ * então ler o extrato de uma conta descomprime só o bloco dela; somar o mês inteiro nem isso.
+ */
+public final class ArquivoMensalTransacoes implements Closeable {
+
+    private static final int MAGICO = 0x54584152; // "TXAR"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_RODAPE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Posição e resumo do bloco de uma conta.
+     */
+    public record Entrada(long posicao, int tamanho, int linhas, long somaCentavos, long crc) {}
+
+    private final YearMonth mes;
+    private final Path caminho;
+    private final FileChannel canal;
+    private final Map<String, Entrada> indice;
+
+    private ArquivoMensalTransacoes(YearMonth mes, Path caminho, FileChannel canal, Map<String, Entrada> indice) {
+        this.mes = mes;
+        this.caminho = caminho;
+        this.canal = canal;
+        this.indice = indice;
+    }
+
+    public static String nomeDoArquivo(YearMonth mes) {
+        return "transacoes-" + mes + ".arq";
+    }
+
+    /**
+     * Abre um arquivo já concluído e carrega o índice.
+     */
+    public static ArquivoMensalTransacoes abrir(Path caminho) throws IOException {
+        FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ);
+        try {
+            long tamanhoArquivo = canal.size();
+            ByteBuffer rodape = lerExato(canal, tamanhoArquivo - TAMANHO_RODAPE, TAMANHO_RODAPE);
+            long posicaoIndice = rodape.getLong();
+            if (rodape.getInt() != MAGICO) {
+                throw new IOException("Arquivo de transações incompleto ou corrompido: " + caminho);
+            }
+
+            DataInputStream cabecalho = new DataInputStream(new ByteArrayInputStream(lerExato(canal, 0, 16).array()));
+            if (cabecalho.readInt() != MAGICO || cabecalho.readInt() != VERSAO) {
+                throw new IOException("Formato de arquivo de transações desconhecido: " + caminho);
+            }
+            YearMonth mes = YearMonth.of(cabecalho.readInt(), cabecalho.readInt());
+
+            int tamanhoIndice = Math.toIntExact(tamanhoArquivo - TAMANHO_RODAPE - posicaoIndice);
+            DataInputStream dados = new DataInputStream(new ByteArrayInputStream(lerExato(canal, posicaoIndice, tamanhoIndice).array()));
+            int contas = dados.readInt();
+            Map<String, Entrada> indice = new HashMap<>(contas * 4 / 3 + 1);
+            for (int i = 0; i < contas; i++) {
+                indice.put(dados.readUTF(), new Entrada(dados.readLong(), dados.readInt(), dados.readInt(),
+                        dados.readLong(), dados.readLong()));
+            }
+            return new ArquivoMensalTransacoes(mes, caminho, canal, indice);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public YearMonth mes() {
+        return mes;
+    }
+
+    public Path caminho() {
+        return caminho;
+    }
+
+    public Optional<Entrada> entrada(String contaId) {
+        return Optional.ofNullable(indice.get(contaId));
+    }
+
+    /**
+     * Transações arquivadas da conta neste mês, na ordem do extrato. As entidades são apenas de leitura
+     * (não pertencem a nenhum contexto de persistência e não têm a conta preenchida).
+     */
+    public List<Transacao> ler(String contaId) throws IOException {
+        Entrada entrada = indice.get(contaId);
+        if (entrada == null) {
+            return List.of();
+        }
+
+        byte[] comprimido = lerExato(canal, entrada.posicao(), entrada.tamanho()).array();
+        CRC32 crc = new CRC32();
+        crc.update(comprimido);
+        if (crc.getValue() != entrada.crc()) {
+            throw new IOException("Bloco corrompido da conta " + contaId + " em " + caminho);
+        }
+
+        List<Transacao> transacoes = new ArrayList<>(entrada.linhas());
+        try (DataInputStream dados = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(comprimido)))) {
+            for (int i = 0; i < entrada.linhas(); i++) {
+                Transacao transacao = new Transacao();
+                transacao.setId(new UUID(dados.readLong(), dados.readLong()));
+                transacao.setDataHora(LocalDateTime.ofEpochSecond(dados.readLong(), dados.readInt(), ZoneOffset.UTC));
+                transacao.setTipo(TipoTransacao.valueOf(dados.readUTF()));
+                transacao.setValor(Money.deCentavos(dados.readLong()));
+                transacao.setContaDestinoNumero(dados.readBoolean() ? dados.readLong() : null);
+                transacoes.add(transacao);
+            }
+        }
+        return transacoes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private static ByteBuffer lerExato(FileChannel canal, long posicao, int tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                throw new EOFException("Fim inesperado do arquivo de transações.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Grava um arquivo mensal. As linhas devem chegar agrupadas por conta e, dentro da conta, na ordem do extrato.
+     * O arquivo é escrito em um temporário e só aparece com o nome final (rename atômico) depois de concluído
+     * e sincronizado com o disco; um arquivo com o nome final está sempre completo.
+     */
+    public static final class Escritor implements Closeable {
+        private final YearMonth mes;
+        private final Path destino;
+        private final Path temporario;
+        private final FileChannel canal;
+        private final DataOutputStream saida;
+        private final Map<String, Entrada> indice = new LinkedHashMap<>();
+
+        private final ByteArrayOutputStream blocoComprimido = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private DataOutputStream bloco;
+        private String contaAtual;
+        private int linhasDaConta;
+        private long somaDaConta;
+        private long posicao;
+        private boolean concluido;
+
+        public Escritor(Path diretorio, YearMonth mes) throws IOException {
+            this.mes = mes;
+            this.destino = diretorio.resolve(nomeDoArquivo(mes));
+            this.temporario = diretorio.resolve(nomeDoArquivo(mes) + ".tmp");
+            this.canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 64 * 1024));
+
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeInt(mes.getYear());
+            saida.writeInt(mes.getMonthValue());
+            posicao = 16;
+        }
+
+        public void adicionar(String contaId, UUID id, LocalDateTime dataHora, String tipo, long valorCentavos,
+                              Long contaDestinoNumero) throws IOException {
+            if (!contaId.equals(contaAtual)) {
+                fecharBloco();
+                if (indice.containsKey(contaId)) {
+                    throw new IllegalStateException("Linhas da conta " + contaId + " fora de ordem.");
+                }
+                contaAtual = contaId;
+                deflater.reset();
+                bloco = new DataOutputStream(new DeflaterOutputStream(blocoComprimido, deflater, 8 * 1024));
+            }
+
+            bloco.writeLong(id.getMostSignificantBits());
+            bloco.writeLong(id.getLeastSignificantBits());
+            bloco.writeLong(dataHora.toEpochSecond(ZoneOffset.UTC));
+            bloco.writeInt(dataHora.getNano());
+            bloco.writeUTF(tipo);
+            bloco.writeLong(valorCentavos);
+            bloco.writeBoolean(contaDestinoNumero != null);
+            if (contaDestinoNumero != null) {
+                bloco.writeLong(contaDestinoNumero);
+            }
+            linhasDaConta++;
+            somaDaConta += valorCentavos;
+        }
+
+        /**
+         * Escreve índice e rodapé, sincroniza com o disco e publica o arquivo com o nome final (somente leitura).
+         */
+        public Path concluir() throws IOException {
+            fecharBloco();
+
+            long posicaoIndice = posicao;
+            saida.writeInt(indice.size());
+            for (Map.Entry<String, Entrada> item : indice.entrySet()) {
+                Entrada entrada = item.getValue();
+                saida.writeUTF(item.getKey());
+                saida.writeLong(entrada.posicao());
+                saida.writeInt(entrada.tamanho());
+                saida.writeInt(entrada.linhas());
+                saida.writeLong(entrada.somaCentavos());
+                saida.writeLong(entrada.crc());
+            }
+            saida.writeLong(posicaoIndice);
+            saida.writeInt(MAGICO);
+            saida.flush();
+            canal.force(true);
+            saida.close();
+            deflater.end();
+
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            destino.toFile().setReadOnly();
+            concluido = true;
+            return destino;
+        }
+
+        public YearMonth mes() {
+            return mes;
+        }
+
+        // Abandona um arquivo não concluído (erro no meio da gravação).
+        @Override
+        public void close() throws IOException {
+            if (!concluido) {
+                saida.close();
+                deflater.end();
+                Files.deleteIfExists(temporario);
+            }
+        }
+
+        private void fecharBloco() throws IOException {
+            if (contaAtual == null) {
+                return;
+            }
+            bloco.close(); // Conclui o deflate (o ByteArrayOutputStream não tem o que fechar)
+            byte[] comprimido = blocoComprimido.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(comprimido);
+
+            saida.write(comprimido);
+            indice.put(contaAtual, new Entrada(posicao, comprimido.length, linhasDaConta, somaDaConta, crc.getValue()));
+            posicao += comprimido.length;
+
+            blocoComprimido.reset();
+            contaAtual = null;
+            linhasDaConta = 0;
+            somaDaConta = 0;
+        }
+    }
+}
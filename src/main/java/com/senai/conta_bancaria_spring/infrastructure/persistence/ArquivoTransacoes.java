@@ -0,0 +1,242 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Camada fria do extrato: meses antigos de transacoes gravados em arquivos imutáveis (ArquivoMensalTransacoes).
+ * Opcional: banco.arquivo.transacoes.habilitado.
+ * <p>
+ * Os meses arquivados são sempre contíguos e anteriores a {@link Catalogo#inicioQuente()}; a tabela só responde
+ * por linhas a partir desse instante. Assim uma consulta lê a tabela e completa com os arquivos sem sobreposição,
+ * mesmo que sobras de um arquivamento interrompido ainda estejam na tabela.
+ * Cada leitura deve usar uma única foto do catálogo ({@link #catalogo()}) para as duas camadas.
+ */
+@Component
+@Slf4j
+public class ArquivoTransacoes {
+
+    // Sem meses arquivados, a tabela responde por todo o histórico.
+    private static final LocalDateTime SEM_ARQUIVO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String PADRAO_ARQUIVOS = "transacoes-*.arq";
+
+    /**
+     * Foto imutável dos meses arquivados e do primeiro instante que ainda está na tabela.
+     */
+    public record Catalogo(NavigableMap<YearMonth, ArquivoMensalTransacoes> meses, LocalDateTime inicioQuente) {
+        public Optional<YearMonth> ultimoMes() {
+            return meses.isEmpty() ? Optional.empty() : Optional.of(meses.lastKey());
+        }
+    }
+
+    @Value("${banco.arquivo.transacoes.habilitado}")
+    private boolean habilitado;
+
+    @Value("${banco.arquivo.transacoes.diretorio}")
+    private Path diretorio;
+
+    private volatile Catalogo catalogo = new Catalogo(Collections.emptyNavigableMap(), SEM_ARQUIVO);
+
+    @PostConstruct
+    public void carregar() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        Files.createDirectories(diretorio);
+
+        // Um .tmp é sempre uma gravação interrompida: o arquivo concluído só existe com o nome final.
+        try (DirectoryStream<Path> temporarios = Files.newDirectoryStream(diretorio, PADRAO_ARQUIVOS + ".tmp")) {
+            for (Path temporario : temporarios) {
+                Files.delete(temporario);
+            }
+        }
+
+        TreeMap<YearMonth, ArquivoMensalTransacoes> meses = new TreeMap<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PADRAO_ARQUIVOS)) {
+            for (Path caminho : arquivos) {
+                ArquivoMensalTransacoes arquivo = ArquivoMensalTransacoes.abrir(caminho);
+                meses.put(arquivo.mes(), arquivo);
+            }
+        }
+        YearMonth anterior = null;
+        for (YearMonth mes : meses.keySet()) {
+            if (anterior != null && !mes.equals(anterior.plusMonths(1))) {
+                log.warn(">>> ARQUIVO: falta o arquivo de {} em {}; essas transações não aparecerão no extrato.",
+                        anterior.plusMonths(1), diretorio);
+            }
+            anterior = mes;
+        }
+
+        catalogo = montarCatalogo(meses);
+        log.info("Arquivo de transações: {} meses em {} (tabela a partir de {}).", meses.size(), diretorio, catalogo.inicioQuente());
+    }
+
+    @PreDestroy
+    public void fechar() {
+        for (ArquivoMensalTransacoes arquivo : catalogo.meses().values()) {
+            try {
+                arquivo.close();
+            } catch (IOException e) {
+                log.warn(">>> ARQUIVO: falha ao fechar {}: {}", arquivo.caminho(), e.getMessage());
+            }
+        }
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    public Path diretorio() {
+        return diretorio;
+    }
+
+    public Catalogo catalogo() {
+        return catalogo;
+    }
+
+    /**
+     * Passa a responder pelo mês do arquivo (que deve ser o seguinte ao último arquivado).
+     * A partir daqui as novas leituras ignoram as linhas desse mês na tabela; elas só podem ser apagadas depois
+     * que terminarem as leituras que começaram com a foto anterior (ver ArquivamentoTransacoesScheduler).
+     */
+    public synchronized void publicar(ArquivoMensalTransacoes arquivo) {
+        Catalogo atual = catalogo;
+        atual.ultimoMes().ifPresent(ultimo -> {
+            if (!arquivo.mes().equals(ultimo.plusMonths(1))) {
+                throw new IllegalStateException("Mês " + arquivo.mes() + " fora de sequência (último arquivado: " + ultimo + ").");
+            }
+        });
+        TreeMap<YearMonth, ArquivoMensalTransacoes> meses = new TreeMap<>(atual.meses());
+        meses.put(arquivo.mes(), arquivo);
+        catalogo = montarCatalogo(meses);
+    }
+
+    /**
+     * Até {@code limite} transações arquivadas da conta, na ordem do extrato, a partir da posição informada
+     * (exclusiva; nula para começar pelo mês arquivado mais recente).
+     */
+    public List<Transacao> buscarPagina(Catalogo foto, String contaId, LocalDateTime aposDataHora, UUID aposId, int limite) {
+        NavigableMap<YearMonth, ArquivoMensalTransacoes> meses = aposDataHora == null
+                ? foto.meses().descendingMap()
+                : foto.meses().headMap(YearMonth.from(aposDataHora), true).descendingMap();
+
+        List<Transacao> pagina = new ArrayList<>(limite);
+        for (ArquivoMensalTransacoes arquivo : meses.values()) {
+            for (Transacao transacao : ler(arquivo, contaId)) {
+                if (aposDataHora == null || vemDepois(transacao, aposDataHora, aposId)) {
+                    pagina.add(transacao);
+                    if (pagina.size() == limite) {
+                        return pagina;
+                    }
+                }
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Todas as transações arquivadas da conta, do mês mais recente ao mais antigo.
+     */
+    public void percorrer(Catalogo foto, String contaId, Consumer<Transacao> consumidor) {
+        for (ArquivoMensalTransacoes arquivo : foto.meses().descendingMap().values()) {
+            ler(arquivo, contaId).forEach(consumidor);
+        }
+    }
+
+    /**
+     * Transações arquivadas da conta com inicio <= dataHora < fim, da mais antiga para a mais recente.
+     * Só um bloco (uma conta em um mês) fica em memória por vez.
+     */
+    public void percorrerPeriodo(Catalogo foto, String contaId, LocalDateTime inicio, LocalDateTime fim,
+                                 Consumer<Transacao> consumidor) {
+        if (foto.meses().isEmpty() || !inicio.isBefore(fim)) {
+            return;
+        }
+        YearMonth primeiro = YearMonth.from(inicio);
+        YearMonth ultimo = YearMonth.from(fim.minusNanos(1));
+        for (ArquivoMensalTransacoes arquivo : foto.meses().subMap(primeiro, true, ultimo, true).values()) {
+            // O bloco está na ordem do extrato (mais recente primeiro): percorre de trás para frente
+            for (Transacao transacao : ler(arquivo, contaId).reversed()) {
+                if (!transacao.getDataHora().isBefore(inicio) && transacao.getDataHora().isBefore(fim)) {
+                    consumidor.accept(transacao);
+                }
+            }
+        }
+    }
+
+    /**
+     * Soma (em centavos) das transações arquivadas da conta com desde < dataHora <= ate ({@code desde} nulo: sem limite).
+     * Meses inteiros dentro do período usam a soma do índice, sem descomprimir o bloco.
+     */
+    public long somarCentavos(Catalogo foto, String contaId, LocalDateTime desde, LocalDateTime ate) {
+        if (foto.meses().isEmpty()) {
+            return 0L;
+        }
+        YearMonth primeiro = desde == null ? foto.meses().firstKey() : YearMonth.from(desde);
+        YearMonth ultimo = YearMonth.from(ate);
+        if (ultimo.isBefore(primeiro)) {
+            return 0L;
+        }
+
+        long soma = 0L;
+        for (ArquivoMensalTransacoes arquivo : foto.meses().subMap(primeiro, true, ultimo, true).values()) {
+            Optional<ArquivoMensalTransacoes.Entrada> entrada = arquivo.entrada(contaId);
+            if (entrada.isEmpty()) {
+                continue;
+            }
+            LocalDateTime inicioDoMes = arquivo.mes().atDay(1).atStartOfDay();
+            LocalDateTime inicioDoProximo = arquivo.mes().plusMonths(1).atDay(1).atStartOfDay();
+            if ((desde == null || desde.isBefore(inicioDoMes)) && !ate.isBefore(inicioDoProximo)) {
+                soma += entrada.get().somaCentavos();
+            } else {
+                for (Transacao transacao : ler(arquivo, contaId)) {
+                    if ((desde == null || transacao.getDataHora().isAfter(desde)) && !transacao.getDataHora().isAfter(ate)) {
+                        soma += transacao.getValor().centavos();
+                    }
+                }
+            }
+        }
+        return soma;
+    }
+
+    private static Catalogo montarCatalogo(TreeMap<YearMonth, ArquivoMensalTransacoes> meses) {
+        LocalDateTime inicioQuente = meses.isEmpty()
+                ? SEM_ARQUIVO
+                : meses.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+        return new Catalogo(Collections.unmodifiableNavigableMap(meses), inicioQuente);
+    }
+
+    private static List<Transacao> ler(ArquivoMensalTransacoes arquivo, String contaId) {
+        try {
+            return arquivo.ler(contaId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // "Depois" na ordem do extrato (dataHora DESC, id DESC). O id é comparado como o banco compara BINARY(16):
+    // byte a byte sem sinal, que equivale a comparar as duas metades como long sem sinal.
+    private static boolean vemDepois(Transacao transacao, LocalDateTime dataHora, UUID id) {
+        int comparacao = transacao.getDataHora().compareTo(dataHora);
+        if (comparacao != 0) {
+            return comparacao < 0;
+        }
+        UUID outro = transacao.getId();
+        int msb = Long.compareUnsigned(outro.getMostSignificantBits(), id.getMostSignificantBits());
+        return msb != 0 ? msb < 0 : Long.compareUnsigned(outro.getLeastSignificantBits(), id.getLeastSignificantBits()) < 0;
+    }
+}
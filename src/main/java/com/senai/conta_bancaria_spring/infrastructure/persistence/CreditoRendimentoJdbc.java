@@ -0,0 +1,189 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.enums.TipoEventoConta;
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Crédito de rendimento da poupança em blocos, direto em SQL (sem carregar as entidades Conta).
+ * <p>
+ * Primeiro o bloco é listado (id e número, para o chamador pegar os locks das contas no ContaLockManager).
+ * Com os locks, as contas são lidas em uma consulta, o rendimento é calculado com Money (mesmo arredondamento
+ * de ContaPoupanca.aplicarRendimento) e gravado em três batches JDBC: UPDATE das contas, INSERT das
+ * Transacao e, com o ledger ligado, INSERT dos EventoConta. Deve rodar dentro da transação do chamador.
+ * <p>
+ * Com os locks, as operações dos clientes nessas contas esperam o commit do bloco. O UPDATE ainda confere
+ * a versão lida, como rede de segurança para quem altere a conta sem passar pelo lock: a conta é relida e
+ * recalculada. A coluna data_ultimo_rendimento impede que a mesma conta seja creditada duas vezes no mês.
+ */
+@Component
+public class CreditoRendimentoJdbc {
+
+    /**
+     * Conta elegível de um bloco: o id é o cursor da faixa e o número é a chave do lock da conta.
+     */
+    public record ContaElegivel(String id, Long numero) {}
+
+    /**
+     * Resultado de um bloco: contas lidas, creditadas e as que continuaram em conflito depois das novas
+     * tentativas (continuam elegíveis e são repassadas pelo chamador).
+     */
+    public record ResultadoBloco(int lidas, int creditadas, int conflitos) {}
+
+    private record ContaPoupancaLida(String id, long saldoCentavos, BigDecimal rendimento, long versao, long ultimaSequencia) {}
+
+    private record Credito(ContaPoupancaLida conta, Money valor) {}
+
+    private static final int TENTATIVAS_CONFLITO = 3;
+
+    private static final String COLUNAS = "id, saldo, rendimento, version, ultima_sequencia_evento";
+    private static final String ELEGIVEL = """
+            tipo_conta = 'Poupanca' AND ativa = TRUE
+              AND (data_ultimo_rendimento IS NULL OR data_ultimo_rendimento < ?)""";
+
+    private static final String SELECT_BLOCO = "SELECT id, numero FROM contas WHERE " + ELEGIVEL
+            + " AND id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BLOCO_COM_FIM = "SELECT id, numero FROM contas WHERE " + ELEGIVEL
+            + " AND id > ? AND id < ? ORDER BY id LIMIT ?";
+    private static final String SELECT_CONTAS = "SELECT " + COLUNAS + " FROM contas WHERE " + ELEGIVEL + " AND id IN (%s)";
+    private static final String SELECT_CONTA = "SELECT " + COLUNAS + " FROM contas WHERE " + ELEGIVEL + " AND id = ?";
+
+    private static final String UPDATE_CONTA = """
+            UPDATE contas SET saldo = saldo + ?, ultima_sequencia_evento = ?,
+                movimentos_desde_snapshot = COALESCE(movimentos_desde_snapshot, 0) + ?,
+                data_ultimo_rendimento = ?, version = version + 1
+            WHERE id = ? AND version = ?""";
+
+    private static final String INSERT_TRANSACAO =
+            "INSERT INTO transacoes (id, data_hora, tipo, valor, conta_id) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EVENTO =
+            "INSERT INTO eventos_conta (id, conta_id, sequencia, tipo, valor, data_hora) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<ContaElegivel> MAPEADOR_BLOCO = (rs, linha) -> new ContaElegivel(
+            rs.getString("id"),
+            rs.getLong("numero"));
+
+    private static final RowMapper<ContaPoupancaLida> MAPEADOR = (rs, linha) -> new ContaPoupancaLida(
+            rs.getString("id"),
+            rs.getLong("saldo"),
+            rs.getBigDecimal("rendimento"),
+            rs.getLong("version"),
+            rs.getLong("ultima_sequencia_evento")); // NULL -> 0: conta sem eventos
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CreditoRendimentoJdbc(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Próximas contas elegíveis da faixa, em ordem de id (índice da chave primária).
+     *
+     * @param aposId cursor exclusivo (início da faixa ou último id do bloco anterior)
+     * @param fim    limite exclusivo da faixa; nulo na última faixa
+     */
+    public List<ContaElegivel> listarBloco(LocalDate referencia, String aposId, String fim, int tamanho) {
+        return fim == null
+                ? jdbcTemplate.query(SELECT_BLOCO, MAPEADOR_BLOCO, referencia, aposId, tamanho)
+                : jdbcTemplate.query(SELECT_BLOCO_COM_FIM, MAPEADOR_BLOCO, referencia, aposId, fim, tamanho);
+    }
+
+    /**
+     * Credita o rendimento do mês às contas do bloco. O chamador deve estar segurando os locks delas.
+     */
+    public ResultadoBloco creditarBloco(LocalDate referencia, List<ContaElegivel> bloco, boolean gravarEventos) {
+        if (bloco.isEmpty()) {
+            return new ResultadoBloco(0, 0, 0);
+        }
+
+        // 1. Lê as contas em uma única consulta, já com os locks: saldo e versão são os atuais
+        //    (as que deixaram de ser elegíveis desde a listagem ficam de fora)
+        Object[] parametros = new Object[bloco.size() + 1];
+        parametros[0] = referencia;
+        for (int i = 0; i < bloco.size(); i++) {
+            parametros[i + 1] = bloco.get(i).id();
+        }
+        List<ContaPoupancaLida> contas = jdbcTemplate.query(
+                SELECT_CONTAS.formatted(String.join(", ", Collections.nCopies(bloco.size(), "?"))),
+                MAPEADOR, parametros);
+
+        // 2. Calcula e aplica; uma conta alterada sem o lock no meio do caminho é relida e tentada de novo
+        LocalDateTime agora = LocalDateTime.now();
+        List<Credito> creditados = new ArrayList<>(contas.size());
+        List<ContaPoupancaLida> pendentes = contas;
+        for (int tentativa = 0; tentativa < TENTATIVAS_CONFLITO && !pendentes.isEmpty(); tentativa++) {
+            if (tentativa > 0) {
+                pendentes = reler(pendentes, referencia);
+            }
+            pendentes = aplicar(pendentes, referencia, creditados);
+        }
+
+        // 3. Extrato e ledger só para quem de fato recebeu valor
+        List<Credito> comValor = creditados.stream().filter(credito -> !credito.valor().isZero()).toList();
+        jdbcTemplate.batchUpdate(INSERT_TRANSACAO, comValor.stream()
+                .map(credito -> new Object[]{
+                        UuidV7.paraBytes(UuidV7.gerar()), agora, TipoTransacao.RENDIMENTO.name(),
+                        credito.valor().centavos(), credito.conta().id()})
+                .toList());
+        if (gravarEventos) {
+            jdbcTemplate.batchUpdate(INSERT_EVENTO, comValor.stream()
+                    .map(credito -> new Object[]{
+                            UuidV7.paraBytes(UuidV7.gerar()), credito.conta().id(), credito.conta().ultimaSequencia() + 1,
+                            TipoEventoConta.RENDIMENTO.name(), credito.valor().centavos(), agora})
+                    .toList());
+        }
+
+        return new ResultadoBloco(bloco.size(), comValor.size(), pendentes.size());
+    }
+
+    // Um UPDATE por conta no mesmo batch; devolve as contas cuja versão mudou desde a leitura.
+    private List<ContaPoupancaLida> aplicar(List<ContaPoupancaLida> contas, LocalDate referencia, List<Credito> creditados) {
+        List<Credito> creditos = contas.stream().map(conta -> new Credito(conta, calcular(conta))).toList();
+        int[] atualizadas = jdbcTemplate.batchUpdate(UPDATE_CONTA, creditos.stream()
+                .map(credito -> {
+                    boolean movimento = !credito.valor().isZero();
+                    long sequencia = credito.conta().ultimaSequencia() + (movimento ? 1 : 0);
+                    return new Object[]{
+                            credito.valor().centavos(), sequencia, movimento ? 1 : 0,
+                            referencia, credito.conta().id(), credito.conta().versao()};
+                })
+                .toList());
+
+        List<ContaPoupancaLida> emConflito = new ArrayList<>();
+        for (int i = 0; i < atualizadas.length; i++) {
+            if (atualizadas[i] == 0) {
+                emConflito.add(creditos.get(i).conta());
+            } else {
+                creditados.add(creditos.get(i));
+            }
+        }
+        return emConflito;
+    }
+
+    // Relê as contas em conflito; as que deixaram de ser elegíveis (já creditadas, encerradas) saem da lista.
+    private List<ContaPoupancaLida> reler(List<ContaPoupancaLida> contas, LocalDate referencia) {
+        List<ContaPoupancaLida> relidas = new ArrayList<>(contas.size());
+        for (ContaPoupancaLida conta : contas) {
+            relidas.addAll(jdbcTemplate.query(SELECT_CONTA, MAPEADOR, referencia, conta.id()));
+        }
+        return relidas;
+    }
+
+    private static Money calcular(ContaPoupancaLida conta) {
+        if (conta.rendimento() == null) {
+            return Money.ZERO;
+        }
+        return Money.deCentavos(conta.saldoCentavos()).multiplicar(conta.rendimento(), Money.ARREDONDAMENTO);
+    }
+}
@@ -0,0 +1,19 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Gera a chave primária como UUID v7 (ordenado pelo tempo) no momento do INSERT.
+ * Use junto de {@code @JdbcTypeCode(SqlTypes.BINARY) @Column(length = 16)} para gravar os 16 bytes.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface IdUuidV7 {
+}
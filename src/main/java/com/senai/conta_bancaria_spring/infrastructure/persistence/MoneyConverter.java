@@ -0,0 +1,23 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.service.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava todo atributo Money como BIGINT em centavos (aplicado automaticamente a todas as entidades).
+ * Consultas nativas que somam essas colunas recebem centavos; ver TransacaoRepository e EventoContaRepository.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money valor) {
+        return valor == null ? null : valor.centavos();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long centavos) {
+        return centavos == null ? null : Money.deCentavos(centavos);
+    }
+}
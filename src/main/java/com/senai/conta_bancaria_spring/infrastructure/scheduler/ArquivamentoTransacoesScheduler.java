@@ -0,0 +1,154 @@
+package com.senai.conta_bancaria_spring.infrastructure.scheduler;
+
+import com.senai.conta_bancaria_spring.domain.repository.TransacaoArquivavel;
+import com.senai.conta_bancaria_spring.domain.repository.TransacaoRepository;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.ArquivoMensalTransacoes;
+import com.senai.conta_bancaria_spring.infrastructure.persistence.ArquivoTransacoes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Move para a camada fria (ArquivoTransacoes) os meses de transacoes mais antigos que o horizonte configurado.
+ * Um mês por vez, do mais antigo para o mais novo:
+ * <ol>
+ *     <li>grava o arquivo do mês (temporário, fsync, rename atômico);</li>
+ *     <li>publica o mês no catálogo: a partir daí as novas leituras ignoram essas linhas na tabela;</li>
+ *     <li>em uma execução seguinte, passada a carência (banco.arquivo.transacoes.carencia-exclusao-ms),
+ *     apaga as linhas do mês em blocos, cada um em uma transação curta.</li>
+ * </ol>
+ * A carência existe porque uma leitura que começou com a foto anterior do catálogo (página do extrato, stream,
+ * exportação, soma de saldo) ainda busca esse mês na tabela; ela deve ser maior que a leitura mais longa.
+ * Depois de um restart não há leitura com foto antiga: as sobras são invisíveis e apagadas na próxima execução.
+ */
+@Component
+@Slf4j
+public class ArquivamentoTransacoesScheduler {
+
+    private final TransacaoRepository transacaoRepository;
+    private final ArquivoTransacoes arquivoTransacoes;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${banco.arquivo.transacoes.horizonte-meses}")
+    private int horizonteMeses;
+
+    @Value("${banco.arquivo.transacoes.tamanho-bloco-exclusao}")
+    private int tamanhoBlocoExclusao;
+
+    @Value("${banco.arquivo.transacoes.carencia-exclusao-ms}")
+    private long carenciaExclusaoMs;
+
+    // Última publicação feita por este processo e o limite de exclusão que valia antes dela (enquanto em carência)
+    private Instant ultimaPublicacao;
+    private LocalDateTime limiteAntesDaPublicacao;
+
+    public ArquivamentoTransacoesScheduler(TransacaoRepository transacaoRepository,
+                                           ArquivoTransacoes arquivoTransacoes,
+                                           TransactionTemplate transactionTemplate) {
+        this.transacaoRepository = transacaoRepository;
+        this.arquivoTransacoes = arquivoTransacoes;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Executa todo dia (padrão: 03:30); só há trabalho quando um mês sai do horizonte ou uma execução anterior parou no meio.
+    @Scheduled(cron = "${app.scheduler.arquivamento-transacoes.cron}")
+    public void arquivarMesesAntigos() {
+        if (!arquivoTransacoes.habilitado()) {
+            return;
+        }
+        // Meses anteriores a este saem da tabela (o mês atual e os N anteriores ficam quentes).
+        YearMonth primeiroMesQuente = YearMonth.now().minusMonths(horizonteMeses);
+
+        // 1. Linhas dos meses publicados há mais que a carência (ou antes do restart)
+        LocalDateTime liberado = limiteExclusao();
+        long excluidas = excluirAnterioresA(liberado);
+        if (excluidas > 0) {
+            log.info(">>> SCHEDULER: {} transações já arquivadas (anteriores a {}) removidas da tabela.", excluidas, liberado);
+        }
+
+        // 2. Próximo mês a arquivar: o seguinte ao último arquivo ou, no primeiro arquivamento, o da transação mais antiga
+        YearMonth mes = arquivoTransacoes.catalogo().ultimoMes()
+                .map(ultimo -> ultimo.plusMonths(1))
+                .orElseGet(() -> {
+                    LocalDateTime maisAntiga = transacaoRepository.buscarDataHoraMaisAntiga();
+                    return maisAntiga == null ? null : YearMonth.from(maisAntiga);
+                });
+
+        while (mes != null && mes.isBefore(primeiroMesQuente)) {
+            long inicio = System.currentTimeMillis();
+            long linhas = arquivarMes(mes);
+            // As linhas ficam na tabela até passar a carência: leituras em andamento ainda usam a foto anterior
+            limiteAntesDaPublicacao = liberado;
+            ultimaPublicacao = Instant.now();
+            log.info(">>> SCHEDULER: Transações de {} arquivadas: {} linhas ({} ms); removidas da tabela após a carência.",
+                    mes, linhas, System.currentTimeMillis() - inicio);
+            mes = mes.plusMonths(1);
+        }
+    }
+
+    // Grava e publica o arquivo do mês; devolve a quantidade de linhas arquivadas.
+    private long arquivarMes(YearMonth mes) {
+        LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+        LocalDateTime fim = mes.plusMonths(1).atDay(1).atStartOfDay();
+        AtomicLong linhas = new AtomicLong();
+
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(arquivoTransacoes.diretorio(), mes)) {
+            // Cursor do banco, em uma transação somente leitura: o mês nunca fica inteiro em memória
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransacaoArquivavel> mesInteiro = transacaoRepository.streamParaArquivamento(inicio, fim)) {
+                    mesInteiro.forEach(linha -> {
+                        try {
+                            escritor.adicionar(linha.contaId(), linha.id(), linha.dataHora(), linha.tipo().name(),
+                                    linha.valor().centavos(), linha.contaDestinoNumero());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        linhas.incrementAndGet();
+                    });
+                }
+            });
+            Path caminho = escritor.concluir();
+            arquivoTransacoes.publicar(ArquivoMensalTransacoes.abrir(caminho));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao arquivar as transações de " + mes, e);
+        }
+        return linhas.get();
+    }
+
+    // Início da tabela quente no catálogo atual, ou o de antes da última publicação se ela ainda está em carência.
+    private LocalDateTime limiteExclusao() {
+        if (ultimaPublicacao != null && Instant.now().isBefore(ultimaPublicacao.plusMillis(carenciaExclusaoMs))) {
+            return limiteAntesDaPublicacao;
+        }
+        return arquivoTransacoes.catalogo().inicioQuente();
+    }
+
+    // Apaga em blocos as linhas anteriores ao limite (já publicadas nos arquivos).
+    private long excluirAnterioresA(LocalDateTime limite) {
+        long excluidas = 0;
+        int excluidasNoBloco;
+        do {
+            Integer resultado = transactionTemplate.execute(status -> {
+                List<UUID> ids = transacaoRepository.buscarIdsAnterioresA(limite, Limit.of(tamanhoBlocoExclusao));
+                return ids.isEmpty() ? 0 : transacaoRepository.excluirPorIds(ids);
+            });
+            excluidasNoBloco = resultado == null ? 0 : resultado;
+            excluidas += excluidasNoBloco;
+        } while (excluidasNoBloco >= tamanhoBlocoExclusao);
+        return excluidas;
+    }
+}
@@ -0,0 +1,33 @@
+package com.senai.conta_bancaria_spring.infrastructure.scheduler;
+
+import com.senai.conta_bancaria_spring.domain.repository.ChaveIdempotenciaRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class LimpezaChavesIdempotenciaScheduler {
+
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    public LimpezaChavesIdempotenciaScheduler(ChaveIdempotenciaRepository chaveIdempotenciaRepository) {
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+    }
+
+    // Apaga em um único DELETE as respostas de Idempotency-Key que passaram do TTL
+    @Scheduled(fixedRateString = "${app.scheduler.limpeza-idempotencia.fixed-rate}")
+    @Transactional
+    public void limparChavesExpiradas() {
+        int deletadas = chaveIdempotenciaRepository.excluirExpiradas(LocalDateTime.now());
+
+        if (deletadas > 0) {
+            log.info(">>> SCHEDULER: Limpeza de chaves de idempotência executada. {} respostas expiradas removidas.", deletadas);
+        } else {
+            log.debug(">>> SCHEDULER: Limpeza de chaves de idempotência executada. Nenhuma resposta expirada.");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.senai.conta_bancaria_spring.infrastructure.scheduler;
+
+import com.senai.conta_bancaria_spring.domain.repository.CodigoAutenticacaoRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@Slf4j
+public class LimpezaCodigosAutenticacaoScheduler {
+
+    private final CodigoAutenticacaoRepository codigoAutenticacaoRepository;
+
+    public LimpezaCodigosAutenticacaoScheduler(CodigoAutenticacaoRepository codigoAutenticacaoRepository) {
+        this.codigoAutenticacaoRepository = codigoAutenticacaoRepository;
+    }
+
+    // Apaga em um único DELETE os códigos 2FA já validados ou expirados (que não estão mais no índice em memória)
+    @Scheduled(fixedRateString = "${app.scheduler.limpeza-codigos.fixed-rate}")
+    @Transactional
+    public void limparCodigosEncerrados() {
+        // Margem de 10 minutos após a expiração, a mesma usada na limpeza das transações pendentes.
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(10);
+
+        int deletados = codigoAutenticacaoRepository.excluirEncerrados(limite);
+
+        if (deletados > 0) {
+            log.info(">>> SCHEDULER: Limpeza de códigos 2FA executada. {} códigos validados/expirados removidos.", deletados);
+        } else {
+            log.debug(">>> SCHEDULER: Limpeza de códigos 2FA executada. Nenhum código encerrado.");
+        }
+    }
+}
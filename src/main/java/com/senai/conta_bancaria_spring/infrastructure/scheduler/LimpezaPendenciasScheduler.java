@@ -1,41 +1,81 @@
 package com.senai.conta_bancaria_spring.infrastructure.scheduler;
 
 import com.senai.conta_bancaria_spring.domain.repository.TransacaoPendenteRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @Slf4j
 public class LimpezaPendenciasScheduler {
 
+    /**
+     * Métricas da limpeza: total acumulado e dados da última execução.
+     */
+    public record Metricas(long totalExcluidas, long execucoes, long excluidasUltimaExecucao,
+                           long blocosUltimaExecucao, long duracaoUltimaExecucaoMs) {}
+
     private final TransacaoPendenteRepository transacaoPendenteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong totalExcluidas = new AtomicLong();
+    private final AtomicLong execucoes = new AtomicLong();
+    private volatile Metricas ultimaExecucao = new Metricas(0, 0, 0, 0, 0);
+
+    @Value("${app.scheduler.limpeza-pendencias.tamanho-bloco}")
+    private int tamanhoBloco;
 
-    public LimpezaPendenciasScheduler(TransacaoPendenteRepository transacaoPendenteRepository) {
+    public LimpezaPendenciasScheduler(TransacaoPendenteRepository transacaoPendenteRepository,
+                                      TransactionTemplate transactionTemplate) {
         this.transacaoPendenteRepository = transacaoPendenteRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     // Executa a cada 10 minutos (600000 ms)
     @Scheduled(fixedRateString = "${app.scheduler.limpeza-pendencias.fixed-rate}")
-    @Transactional
     public void limparTransacoesExpiradas() {
+        long inicio = System.currentTimeMillis();
         // Define o limite como 10 minutos atrás. Tudo que for mais velho que isso e ainda estiver pendente, será apagado.
         LocalDateTime limite = LocalDateTime.now().minusMinutes(10);
 
-        long countAntes = transacaoPendenteRepository.count();
-        transacaoPendenteRepository.deleteByDataCriacaoBefore(limite);
-        long countDepois = transacaoPendenteRepository.count();
+        // Apaga em blocos, cada um em uma transação curta, até não sobrar nenhum expirado.
+        // A contagem vem do próprio DELETE (sem count() antes/depois).
+        long deletados = 0;
+        long blocos = 0;
+        int excluidasNoBloco;
+        do {
+            Integer resultado = transactionTemplate.execute(status -> {
+                List<String> ids = transacaoPendenteRepository.buscarIdsExpirados(limite, Limit.of(tamanhoBloco));
+                return ids.isEmpty() ? 0 : transacaoPendenteRepository.excluirPorIds(ids);
+            });
+            excluidasNoBloco = resultado == null ? 0 : resultado;
+            deletados += excluidasNoBloco;
+            if (excluidasNoBloco > 0) {
+                blocos++;
+            }
+        } while (excluidasNoBloco >= tamanhoBloco);
 
-        long deletados = countAntes - countDepois;
+        long duracaoMs = System.currentTimeMillis() - inicio;
+        ultimaExecucao = new Metricas(totalExcluidas.addAndGet(deletados), execucoes.incrementAndGet(),
+                deletados, blocos, duracaoMs);
 
         if (deletados > 0) {
-            log.info(">>> SCHEDULER: Limpeza de transações pendentes executada. {} registros expirados removidos.", deletados);
+            log.info(">>> SCHEDULER: Limpeza de transações pendentes executada. {} registros expirados removidos em {} blocos ({} ms).",
+                    deletados, blocos, duracaoMs);
         } else {
             log.debug(">>> SCHEDULER: Limpeza de transações pendentes executada. Nenhum registro expirado.");
         }
     }
+
+    public Metricas metricas() {
+        return ultimaExecucao;
+    }
 }
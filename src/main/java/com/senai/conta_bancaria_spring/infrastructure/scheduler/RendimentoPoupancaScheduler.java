@@ -0,0 +1,35 @@
+package com.senai.conta_bancaria_spring.infrastructure.scheduler;
+
+import com.senai.conta_bancaria_spring.application.service.RendimentoPoupancaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@Slf4j
+public class RendimentoPoupancaScheduler {
+
+    private final RendimentoPoupancaService rendimentoPoupancaService;
+
+    public RendimentoPoupancaScheduler(RendimentoPoupancaService rendimentoPoupancaService) {
+        this.rendimentoPoupancaService = rendimentoPoupancaService;
+    }
+
+    // Executa no início de cada mês (padrão: dia 1 às 02:00). Antes, termina algum mês que tenha ficado pela metade.
+    @Scheduled(cron = "${app.scheduler.rendimento-poupanca.cron}")
+    public void creditarRendimentoMensal() {
+        log.info(">>> SCHEDULER: Crédito de rendimento da poupança iniciado.");
+        rendimentoPoupancaService.retomarInterrompidas();
+        rendimentoPoupancaService.creditarMes(LocalDate.now());
+    }
+
+    // Depois de uma queda no meio do crédito, continua do último checkpoint assim que a aplicação sobe.
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarAposReinicio() {
+        rendimentoPoupancaService.retomarInterrompidas();
+    }
+}
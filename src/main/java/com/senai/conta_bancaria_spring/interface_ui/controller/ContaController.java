@@ -1,43 +1,66 @@
 package com.senai.conta_bancaria_spring.interface_ui.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.senai.conta_bancaria_spring.application.dto.*;
 import com.senai.conta_bancaria_spring.application.service.AutenticacaoIoTService;
+import com.senai.conta_bancaria_spring.application.service.OperacaoLoteService;
 import com.senai.conta_bancaria_spring.application.service.PagamentoAppService;
 import com.senai.conta_bancaria_spring.application.service.TransacaoPendenteService;
 import com.senai.conta_bancaria_spring.domain.entity.Conta;
 import com.senai.conta_bancaria_spring.domain.service.ContaServiceDomain;
+import com.senai.conta_bancaria_spring.domain.service.Money;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/contas")
 @Tag(name = "3. Operações de Conta (Cliente)", description = "Endpoints para operações financeiras. Requer ROLE_CLIENTE e posse da conta.")
 public class ContaController {
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final String MEDIA_TYPE_CSV = "text/csv;charset=UTF-8";
+
     private final ContaServiceDomain contaService;
     private final PagamentoAppService pagamentoAppService;
     private final AutenticacaoIoTService autenticacaoIoTService;
     private final TransacaoPendenteService transacaoPendenteService;
+    private final OperacaoLoteService operacaoLoteService;
+    private final ObjectMapper objectMapper;
 
     public ContaController(ContaServiceDomain contaService,
                            PagamentoAppService pagamentoAppService,
                            AutenticacaoIoTService autenticacaoIoTService,
-                           TransacaoPendenteService transacaoPendenteService) {
+                           TransacaoPendenteService transacaoPendenteService,
+                           OperacaoLoteService operacaoLoteService,
+                           ObjectMapper objectMapper) {
         this.contaService = contaService;
         this.pagamentoAppService = pagamentoAppService;
         this.autenticacaoIoTService = autenticacaoIoTService;
         this.transacaoPendenteService = transacaoPendenteService;
+        this.operacaoLoteService = operacaoLoteService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Realiza um depósito (CLIENTE)",
@@ -58,10 +81,29 @@ public class ContaController {
     })
     @PostMapping("/{numeroConta}/depositar")
     public ResponseEntity<Map<String, String>> depositar(@PathVariable Long numeroConta, @Valid @RequestBody OperacaoRequestDTO dto) {
-        contaService.depositar(numeroConta, dto.valor());
+        contaService.depositar(numeroConta, Money.de(dto.valor()));
         return ResponseEntity.ok(Map.of("mensagem", "Depósito realizado com sucesso."));
     }
 
+    @Operation(summary = "Processa um lote de depósitos e transferências (GERENTE)",
+            description = "Recebe uma lista grande de operações (ex: folha de pagamento), agrupa por conta e grava em blocos. " +
+                    "Cada item recebe seu próprio resultado; a falha de um item não impede os demais. Requer ROLE_GERENTE.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado (verifique o resultado de cada item)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoLoteDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, inválido ou acima do limite de itens",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (requer ROLE_GERENTE)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> processarLote(@Valid @RequestBody OperacaoLoteRequestDTO dto) {
+        return ResponseEntity.ok(operacaoLoteService.processarLote(dto));
+    }
+
     @Operation(summary = "Solicita um saque (CLIENTE)",
             description = "Inicia uma solicitação de saque. Requer confirmação biométrica via IoT para ser concluído.")
     @ApiResponses(value = {
@@ -114,11 +156,16 @@ public class ContaController {
 
     // ENDPOINT PARA O EXTRATO
     @Operation(summary = "Busca o extrato da conta (CLIENTE)",
-            description = "Retorna a lista de transações da conta, ordenadas da mais recente para a mais antiga. Requer ROLE_CLIENTE e ser o proprietário da conta.")
+            description = "Retorna uma página de transações da conta, ordenadas da mais recente para a mais antiga. " +
+                    "Use o 'proximoCursor' da resposta no parâmetro 'cursor' para buscar a página seguinte. " +
+                    "O tamanho da página é limitado a 200. Requer ROLE_CLIENTE e ser o proprietário da conta.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Extrato recuperado com sucesso",
                     content = @Content(mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = TransacaoResponseDTO.class)))),
+                            schema = @Schema(implementation = ExtratoPaginaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "403", description = "Acesso negado (não é o proprietário da conta)",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Map.class))),
@@ -127,11 +174,154 @@ public class ContaController {
                             schema = @Schema(implementation = Map.class)))
     })
     @GetMapping("/{numeroConta}/extrato")
-    public ResponseEntity<List<TransacaoResponseDTO>> buscarExtrato(@PathVariable Long numeroConta) {
-        List<TransacaoResponseDTO> extrato = contaService.buscarExtratoPorNumeroConta(numeroConta);
+    public ResponseEntity<ExtratoPaginaDTO> buscarExtrato(@PathVariable Long numeroConta,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer tamanho) {
+        ExtratoPaginaDTO extrato = contaService.buscarExtratoPorNumeroConta(numeroConta, cursor, tamanho);
         return ResponseEntity.ok(extrato);
     }
 
+    @Operation(summary = "Consulta o saldo da conta em um instante (CLIENTE)",
+            description = "Retorna o saldo atual ou, se o parâmetro 'em' for informado (ISO-8601), o saldo naquele instante. " +
+                    "O cálculo parte do snapshot de saldo mais próximo. Requer ROLE_CLIENTE e ser o proprietário da conta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Saldo calculado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SaldoResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (não é o proprietário da conta)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/{numeroConta}/saldo")
+    public ResponseEntity<SaldoResponseDTO> consultarSaldo(
+            @PathVariable Long numeroConta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime em) {
+        return ResponseEntity.ok(contaService.consultarSaldoEm(numeroConta, em));
+    }
+
+    @Operation(summary = "Concilia o saldo da conta com o ledger de eventos (GERENTE)",
+            description = "Reconstrói o saldo a partir do último snapshot mais os eventos posteriores a ele e compara " +
+                    "com o saldo gravado na conta. Requer o ledger de eventos ligado e ROLE_GERENTE.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conciliação calculada (verifique o campo 'conciliado')",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ConciliacaoSaldoDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Ledger de eventos desligado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (requer ROLE_GERENTE)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/{numeroConta}/conciliacao")
+    public ResponseEntity<ConciliacaoSaldoDTO> conciliarSaldo(@PathVariable Long numeroConta) {
+        return ResponseEntity.ok(contaService.conciliarSaldo(numeroConta));
+    }
+
+    @Operation(summary = "Transmite o extrato completo em NDJSON (CLIENTE)",
+            description = "Envia todas as transações da conta, uma por linha (JSON), à medida que são lidas do banco. " +
+                    "Indicado para históricos longos. Requer ROLE_CLIENTE e ser o proprietário da conta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extrato sendo transmitido",
+                    content = @Content(mediaType = MEDIA_TYPE_NDJSON,
+                            schema = @Schema(implementation = TransacaoResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (não é o proprietário da conta)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping(path = "/{numeroConta}/extrato/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> transmitirExtrato(@PathVariable Long numeroConta) {
+        // A validação acontece aqui, na thread da requisição; o corpo é escrito depois, de forma assíncrona.
+        String contaId = contaService.validarAcessoAoExtrato(numeroConta);
+
+        StreamingResponseBody corpo = saida -> contaService.transmitirExtrato(contaId, transacao -> {
+            try {
+                saida.write(objectMapper.writeValueAsBytes(transacao));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(corpo);
+    }
+
+    @Operation(summary = "Exporta o extrato de um período em CSV compactado (CLIENTE)",
+            description = "Gera o extrato entre as datas 'de' e 'ate' (inclusive, ISO-8601), da transação mais antiga para a mais recente, " +
+                    "em CSV compactado com gzip (Content-Encoding: gzip). As linhas são escritas à medida que são lidas do banco, " +
+                    "então o período pode ser longo (ex: um ano inteiro). Requer ROLE_CLIENTE e ser o proprietário da conta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Extrato sendo transmitido",
+                    content = @Content(mediaType = MEDIA_TYPE_CSV)),
+            @ApiResponse(responseCode = "400", description = "Período ou formato inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (não é o proprietário da conta)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class)))
+    })
+    @GetMapping("/{numeroConta}/extrato/export")
+    public ResponseEntity<StreamingResponseBody> exportarExtrato(
+            @PathVariable Long numeroConta,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(defaultValue = "csv") String formato) {
+        // 1. Valida tudo antes de começar a escrever (depois disso não há mais como responder com erro)
+        if (!"csv".equalsIgnoreCase(formato)) {
+            throw new IllegalArgumentException("Formato de exportação não suportado: " + formato + ". Use 'csv'.");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data 'ate' deve ser igual ou posterior à data 'de'.");
+        }
+        String contaId = contaService.validarAcessoAoExtrato(numeroConta);
+
+        // 2. Cada linha vai direto do cursor para o gzip; só o buffer do compressor fica em memória
+        StreamingResponseBody corpo = saida -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(saida, 8 * 1024);
+            Writer csv = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 8 * 1024);
+            csv.write("data_hora,tipo,valor,conta_destino_numero\n");
+            contaService.transmitirExtratoPorPeriodo(contaId, de, ate, transacao -> {
+                try {
+                    csv.write(transacao.dataHora().toString());
+                    csv.write(',');
+                    csv.write(transacao.tipo().name());
+                    csv.write(',');
+                    csv.write(transacao.valor().toPlainString());
+                    csv.write(',');
+                    if (transacao.contaDestinoNumero() != null) {
+                        csv.write(transacao.contaDestinoNumero().toString());
+                    }
+                    csv.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            csv.flush();
+            gzip.finish(); // Escreve o rodapé do gzip; a saída em si é fechada pelo Spring
+        };
+
+        String nomeArquivo = "extrato-" + numeroConta + "-" + de + "-" + ate + ".csv";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_CSV))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                .body(corpo);
+    }
+
     @Operation(summary = "Atualiza parâmetros da Conta Corrente (CLIENTE)",
             description = "Permite ao proprietário da conta atualizar o limite e/ou taxa (parcialmente). Requer ROLE_CLIENTE e ser o proprietário da conta.")
     @ApiResponses(value = {
@@ -1,7 +1,7 @@
 package com.senai.conta_bancaria_spring.interface_ui.controller;
 
+import com.senai.conta_bancaria_spring.application.dto.ClienteAutenticadoDTO;
 import com.senai.conta_bancaria_spring.application.service.SseNotificacaoService;
-import com.senai.conta_bancaria_spring.domain.entity.Cliente;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -28,19 +29,21 @@ public class NotificacaoController {
 
     @Operation(summary = "Assina o feed de notificações (CLIENTE)",
             description = "Estabelece uma conexão Server-Sent Events (SSE) para receber " +
-                    "notificações em tempo real sobre o status de operações assíncronas (saque, pagamento, etc).")
+                    "notificações em tempo real sobre o status de operações assíncronas (saque, pagamento, etc). " +
+                    "Notificações geradas enquanto o cliente estava desconectado são reenviadas ao conectar, " +
+                    "exceto as já recebidas (cabeçalho Last-Event-ID).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Conexão estabelecida"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Acesso negado")
     })
     @GetMapping(path = "/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter assinarNotificacoes() {
+    public SseEmitter assinarNotificacoes(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
         // Pega o cliente autenticado da mesma forma que o ContaServiceDomain faz
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Cliente clienteAutenticado = (Cliente) authentication.getPrincipal();
-        String clienteId = clienteAutenticado.getId();
+        ClienteAutenticadoDTO clienteAutenticado = (ClienteAutenticadoDTO) authentication.getPrincipal();
+        String clienteId = clienteAutenticado.id();
 
-        return sseService.criarEmitter(clienteId);
+        return sseService.criarEmitter(clienteId, ultimoEventoId);
     }
 }
@@ -1,5 +1,7 @@
 package com.senai.conta_bancaria_spring.interface_ui.controller;
 
+import com.senai.conta_bancaria_spring.application.dto.CotacaoRequestDTO;
+import com.senai.conta_bancaria_spring.application.dto.CotacaoResponseDTO;
 import com.senai.conta_bancaria_spring.application.dto.TaxaRequestDTO;
 import com.senai.conta_bancaria_spring.application.dto.TaxaResponseDTO;
 import com.senai.conta_bancaria_spring.application.service.TaxaService;
@@ -46,6 +48,17 @@ public class TaxaController {
         return ResponseEntity.ok(taxaService.listarTodas());
     }
 
+    @Operation(summary = "Cota o custo de vários boletos (CLIENTE/GERENTE)", description = "Calcula, sem debitar, o custo total de cada valor de boleto com a combinação de taxas informada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cotação calculada"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Uma ou mais taxas não encontradas")
+    })
+    @PostMapping("/cotacao")
+    public ResponseEntity<CotacaoResponseDTO> cotar(@Valid @RequestBody CotacaoRequestDTO dto) {
+        return ResponseEntity.ok(taxaService.cotar(dto));
+    }
+
     @Operation(summary = "Busca uma taxa por ID (GERENTE)", description = "Retorna os detalhes de uma taxa específica.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Taxa encontrada"),
@@ -67,6 +67,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDTO, HttpStatus.CONFLICT); // Retorna o status 409 Conflict.
     }
 
+    @ExceptionHandler(ContaOcupadaException.class) // Timeout aguardando o lock da conta.
+    public ResponseEntity<ApiErrorDTO> handleContaOcupadaException(ContaOcupadaException ex, HttpServletRequest request) {
+        return buildErrorResponse(ex, HttpStatus.CONFLICT, request);
+    }
+
     @ExceptionHandler(RecursoNaoEncontradoException.class)
     public ResponseEntity<ApiErrorDTO> handleRecursoNaoEncontradoException(RecursoNaoEncontradoException ex, HttpServletRequest request) {
         return buildErrorResponse(ex, HttpStatus.NOT_FOUND, request);
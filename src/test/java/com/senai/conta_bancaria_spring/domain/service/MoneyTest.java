@@ -0,0 +1,112 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+import com.senai.conta_bancaria_spring.domain.exception.ValorInvalidoException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void converteValoresComAteDuasCasasDecimais() {
+        assertEquals(150L, Money.de(new BigDecimal("1.5")).centavos());
+        assertEquals(123L, Money.de(new BigDecimal("1.23")).centavos());
+        assertEquals(123L, Money.de(new BigDecimal("1.2300")).centavos()); // zeros à direita não contam
+        assertEquals(-5L, Money.de(new BigDecimal("-0.05")).centavos());
+        assertEquals(new BigDecimal("1.23"), Money.deCentavos(123).paraBigDecimal());
+    }
+
+    @Test
+    void recusaMaisDeDuasCasasDecimais() {
+        ValorInvalidoException erro = assertThrows(ValorInvalidoException.class,
+                () -> Money.de(new BigDecimal("1.234")));
+        assertEquals("O valor 1.234 deve ter no máximo 2 casas decimais e caber no limite suportado.", erro.getMessage());
+    }
+
+    @Test
+    void recusaValorForaDoLimite() {
+        assertThrows(ValorInvalidoException.class,
+                () -> Money.de(BigDecimal.valueOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void recusaValorNuloComMensagemClara() {
+        ValorInvalidoException erro = assertThrows(ValorInvalidoException.class, () -> Money.de(null));
+        assertEquals("O valor é obrigatório.", erro.getMessage());
+    }
+
+    @Test
+    void somaESubtracaoVerificamEstouro() {
+        Money maximo = Money.deCentavos(Long.MAX_VALUE);
+        Money minimo = Money.deCentavos(Long.MIN_VALUE);
+
+        assertThrows(ValorInvalidoException.class, () -> maximo.somar(Money.deCentavos(1)));
+        assertThrows(ValorInvalidoException.class, () -> minimo.subtrair(Money.deCentavos(1)));
+        assertThrows(ValorInvalidoException.class, minimo::negar);
+        assertEquals(Long.MAX_VALUE, maximo.subtrair(Money.ZERO).centavos());
+    }
+
+    @Test
+    void deReaisVerificaEstouro() {
+        assertEquals(1_000L, Money.deReais(10).centavos());
+        assertThrows(ValorInvalidoException.class, () -> Money.deReais(Long.MAX_VALUE / 10));
+    }
+
+    @Test
+    void multiplicacaoPorTaxaEscaladaArredondaMeioParaOPar() {
+        // 0,5% de R$ 1,00 = 0,5 centavo -> 0 (par); 0,5% de R$ 3,00 = 1,5 centavo -> 2 (par)
+        assertEquals(0L, Money.deCentavos(100).multiplicar(5, 3, Money.ARREDONDAMENTO).centavos());
+        assertEquals(2L, Money.deCentavos(300).multiplicar(5, 3, Money.ARREDONDAMENTO).centavos());
+        assertEquals(1L, Money.deCentavos(300).multiplicar(5, 3, RoundingMode.DOWN).centavos());
+    }
+
+    @Test
+    void multiplicacaoComProdutoIntermediarioForaDoLongAindaDaOResultado() {
+        Money grande = Money.deCentavos(Long.MAX_VALUE / 2);
+        // fator 0,2: o produto centavos * 2 estoura o long, mas o resultado cabe
+        Money esperado = Money.deCentavos(BigDecimal.valueOf(Long.MAX_VALUE / 2).multiply(new BigDecimal("0.2"))
+                .setScale(0, Money.ARREDONDAMENTO).longValueExact());
+
+        assertEquals(esperado, grande.multiplicar(2, 1, Money.ARREDONDAMENTO));
+        assertThrows(ValorInvalidoException.class, () -> grande.multiplicar(30, 1, Money.ARREDONDAMENTO));
+    }
+
+    @Test
+    void dividirArredondandoMeioParaOPar() {
+        assertEquals(2L, Money.dividirArredondando(25, 10, RoundingMode.HALF_EVEN));
+        assertEquals(4L, Money.dividirArredondando(35, 10, RoundingMode.HALF_EVEN));
+        assertEquals(-2L, Money.dividirArredondando(-25, 10, RoundingMode.HALF_EVEN));
+        assertEquals(-4L, Money.dividirArredondando(-35, 10, RoundingMode.HALF_EVEN));
+        assertEquals(3L, Money.dividirArredondando(26, 10, RoundingMode.HALF_EVEN));
+        assertEquals(3L, Money.dividirArredondando(25, 10, RoundingMode.HALF_UP));
+        assertEquals(2L, Money.dividirArredondando(25, 10, RoundingMode.HALF_DOWN));
+    }
+
+    @Test
+    void dividirArredondandoConcordaComBigDecimalEmTodosOsModos() {
+        long[] divisores = {1, 2, 3, 10, 1_000, 10_000};
+        for (RoundingMode modo : RoundingMode.values()) {
+            if (modo == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long divisor : divisores) {
+                for (long dividendo = -2_500; dividendo <= 2_500; dividendo += 7) {
+                    long esperado = BigDecimal.valueOf(dividendo)
+                            .divide(BigDecimal.valueOf(divisor), 0, modo).longValueExact();
+                    assertEquals(esperado, Money.dividirArredondando(dividendo, divisor, modo),
+                            dividendo + " / " + divisor + " " + modo);
+                }
+            }
+        }
+    }
+
+    @Test
+    void dividirArredondandoSemArredondamentoPermitidoFalhaQuandoHaResto() {
+        assertEquals(3L, Money.dividirArredondando(30, 10, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.dividirArredondando(31, 10, RoundingMode.UNNECESSARY));
+    }
+}
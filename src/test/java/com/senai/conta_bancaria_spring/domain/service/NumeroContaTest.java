@@ -0,0 +1,90 @@
+package com.senai.conta_bancaria_spring.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumeroContaTest {
+
+    @Test
+    void digitoSegueOExemploClassicoDeLuhn() {
+        // 7992739871 -> 79927398713
+        assertEquals(3, NumeroConta.calcularDigito(7_992_739_871L));
+    }
+
+    @Test
+    void primeiroSequencialGeraOMenorNumeroDoFormato() {
+        long numero = NumeroConta.gerar(0);
+
+        assertEquals(100_000_009L, numero);
+        assertTrue(numero >= NumeroConta.MENOR_NUMERO);
+        assertTrue(NumeroConta.possuiDigitoVerificador(numero));
+        assertTrue(NumeroConta.digitoValido(numero));
+    }
+
+    @Test
+    void contasAntigasSemVerificadorFicamForaDoFormato() {
+        assertFalse(NumeroConta.possuiDigitoVerificador(123_456L));
+        assertFalse(NumeroConta.possuiDigitoVerificador(NumeroConta.MENOR_NUMERO - 1));
+        assertTrue(NumeroConta.possuiDigitoVerificador(NumeroConta.MENOR_NUMERO));
+    }
+
+    @Test
+    void numerosNasBordasDeBlocoSaoConsecutivosEValidos() {
+        // Último sequencial de um bloco de 100 e primeiro do seguinte
+        long ultimoDoBloco = NumeroConta.gerar(99);
+        long primeiroDoProximo = NumeroConta.gerar(100);
+
+        assertEquals(10_000_099L, ultimoDoBloco / 10);
+        assertEquals(10_000_100L, primeiroDoProximo / 10);
+        assertTrue(NumeroConta.digitoValido(ultimoDoBloco));
+        assertTrue(NumeroConta.digitoValido(primeiroDoProximo));
+    }
+
+    @Test
+    void numeroGanhaUmDigitoQuandoOCorpoPassaDeOitoDigitos() {
+        long ultimoDeNoveDigitos = NumeroConta.gerar(89_999_999L);
+        long primeiroDeDezDigitos = NumeroConta.gerar(90_000_000L);
+
+        assertEquals(9, Long.toString(ultimoDeNoveDigitos).length());
+        assertEquals(10, Long.toString(primeiroDeDezDigitos).length());
+        assertEquals(100_000_000L, primeiroDeDezDigitos / 10);
+        assertTrue(NumeroConta.digitoValido(ultimoDeNoveDigitos));
+        assertTrue(NumeroConta.digitoValido(primeiroDeDezDigitos));
+    }
+
+    @Test
+    void qualquerErroEmUmUnicoDigitoEDetectado() {
+        long numero = NumeroConta.gerar(4_321L);
+        String digitos = Long.toString(numero);
+
+        for (int posicao = 0; posicao < digitos.length(); posicao++) {
+            for (char trocado = '0'; trocado <= '9'; trocado++) {
+                if (trocado == digitos.charAt(posicao) || (posicao == 0 && trocado == '0')) {
+                    continue;
+                }
+                long errado = Long.parseLong(digitos.substring(0, posicao) + trocado + digitos.substring(posicao + 1));
+                assertFalse(NumeroConta.digitoValido(errado), "não detectou " + errado);
+            }
+        }
+    }
+
+    @Test
+    void trocaDeDigitosVizinhosEDetectada() {
+        // Luhn não pega só a troca 09 <-> 90; o corpo 10001234 não tem esse par
+        long numero = NumeroConta.gerar(1_234L);
+        String digitos = Long.toString(numero);
+
+        for (int posicao = 0; posicao + 1 < digitos.length(); posicao++) {
+            char a = digitos.charAt(posicao);
+            char b = digitos.charAt(posicao + 1);
+            if (a == b) {
+                continue;
+            }
+            long trocado = Long.parseLong(digitos.substring(0, posicao) + b + a + digitos.substring(posicao + 2));
+            assertFalse(NumeroConta.digitoValido(trocado), "não detectou " + trocado);
+        }
+    }
+}
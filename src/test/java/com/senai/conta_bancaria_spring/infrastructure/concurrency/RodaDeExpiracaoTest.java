@@ -0,0 +1,88 @@
+package com.senai.conta_bancaria_spring.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RodaDeExpiracaoTest {
+
+    private static final long TICK_MS = 100;
+
+    private final List<String> disparadas = new ArrayList<>();
+
+    @Test
+    void disparaExatamenteNoPrazoQuandoOPrazoCaiNoInicioDoTick() {
+        RodaDeExpiracao roda = new RodaDeExpiracao(8, TICK_MS, 0);
+        roda.agendar(300, () -> disparadas.add("a"));
+
+        assertEquals(0, roda.avancar(299));
+        assertEquals(1, roda.avancar(300));
+        assertEquals(List.of("a"), disparadas);
+    }
+
+    @Test
+    void nuncaDisparaAntesDoPrazoEDisparaAteUmTickDepois() {
+        RodaDeExpiracao roda = new RodaDeExpiracao(8, TICK_MS, 0);
+        roda.agendar(250, () -> disparadas.add("a"));
+
+        assertEquals(0, roda.avancar(250)); // slot do tick 3 ainda não foi visitado
+        assertEquals(0, roda.avancar(299));
+        assertEquals(1, roda.avancar(300));
+        assertEquals(List.of("a"), disparadas);
+    }
+
+    @Test
+    void tarefaDeUmaVoltaFuturaPermaneceNoSlotAteOPrazo() {
+        // 4 slots: os ticks 1 e 5 caem no mesmo slot
+        RodaDeExpiracao roda = new RodaDeExpiracao(4, TICK_MS, 0);
+        roda.agendar(100, () -> disparadas.add("primeira volta"));
+        roda.agendar(500, () -> disparadas.add("segunda volta"));
+
+        assertEquals(1, roda.avancar(100));
+        assertEquals(List.of("primeira volta"), disparadas);
+
+        assertEquals(0, roda.avancar(499));
+        assertEquals(1, roda.avancar(500));
+        assertEquals(List.of("primeira volta", "segunda volta"), disparadas);
+    }
+
+    @Test
+    void avancoDeMaisDeUmaVoltaDisparaTodasAsVencidas() {
+        RodaDeExpiracao roda = new RodaDeExpiracao(4, TICK_MS, 0);
+        roda.agendar(100, () -> disparadas.add("a"));
+        roda.agendar(350, () -> disparadas.add("b"));
+        roda.agendar(2_000, () -> disparadas.add("c"));
+
+        // Visita cada slot uma vez (a ordem entre slots segue o tick, não o prazo)
+        assertEquals(2, roda.avancar(1_000));
+        assertEquals(Set.of("a", "b"), Set.copyOf(disparadas));
+
+        assertEquals(1, roda.avancar(2_000));
+        assertEquals("c", disparadas.get(2));
+    }
+
+    @Test
+    void prazoJaVencidoDisparaNoProximoTick() {
+        RodaDeExpiracao roda = new RodaDeExpiracao(8, TICK_MS, 1_000);
+        roda.agendar(400, () -> disparadas.add("atrasada"));
+
+        assertEquals(0, roda.avancar(1_099));
+        assertEquals(1, roda.avancar(1_100));
+        assertEquals(List.of("atrasada"), disparadas);
+    }
+
+    @Test
+    void quantidadeDeSlotsEArredondadaParaPotenciaDeDois() {
+        // 3 slots viram 4: ticks 1 e 5 compartilham o slot, mas só o vencido dispara
+        RodaDeExpiracao roda = new RodaDeExpiracao(3, TICK_MS, 0);
+        roda.agendar(100, () -> disparadas.add("a"));
+        roda.agendar(500, () -> disparadas.add("b"));
+
+        assertEquals(1, roda.avancar(100));
+        assertEquals(List.of("a"), disparadas);
+    }
+}
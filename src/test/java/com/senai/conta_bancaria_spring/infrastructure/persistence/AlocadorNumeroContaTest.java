@@ -0,0 +1,54 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.service.NumeroConta;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlocadorNumeroContaTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void esgotaOBlocoAntesDeReservarOutroNaSequence() {
+        // Blocos de 3: este nó recebe o sequencial 0, depois 300 (os intermediários foram para outros nós)
+        when(jdbcTemplate.queryForObject(any(), eq(Long.class))).thenReturn(0L, 300L);
+        AlocadorNumeroConta alocador = new AlocadorNumeroConta(jdbcTemplate, entityManagerFactory, 3);
+
+        assertEquals(NumeroConta.gerar(0), alocador.proximoNumero());
+        assertEquals(NumeroConta.gerar(1), alocador.proximoNumero());
+        assertEquals(NumeroConta.gerar(2), alocador.proximoNumero());
+        assertEquals(NumeroConta.gerar(300), alocador.proximoNumero());
+        assertEquals(NumeroConta.gerar(301), alocador.proximoNumero());
+
+        verify(jdbcTemplate, times(2)).queryForObject(any(), eq(Long.class));
+    }
+
+    @Test
+    void recusaSubirQuandoASequenceTemOutroTamanhoDeBloco() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("SEQ_BLOCO_NUMERO_CONTA")))
+                .thenReturn(List.of("50"));
+        AlocadorNumeroConta alocador = new AlocadorNumeroConta(jdbcTemplate, entityManagerFactory, 100);
+
+        assertThrows(IllegalStateException.class, alocador::inicializar);
+    }
+}
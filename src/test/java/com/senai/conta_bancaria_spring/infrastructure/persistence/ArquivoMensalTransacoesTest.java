@@ -0,0 +1,135 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+import com.senai.conta_bancaria_spring.domain.enums.TipoTransacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArquivoMensalTransacoesTest {
+
+    private static final YearMonth MES = YearMonth.of(2026, 1);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravaEReleOArquivoDoMes() throws IOException {
+        UUID id1 = new UUID(3L, 1L);
+        UUID id2 = new UUID(2L, 2L);
+        UUID id3 = new UUID(-1L, 3L); // bits altos ligados: tem que voltar igual
+        LocalDateTime d1 = LocalDateTime.of(2026, 1, 20, 10, 0, 0, 123_456_789);
+        LocalDateTime d2 = LocalDateTime.of(2026, 1, 5, 8, 30);
+
+        Path caminho;
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(diretorio, MES)) {
+            escritor.adicionar("conta-a", id1, d1, "DEPOSITO", 5_000L, null);
+            escritor.adicionar("conta-a", id2, d2, "TRANSFERENCIA_ENVIADA", -1_250L, 100_000_009L);
+            escritor.adicionar("conta-b", id3, d2, "SAQUE", -300L, null);
+            caminho = escritor.concluir();
+        }
+
+        assertEquals(diretorio.resolve("transacoes-2026-01.arq"), caminho);
+        assertFalse(Files.exists(diretorio.resolve("transacoes-2026-01.arq.tmp")));
+
+        try (ArquivoMensalTransacoes arquivo = ArquivoMensalTransacoes.abrir(caminho)) {
+            assertEquals(MES, arquivo.mes());
+
+            List<Transacao> contaA = arquivo.ler("conta-a");
+            assertEquals(2, contaA.size());
+            assertEquals(id1, contaA.get(0).getId());
+            assertEquals(d1, contaA.get(0).getDataHora());
+            assertEquals(TipoTransacao.DEPOSITO, contaA.get(0).getTipo());
+            assertEquals(5_000L, contaA.get(0).getValor().centavos());
+            assertNull(contaA.get(0).getContaDestinoNumero());
+            assertEquals(id2, contaA.get(1).getId());
+            assertEquals(TipoTransacao.TRANSFERENCIA_ENVIADA, contaA.get(1).getTipo());
+            assertEquals(Long.valueOf(100_000_009L), contaA.get(1).getContaDestinoNumero());
+
+            ArquivoMensalTransacoes.Entrada entrada = arquivo.entrada("conta-a").orElseThrow();
+            assertEquals(2, entrada.linhas());
+            assertEquals(3_750L, entrada.somaCentavos());
+
+            assertEquals(id3, arquivo.ler("conta-b").getFirst().getId());
+            assertTrue(arquivo.ler("conta-sem-movimento").isEmpty());
+            assertTrue(arquivo.entrada("conta-sem-movimento").isEmpty());
+        }
+    }
+
+    @Test
+    void detectaBlocoCorrompido() throws IOException {
+        Path caminho;
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(diretorio, MES)) {
+            escritor.adicionar("conta-a", new UUID(1L, 1L), LocalDateTime.of(2026, 1, 2, 0, 0), "DEPOSITO", 100L, null);
+            escritor.adicionar("conta-b", new UUID(1L, 2L), LocalDateTime.of(2026, 1, 3, 0, 0), "DEPOSITO", 200L, null);
+            caminho = escritor.concluir();
+        }
+
+        long posicao;
+        try (ArquivoMensalTransacoes arquivo = ArquivoMensalTransacoes.abrir(caminho)) {
+            posicao = arquivo.entrada("conta-a").orElseThrow().posicao();
+        }
+        // O arquivo concluído é somente leitura: libera a escrita só para danificar um byte do bloco
+        assertTrue(caminho.toFile().setWritable(true));
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer umByte = ByteBuffer.allocate(1);
+            canal.read(umByte, posicao);
+            umByte.put(0, (byte) (umByte.get(0) ^ 0xFF)).rewind();
+            canal.write(umByte, posicao);
+        }
+
+        try (ArquivoMensalTransacoes arquivo = ArquivoMensalTransacoes.abrir(caminho)) {
+            IOException erro = assertThrows(IOException.class, () -> arquivo.ler("conta-a"));
+            assertTrue(erro.getMessage().startsWith("Bloco corrompido da conta conta-a"));
+            // Os blocos das outras contas continuam legíveis
+            assertEquals(200L, arquivo.ler("conta-b").getFirst().getValor().centavos());
+        }
+    }
+
+    @Test
+    void recusaArquivoSemRodape() throws IOException {
+        Path caminho = diretorio.resolve(ArquivoMensalTransacoes.nomeDoArquivo(MES));
+        Files.write(caminho, new byte[64]);
+
+        assertThrows(IOException.class, () -> ArquivoMensalTransacoes.abrir(caminho));
+    }
+
+    @Test
+    void recusaLinhasDeUmaContaForaDeOrdem() throws IOException {
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(diretorio, MES)) {
+            LocalDateTime data = LocalDateTime.of(2026, 1, 2, 0, 0);
+            escritor.adicionar("conta-a", new UUID(1L, 1L), data, "DEPOSITO", 100L, null);
+            escritor.adicionar("conta-b", new UUID(1L, 2L), data, "DEPOSITO", 100L, null);
+
+            assertThrows(IllegalStateException.class,
+                    () -> escritor.adicionar("conta-a", new UUID(1L, 3L), data, "DEPOSITO", 100L, null));
+        }
+    }
+
+    @Test
+    void gravacaoAbandonadaNaoDeixaArquivo() throws IOException {
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(diretorio, MES)) {
+            escritor.adicionar("conta-a", new UUID(1L, 1L), LocalDateTime.of(2026, 1, 2, 0, 0), "DEPOSITO", 100L, null);
+        }
+
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+}
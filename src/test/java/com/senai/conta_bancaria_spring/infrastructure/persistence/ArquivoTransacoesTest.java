@@ -0,0 +1,164 @@
+package com.senai.conta_bancaria_spring.infrastructure.persistence;
+
+import com.senai.conta_bancaria_spring.domain.entity.Transacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ArquivoTransacoesTest {
+
+    private static final String CONTA = "conta-a";
+    private static final String OUTRA_CONTA = "conta-b";
+
+    // Ordem do extrato: dataHora DESC, id DESC (id comparado como BINARY(16), byte a byte sem sinal)
+    private static final Comparator<Linha> ORDEM_EXTRATO = Comparator.comparing(Linha::dataHora)
+            .thenComparing(Linha::id, (a, b) -> {
+                int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            })
+            .reversed();
+
+    private record Linha(String conta, UUID id, LocalDateTime dataHora, long centavos) {}
+
+    @TempDir
+    Path diretorio;
+
+    private long proximoId;
+
+    @Test
+    void paginacaoAtravessaAFronteiraQuenteFriaSemRepetirNemPular() throws IOException {
+        // Janeiro e fevereiro arquivados; março ainda na tabela (camada quente)
+        List<Linha> janeiro = linhasDoMes(YearMonth.of(2026, 1));
+        List<Linha> fevereiro = linhasDoMes(YearMonth.of(2026, 2));
+        List<Linha> quentes = new ArrayList<>(linhasDoMes(YearMonth.of(2026, 3)).stream()
+                .filter(linha -> linha.conta().equals(CONTA)).toList());
+        quentes.sort(ORDEM_EXTRATO);
+
+        ArquivoTransacoes arquivo = new ArquivoTransacoes();
+        arquivo.publicar(arquivar(YearMonth.of(2026, 1), janeiro));
+        arquivo.publicar(arquivar(YearMonth.of(2026, 2), fevereiro));
+        ArquivoTransacoes.Catalogo foto = arquivo.catalogo();
+        assertEquals(LocalDateTime.of(2026, 3, 1, 0, 0), foto.inicioQuente());
+
+        List<UUID> esperado = new ArrayList<>(quentes.stream().map(Linha::id).toList());
+        List.of(fevereiro, janeiro).forEach(mes -> esperado.addAll(mes.stream()
+                .filter(linha -> linha.conta().equals(CONTA)).sorted(ORDEM_EXTRATO).map(Linha::id).toList()));
+
+        for (int tamanhoPagina = 1; tamanhoPagina <= 7; tamanhoPagina++) {
+            assertEquals(esperado, paginarExtrato(arquivo, foto, quentes, tamanhoPagina), "páginas de " + tamanhoPagina);
+        }
+    }
+
+    @Test
+    void somaDeMesesInteirosEParciaisBateComASomaLinhaALinha() throws IOException {
+        List<Linha> janeiro = linhasDoMes(YearMonth.of(2026, 1));
+        List<Linha> fevereiro = linhasDoMes(YearMonth.of(2026, 2));
+        ArquivoTransacoes arquivo = new ArquivoTransacoes();
+        arquivo.publicar(arquivar(YearMonth.of(2026, 1), janeiro));
+        arquivo.publicar(arquivar(YearMonth.of(2026, 2), fevereiro));
+        ArquivoTransacoes.Catalogo foto = arquivo.catalogo();
+
+        List<Linha> todas = new ArrayList<>(janeiro);
+        todas.addAll(fevereiro);
+        List<LocalDateTime> limites = List.of(
+                LocalDateTime.of(2025, 12, 15, 0, 0),
+                LocalDateTime.of(2026, 1, 1, 0, 0),
+                LocalDateTime.of(2026, 1, 10, 12, 0),
+                LocalDateTime.of(2026, 1, 31, 23, 59, 59),
+                LocalDateTime.of(2026, 2, 1, 0, 0),
+                LocalDateTime.of(2026, 2, 14, 6, 0),
+                LocalDateTime.of(2026, 3, 1, 0, 0),
+                LocalDateTime.of(2026, 4, 2, 0, 0));
+
+        for (LocalDateTime ate : limites) {
+            assertEquals(somaLinhaALinha(todas, null, ate), arquivo.somarCentavos(foto, CONTA, null, ate), "até " + ate);
+            for (LocalDateTime desde : limites) {
+                if (desde.isBefore(ate)) {
+                    assertEquals(somaLinhaALinha(todas, desde, ate), arquivo.somarCentavos(foto, CONTA, desde, ate),
+                            desde + " a " + ate);
+                }
+            }
+        }
+    }
+
+    // Mesmo encadeamento do ContaServiceDomain.buscarExtratoPorNumeroConta: tabela a partir de inicioQuente,
+    // completada pelos arquivos; o cursor é a última linha entregue.
+    private List<UUID> paginarExtrato(ArquivoTransacoes arquivo, ArquivoTransacoes.Catalogo foto,
+                                      List<Linha> quentes, int tamanhoPagina) {
+        List<UUID> entregues = new ArrayList<>();
+        Linha cursor = null;
+        do {
+            Linha posicao = cursor;
+            List<Linha> pagina = new ArrayList<>();
+            if (posicao == null || !posicao.dataHora().isBefore(foto.inicioQuente())) {
+                quentes.stream()
+                        .filter(linha -> posicao == null || ORDEM_EXTRATO.compare(linha, posicao) > 0)
+                        .limit(tamanhoPagina + 1)
+                        .forEach(pagina::add);
+            }
+            int faltam = tamanhoPagina + 1 - pagina.size();
+            if (faltam > 0) {
+                boolean cursorNoArquivo = posicao != null && posicao.dataHora().isBefore(foto.inicioQuente());
+                for (Transacao transacao : arquivo.buscarPagina(foto, CONTA, cursorNoArquivo ? posicao.dataHora() : null,
+                        cursorNoArquivo ? posicao.id() : null, faltam)) {
+                    pagina.add(new Linha(CONTA, transacao.getId(), transacao.getDataHora(), transacao.getValor().centavos()));
+                }
+            }
+
+            boolean haMais = pagina.size() > tamanhoPagina;
+            List<Linha> entregar = haMais ? pagina.subList(0, tamanhoPagina) : pagina;
+            entregar.forEach(linha -> entregues.add(linha.id()));
+            cursor = haMais ? entregar.getLast() : null;
+        } while (cursor != null);
+        return entregues;
+    }
+
+    // Linhas das duas contas no mês, com datas repetidas (desempate pelo id, inclusive com o bit alto ligado).
+    private List<Linha> linhasDoMes(YearMonth mes) {
+        List<Linha> linhas = new ArrayList<>();
+        for (int dia = 1; dia <= mes.lengthOfMonth(); dia += 4) {
+            LocalDateTime dataHora = mes.atDay(dia).atTime(dia % 3 == 0 ? 0 : 12, 0);
+            long valor = (dia % 2 == 0 ? -1 : 1) * (dia * 137L + mes.getMonthValue());
+            linhas.add(new Linha(CONTA, novoId(false), dataHora, valor));
+            linhas.add(new Linha(CONTA, novoId(true), dataHora, valor + 1));
+            linhas.add(new Linha(OUTRA_CONTA, novoId(false), dataHora, 999L));
+        }
+        linhas.add(new Linha(CONTA, novoId(false), mes.atDay(1).atStartOfDay(), 77L)); // primeiro instante do mês
+        return linhas;
+    }
+
+    private UUID novoId(boolean bitAlto) {
+        long msb = ++proximoId;
+        return new UUID(bitAlto ? msb | Long.MIN_VALUE : msb, proximoId);
+    }
+
+    private ArquivoMensalTransacoes arquivar(YearMonth mes, List<Linha> linhas) throws IOException {
+        List<Linha> ordenadas = new ArrayList<>(linhas);
+        ordenadas.sort(Comparator.comparing(Linha::conta).thenComparing(ORDEM_EXTRATO));
+        try (ArquivoMensalTransacoes.Escritor escritor = new ArquivoMensalTransacoes.Escritor(diretorio, mes)) {
+            for (Linha linha : ordenadas) {
+                escritor.adicionar(linha.conta(), linha.id(), linha.dataHora(), "DEPOSITO", linha.centavos(), null);
+            }
+            return ArquivoMensalTransacoes.abrir(escritor.concluir());
+        }
+    }
+
+    // desde < dataHora <= ate (desde nulo: sem limite), como em ArquivoTransacoes.somarCentavos
+    private static long somaLinhaALinha(List<Linha> linhas, LocalDateTime desde, LocalDateTime ate) {
+        return linhas.stream()
+                .filter(linha -> linha.conta().equals(CONTA))
+                .filter(linha -> (desde == null || linha.dataHora().isAfter(desde)) && !linha.dataHora().isAfter(ate))
+                .mapToLong(Linha::centavos)
+                .sum();
+    }
+}